@@ -0,0 +1,100 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Benchmark class, measures the latency of looking products up by ID in both product stores
+ * as the inventory grows from 1 thousand to 10 million products. InventoryControl.getProductByID
+ * is the store's get under a shared read lock, whose cost does not depend on the inventory size.
+ * The latency stays flat while the ID index does, and grows only with the cache misses of a
+ * larger heap.
+ *
+ * It is a plain main method rather than a JMH benchmark, as the project has no build manifest to
+ * pull JMH in. It warms up every size before measuring it, and reads every looked up product so the
+ * lookups cannot be optimized away. Compile it next to the classes of src/ and run it, e.g. from
+ * src/ after compiling them: javac -cp . -d . ../bench/ProductLookupBenchmark.java, then
+ * java -Xmx4g ProductLookupBenchmark [largest size].
+ *
+ * @version ver1.0.0
+ */
+public class ProductLookupBenchmark {
+    private static final int DEFAULT_LARGEST_SIZE = 10000000;
+    private static final int LOOKUPS = 1 << 20; // per iteration, a power of two
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    private static long sink;
+
+    /**
+     * Default constructor of ProductLookupBenchmark class.
+     */
+    private ProductLookupBenchmark() {
+
+    }
+
+    /**
+     * Entry point of the benchmark.
+     *
+     * @param args                          The largest inventory size, optional.
+     */
+    public static void main(String[] args) {
+        int largestSize = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LARGEST_SIZE;
+        System.out.printf("%-10s %12s %16s %16s%n", "store", "products", "ns/lookup (avg)", "ns/lookup (best)");
+        for (int size = 1000; size <= largestSize; size *= 10) {
+            measure("object", new ObjectProductStore(), size);
+            measure("columnar", new ColumnarProductStore(), size);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    /**
+     * Fill a store with products of IDs 1 to size and print its lookup latency.
+     *
+     * @param name                          The store's name to be printed.
+     * @param store                         The empty store.
+     * @param size                          Number of products.
+     */
+    private static void measure(String name, ProductStore store, int size) {
+        for (int productID = 1; productID <= size; productID++) {
+            store.load(new Product(productID, "Product " + productID, "Brand", "Description",
+                    1000, 900, 10, "Books", "Horror"));
+        }
+        store.finishLoading();
+
+        // random IDs are drawn up front, so the timed loop only looks up
+        int[] productIDs = new int[LOOKUPS];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < LOOKUPS; i++) {
+            productIDs[i] = random.nextInt(size) + 1;
+        }
+
+        for (int iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+            lookUp(store, productIDs);
+        }
+        long total = 0;
+        long best = Long.MAX_VALUE;
+        for (int iteration = 0; iteration < MEASURED_ITERATIONS; iteration++) {
+            long nanos = lookUp(store, productIDs);
+            total += nanos;
+            best = Math.min(best, nanos);
+        }
+        System.out.printf("%-10s %12d %16.1f %16.1f%n", name, size,
+                (double) total / MEASURED_ITERATIONS / LOOKUPS, (double) best / LOOKUPS);
+    }
+
+    /**
+     * Look all IDs up once.
+     *
+     * @param store                         The store.
+     * @param productIDs                    The IDs to be looked up.
+     * @return                              The time taken in nanoseconds.
+     */
+    private static long lookUp(ProductStore store, int[] productIDs) {
+        long start = System.nanoTime();
+        long quantities = 0;
+        for (int productID : productIDs) {
+            quantities += store.get(productID).getQuantity();
+        }
+        long nanos = System.nanoTime() - start;
+        sink += quantities;
+        return nanos;
+    }
+}
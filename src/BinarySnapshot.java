@@ -0,0 +1,277 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Class which keeps a binary copy of a text data file, so startup can load the records
+ * with bulk reads instead of parsing the text. The text file stays the import and export
+ * format: the snapshot records the size and modification time of the text file it was
+ * made from, and is ignored as soon as the text file has changed.
+ *
+ * A snapshot is a fixed-size header, the records with fixed-width fields, then a string
+ * table the records refer to by index. Names repeated across records, like categories,
+ * are stored once.
+ *
+ * @param <T>                           The record type.
+ * @version ver1.0.0
+ */
+public abstract class BinarySnapshot<T> {
+    private static final int MAGIC = 0x4D4D5353; // "MMSS"
+    private static final int HEADER_SIZE = 48;
+
+    private final String fileName;
+    private final String sourceFileName;
+    private final int recordType;
+
+    /**
+     * Constructor of BinarySnapshot class.
+     *
+     * @param fileName                  The snapshot file's name.
+     * @param sourceFileName            The name of the text file the snapshot is a copy of.
+     * @param recordType                Identifies the kind of records, so a snapshot of one kind is never read as another.
+     */
+    protected BinarySnapshot(String fileName, String sourceFileName, int recordType) {
+        this.fileName = fileName;
+        this.sourceFileName = sourceFileName;
+        this.recordType = recordType;
+    }
+
+    /**
+     * Load all records of the snapshot if it is a valid copy of the current text file.
+     * Either every record is passed to the loader or none is.
+     *
+     * @param loader                    Callback which receives each record.
+     * @return                          A boolean, false if the snapshot is missing, outdated or damaged.
+     */
+    public boolean load(Consumer<T> loader) {
+        List<T> records;
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return false;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read the whole file in as few calls as the operating system allows
+            }
+            buffer.flip();
+
+            Path source = Paths.get(sourceFileName);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != Constant.SNAPSHOT_VERSION
+                    || buffer.getInt() != recordType || buffer.getLong() != Files.size(source)
+                    || buffer.getLong() != Files.getLastModifiedTime(source).to(TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+            int recordCount = buffer.getInt();
+            int stringsOffset = (int) buffer.getLong();
+            long checksum = buffer.getLong();
+
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.array(), HEADER_SIZE, buffer.limit() - HEADER_SIZE);
+            if (crc.getValue() != checksum) {
+                return false;
+            }
+
+            String[] strings = readStrings(buffer.position(stringsOffset));
+            buffer.position(HEADER_SIZE);
+            records = new ArrayList<>(recordCount);
+            for (int i = 0; i < recordCount; i++) {
+                records.add(readRecord(buffer, strings));
+            }
+        }
+        catch (NoSuchFileException e) {
+            return false;
+        }
+        catch (IOException | RuntimeException e) {
+            return false;
+        }
+        records.forEach(loader);
+        return true;
+    }
+
+    /**
+     * Write a snapshot of the records, which must be the current content of the text file.
+     * A snapshot is only a cache, so a failed write is not reported.
+     *
+     * @param recordSource              Passes every record to the given callback.
+     */
+    public void save(Consumer<Consumer<T>> recordSource) {
+        Path path = Paths.get(fileName);
+        Path temporary = Paths.get(fileName + Constant.STRING_TEMP_FILE_SUFFIX);
+        try {
+            Path source = Paths.get(sourceFileName);
+            long sourceSize = Files.size(source);
+            long sourceModified = Files.getLastModifiedTime(source).to(TimeUnit.NANOSECONDS);
+
+            int recordCount;
+            long stringsOffset;
+            CRC32C crc = new CRC32C();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_SIZE);
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                        new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+                StringTable strings = new StringTable();
+                int[] count = new int[1];
+                recordSource.accept(record -> {
+                    try {
+                        writeRecord(output, record, strings);
+                        count[0]++;
+                    }
+                    catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                recordCount = count[0];
+                stringsOffset = HEADER_SIZE + (long) output.size();
+                strings.writeTo(output);
+                output.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(Constant.SNAPSHOT_VERSION).putInt(recordType)
+                        .putLong(sourceSize).putLong(sourceModified).putInt(recordCount)
+                        .putLong(stringsOffset).putLong(crc.getValue()).flip();
+                channel.write(header, 0);
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            // without a snapshot the next startup parses the text file
+            try {
+                Files.deleteIfExists(temporary);
+            }
+            catch (IOException ignored) {
+                // nothing more can be done about a leftover temporary file
+            }
+        }
+    }
+
+    /**
+     * Write one record with fixed-width fields.
+     *
+     * @param output                    The output of the records section.
+     * @param record                    The record.
+     * @param strings                   The string table the record's strings are added to.
+     * @throws IOException              If the record cannot be written.
+     */
+    protected abstract void writeRecord(DataOutputStream output, T record, StringTable strings) throws IOException;
+
+    /**
+     * Read one record written by writeRecord.
+     *
+     * @param input                     The buffer positioned at the record.
+     * @param strings                   The string table.
+     * @return                          The record.
+     */
+    protected abstract T readRecord(ByteBuffer input, String[] strings);
+
+    /**
+     * Get a string of the string table.
+     *
+     * @param strings                   The string table.
+     * @param index                     The string's index, -1 for null.
+     * @return                          The string.
+     */
+    protected static String getString(String[] strings, int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    /**
+     * Read the string table.
+     *
+     * @param input                     The buffer positioned at the string table.
+     * @return                          The strings by index.
+     */
+    private static String[] readStrings(ByteBuffer input) {
+        String[] strings = new String[input.getInt()];
+        byte[] bytes = input.array();
+        for (int i = 0; i < strings.length; i++) {
+            int length = input.getInt();
+            strings[i] = new String(bytes, input.position(), length, StandardCharsets.UTF_8);
+            input.position(input.position() + length);
+        }
+        return strings;
+    }
+
+    /**
+     * Class which collects the strings of the records being written. Only their encoded
+     * bytes are kept, and names marked as repeated are stored once.
+     */
+    protected static class StringTable {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream output = new DataOutputStream(bytes);
+        private final HashMap<String, Integer> symbols = new HashMap<>();
+        private int count = 0;
+
+        /**
+         * Add a string.
+         *
+         * @param string                The string, may be null.
+         * @return                      The string's index.
+         * @throws IOException          If the string cannot be encoded.
+         */
+        protected int add(String string) throws IOException {
+            if (string == null) {
+                return -1;
+            }
+            byte[] encoded = string.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(encoded.length);
+            output.write(encoded);
+            return count++;
+        }
+
+        /**
+         * Add a name which many records share, storing it only once.
+         *
+         * @param name                  The name, may be null.
+         * @return                      The name's index.
+         * @throws IOException          If the name cannot be encoded.
+         */
+        protected int addSymbol(String name) throws IOException {
+            if (name == null) {
+                return -1;
+            }
+            Integer index = symbols.get(name);
+            if (index == null) {
+                index = add(name);
+                symbols.put(name, index);
+            }
+            return index;
+        }
+
+        /**
+         * Write the string table.
+         *
+         * @param target                The output of the snapshot.
+         * @throws IOException          If the table cannot be written.
+         */
+        private void writeTo(DataOutputStream target) throws IOException {
+            target.writeInt(count);
+            bytes.writeTo(target);
+        }
+    }
+}
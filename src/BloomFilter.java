@@ -0,0 +1,95 @@
+/**
+ * Class which represents a Bloom filter over strings, answering whether a string
+ * may have been added or has definitely not been added, using a fixed bit set.
+ *
+ * @version ver1.0.0
+ */
+public class BloomFilter {
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+    private final int capacity;
+    private int size;
+
+    /**
+     * Constructor of BloomFilter class.
+     *
+     * @param capacity                  Number of strings the filter is sized for.
+     * @param falsePositiveRate         Expected false positive rate once full.
+     */
+    public BloomFilter(int capacity, double falsePositiveRate) {
+        this.capacity = Math.max(capacity, 1);
+        // optimal bit count m = -n ln p / (ln 2)^2 and hash count k = m / n ln 2
+        long optimalBits = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Math.max(optimalBits, 64), Integer.MAX_VALUE - 63);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.capacity * Math.log(2)));
+        this.bits = new long[(bitCount + 63) / 64];
+        this.size = 0;
+    }
+
+    /**
+     * Add a string to the filter.
+     *
+     * @param value                     The string to be added.
+     */
+    public void add(String value) {
+        int hash1 = value.hashCode();
+        int hash2 = secondaryHash(hash1);
+        for (int index = 0; index < hashCount; index++) {
+            int bit = Math.floorMod(hash1 + index * hash2, bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        size++;
+    }
+
+    /**
+     * Check whether a string may have been added.
+     *
+     * @param value                     The string to be checked.
+     * @return                          A boolean, false if the string has definitely not been added.
+     */
+    public boolean mightContain(String value) {
+        int hash1 = value.hashCode();
+        int hash2 = secondaryHash(hash1);
+        for (int index = 0; index < hashCount; index++) {
+            int bit = Math.floorMod(hash1 + index * hash2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether more strings have been added than the filter is sized for.
+     *
+     * @return                          A boolean, true if the false positive rate is above the expected one.
+     */
+    public boolean isFull() {
+        return size > capacity;
+    }
+
+    /**
+     * Getter method for capacity.
+     *
+     * @return                          Number of strings the filter is sized for.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Derive an independent second hash for double hashing.
+     *
+     * @param hash                      The first hash.
+     * @return                          The second hash, always odd.
+     */
+    private static int secondaryHash(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash | 1;
+    }
+}
@@ -1,13 +1,24 @@
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.function.IntFunction;
 
 /**
- * Class which prints out messages on standard output.
+ * Class which prints out messages on the output of the current session.
  *
  * @version ver1.0.0
  */
 public class Boundary {
+    // fragments which are the same on every screen are built once
+    private static final String RULE_HEAVY = "+".repeat(Constant.LINE_LENGTH_LIMIT);
+    private static final String RULE_LIGHT = "-".repeat(Constant.LINE_LENGTH_LIMIT);
+    private static final String RULE_DOUBLE = "=".repeat(Constant.LINE_LENGTH_LIMIT);
+    private static final String TITLE_INDENT = " ".repeat(30);
+    private static final String WELCOME_TITLE = " ".repeat(20) + "Welcome to Monash Merchant";
+    private static final String PAGE_NUMBER_FORMAT = " ".repeat(28) + "Page %03d/%03d%n";
+    private static final String PAGE_TURN_HINT = " ".repeat(12) + "Input '>' for next page, '<' for previous page";
+    // cards and pages kept for later screens are rendered here, apart from the session's screen
+    private static final ThreadLocal<ScreenRenderer> CAPTURE = ThreadLocal.withInitial(ScreenRenderer::capturing);
 
     /**
      * Default constructor for Boundary class.
@@ -15,36 +26,108 @@ public class Boundary {
     public Boundary(){
     }
 
+    /**
+     * Get the screen renderer of the current session.
+     *
+     * @return                          The current session's screen renderer.
+     */
+    private static ScreenRenderer out() {
+        return Session.current().getOutput();
+    }
+
+    /**
+     * Print a line of a summary box, with the label at the start and the value at the end.
+     *
+     * @param label                     The label.
+     * @param value                     The value.
+     */
+    private static void printValueLine(String label, String value) {
+        ScreenRenderer out = out();
+        out.print("|");
+        out.print(label);
+        out.printSpaces(Constant.LINE_LENGTH_LIMIT - 2 - label.length() - value.length());
+        out.print(value);
+        out.println("|");
+    }
+
     /**
      * Print system usage.
      */
     // menus
     public static void printSystemUsage() {
-        System.out.println();
-        System.out.println("<------------------SYSTEM USAGE--------------------->");
-        System.out.println("<  Please type the number before each option for c- >");
-        System.out.println("<  onducting that operation.                        >");
-        System.out.println("<                                                   >");
-        System.out.println("<  Please feel free to type \\b in any input field   >");
-        System.out.println("<  to GO BACK to the previous page, or type \\l to   >");
-        System.out.println("<  directly LOG OUT.                                >");
-        System.out.println("<                                                   >");
-        System.out.println("<  However, using shortcut to log out will NOT ask  >");
-        System.out.println("<  for confirmation, please be careful to use it.   >");
-        System.out.println("<                                                   >");
-        System.out.println("<  [Default customer] member@student.monash.edu     >");
-        System.out.println("<                     Monash1234                    >");
-        System.out.println("<                                                   >");
-        System.out.println("<  [  Default admin ] admin@merchant.monash.edu     >");
-        System.out.println("<                     12345678                      >");
-        System.out.println("<                                                   >");
-        System.out.println("<  You can add other accounts in User.txt if you l- >");
-        System.out.println("<  ike before executing the process.                >");
-        System.out.println("<                                                   >");
-        System.out.println("<  Have fun.                                        >");
-        System.out.println("<--------------------------------------------------->");
-        System.out.println();
-        System.out.println();
+        out().println();
+        out().println("<------------------SYSTEM USAGE--------------------->");
+        out().println("<  Please type the number before each option for c- >");
+        out().println("<  onducting that operation.                        >");
+        out().println("<                                                   >");
+        out().println("<  Please feel free to type \\b in any input field   >");
+        out().println("<  to GO BACK to the previous page, or type \\l to   >");
+        out().println("<  directly LOG OUT.                                >");
+        out().println("<                                                   >");
+        out().println("<  However, using shortcut to log out will NOT ask  >");
+        out().println("<  for confirmation, please be careful to use it.   >");
+        out().println("<                                                   >");
+        out().println("<  [Default customer] member@student.monash.edu     >");
+        out().println("<                     Monash1234                    >");
+        out().println("<                                                   >");
+        out().println("<  [  Default admin ] admin@merchant.monash.edu     >");
+        out().println("<                     12345678                      >");
+        out().println("<                                                   >");
+        out().println("<  You can add other accounts in User.txt if you l- >");
+        out().println("<  ike before executing the process.                >");
+        out().println("<                                                   >");
+        out().println("<  Have fun.                                        >");
+        out().println("<--------------------------------------------------->");
+        out().println();
+        out().println();
+    }
+
+    /**
+     * Print the address the server mode is listening on.
+     *
+     * @param port                      The local port.
+     */
+    public static void printServerStarted(int port) {
+        out().println("[√]Server is listening on localhost:" + port + ".");
+    }
+
+    /**
+     * Print the address the HTTP mode is listening on.
+     *
+     * @param port                      The local port.
+     */
+    public static void printHttpServerStarted(int port) {
+        out().println("[√]HTTP API is listening on http://localhost:" + port + "/.");
+    }
+
+    /**
+     * Print the results of a load generator run.
+     *
+     * @param requests                  Number of requests answered.
+     * @param rejected                  Number of requests answered with a client error, e.g. out of stock.
+     * @param failed                    Number of requests without an answer or answered with a server error.
+     * @param millis                    Time taken in milliseconds.
+     * @param latencies                 Sorted latencies of the answered requests in microseconds.
+     */
+    public static void printHttpLoadResult(long requests, long rejected, long failed, long millis, long[] latencies) {
+        out().println("[√]Load finished: " + requests + " requests in " + millis + " ms, "
+                + (millis == 0 ? requests : requests * 1000 / millis) + " requests/s.");
+        out().println("   Rejected: " + rejected + ", failed: " + failed + ".");
+        if (latencies.length > 0) {
+            out().println("   Latency p50 " + latencies[latencies.length / 2] / 1000.0 + " ms, p99 "
+                    + latencies[(int) (latencies.length * 0.99)] / 1000.0 + " ms, max "
+                    + latencies[latencies.length - 1] / 1000.0 + " ms.");
+        }
+    }
+
+    /**
+     * Print how many input lines a batch has run and how long it took.
+     *
+     * @param lines                     Number of input lines run.
+     * @param millis                    Time taken in milliseconds.
+     */
+    public static void printBatchFinished(long lines, long millis) {
+        out().println("[√]Batch finished: " + lines + " lines in " + millis + " ms.");
     }
 
     /**
@@ -53,14 +136,14 @@ public class Boundary {
     // menus
     public static void printGuestMainMenu() {
 
-        System.out.println();
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
-        System.out.println(" ".repeat(20) + "Welcome to Monash Merchant");
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
+        out().println();
+        out().println(RULE_HEAVY);
+        out().println(WELCOME_TITLE);
+        out().println(RULE_HEAVY);
 
-        System.out.println("1. Login");
-        System.out.println("2. Exit");
-        System.out.println("Please enter an option:");
+        out().println("1. Login");
+        out().println("2. Exit");
+        out().println("Please enter an option:");
     }
 
     /**
@@ -70,16 +153,17 @@ public class Boundary {
      */
     public static void printCustomerMainMenu(String username) {
 
-        System.out.println();
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
-        System.out.println(" ".repeat(30) + "Welcome, " + username);
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
+        out().println();
+        out().println(RULE_HEAVY);
+        out().println(TITLE_INDENT + "Welcome, " + username);
+        out().println(RULE_HEAVY);
 
-        System.out.println("1. View inventory");
-        System.out.println("2. add product to shopping cart");
-        System.out.println("3. view shopping cart");
-        System.out.println("4. logout");
-        System.out.println("Please enter an option:");
+        out().println("1. View inventory");
+        out().println("2. add product to shopping cart");
+        out().println("3. view shopping cart");
+        out().println("4. search products");
+        out().println("5. logout");
+        out().println("Please enter an option:");
 
     }
 
@@ -88,17 +172,18 @@ public class Boundary {
      */
     public static void printAdminMainMenu() {
 
-        System.out.println();
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
-        System.out.println(" ".repeat(30) + "Welcome, Admin");
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
-
-        System.out.println("1. View Inventory");
-        System.out.println("2. Add New Product");
-        System.out.println("3. Edit Existing Product");
-        System.out.println("4. Remove Product");
-        System.out.println("5. Logout");
-        System.out.println("Please enter an option:");
+        out().println();
+        out().println(RULE_HEAVY);
+        out().println(TITLE_INDENT + "Welcome, Admin");
+        out().println(RULE_HEAVY);
+
+        out().println("1. View Inventory");
+        out().println("2. Add New Product");
+        out().println("3. Edit Existing Product");
+        out().println("4. Remove Product");
+        out().println("5. Search Products");
+        out().println("6. Logout");
+        out().println("Please enter an option:");
     }
 
     /**
@@ -106,32 +191,32 @@ public class Boundary {
      * @param product           Product object.
      */
     public static void printEditProductMenu(Product product){
-        System.out.println();
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
-        System.out.println(" ".repeat(30) + "Edit product");
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
+        out().println();
+        out().println(RULE_HEAVY);
+        out().println(TITLE_INDENT + "Edit product");
+        out().println(RULE_HEAVY);
 
         printOverViewOfProduct(product, Constant.OP_TYPE_CHECK_PRODUCT);
 
-        System.out.println("1.  Edit category");
-        System.out.println("2.  Edit subcategory");
-        System.out.println("3.  Edit name");
-        System.out.println("4.  Edit brand");
-        System.out.println("5.  Edit description");
-        System.out.println("6.  Edit price");
-        System.out.println("7.  Edit member price");
-        System.out.println("8.  Edit quantity");
+        out().println("1.  Edit category");
+        out().println("2.  Edit subcategory");
+        out().println("3.  Edit name");
+        out().println("4.  Edit brand");
+        out().println("5.  Edit description");
+        out().println("6.  Edit price");
+        out().println("7.  Edit member price");
+        out().println("8.  Edit quantity");
 
 
         if (product.getCategory().equalsIgnoreCase("Food") ||
                 product.getCategory().equalsIgnoreCase("Beverages")) {
-            System.out.println("9.  Edit expiry date");
-            System.out.println("10. Edit ingredients");
-            System.out.println("11. Edit storage instructions");
-            System.out.println("12. Edit allergen info");
+            out().println("9.  Edit expiry date");
+            out().println("10. Edit ingredients");
+            out().println("11. Edit storage instructions");
+            out().println("12. Edit allergen info");
         }
-        System.out.println("0. Back to main page");
-        System.out.println("Please enter an option:");
+        out().println("0. Back to main page");
+        out().println("Please enter an option:");
 
     }
 
@@ -142,13 +227,13 @@ public class Boundary {
      * @param totalPages                Total page number.
      */
     public static void printShoppingCartMenu(int currentPage, int totalPages) {
-        System.out.printf(" ".repeat(28) + "Page %03d/%03d%n", currentPage, totalPages);
-        System.out.println(" ".repeat(12) + "Input '>' for next page, '<' for previous page");
+        out().printf(PAGE_NUMBER_FORMAT, currentPage, totalPages);
+        out().println(PAGE_TURN_HINT);
 
-        System.out.println();
-        System.out.println("1. Checkout");
-        System.out.println("0. Back to main page");
-        System.out.println("Please enter an option:");
+        out().println();
+        out().println("1. Checkout");
+        out().println("0. Back to main page");
+        out().println("Please enter an option:");
     }
 
     /**
@@ -158,11 +243,11 @@ public class Boundary {
      * @param totalPages                Total page number.
      */
     public static void printInventoryMenu(int currentPage, int totalPages) {
-        System.out.printf(" ".repeat(28) + "Page %03d/%03d%n", currentPage, totalPages);
-        System.out.println(" ".repeat(12) + "Input '>' for next page, '<' for previous page");
-        System.out.println();
-        System.out.println("0. Back to main page");
-        System.out.println("Please enter an option:");
+        out().printf(PAGE_NUMBER_FORMAT, currentPage, totalPages);
+        out().println(PAGE_TURN_HINT);
+        out().println();
+        out().println("0. Back to main page");
+        out().println("Please enter an option:");
     }
 
     /**
@@ -172,13 +257,13 @@ public class Boundary {
      * @param totalPages                Total page number.
      */
     public static void printCheckOutMenu(int currentPage, int totalPages) {
-        System.out.printf(" ".repeat(28) + "Page %03d/%03d%n", currentPage, totalPages);
-        System.out.println(" ".repeat(12) + "Input '>' for next page, '<' for previous page");
+        out().printf(PAGE_NUMBER_FORMAT, currentPage, totalPages);
+        out().println(PAGE_TURN_HINT);
 
-        System.out.println();
-        System.out.println("1. Pay with credits");
-        System.out.println("0. Back to shopping cart page");
-        System.out.println("Please enter an option:");
+        out().println();
+        out().println("1. Pay with credits");
+        out().println("0. Back to shopping cart page");
+        out().println("Please enter an option:");
     }
 
 
@@ -192,66 +277,64 @@ public class Boundary {
         for (String category : categoryList.keySet()){
             output.append(category).append("/");
         }
-        System.out.println(output);
+        out().println(output);
     }
 
     /**
      * Print available subcategories under target category.
      *
-     * @param categoryList                  Available categories.
-     * @param requiredCategory              The target category.
+     * @param subcategoryList               Available subcategories of the target category.
      */
-    public static void printAvailableSubcategories(HashMap<String, List<String>> categoryList, String requiredCategory){
+    public static void printAvailableSubcategories(List<String> subcategoryList){
         StringBuilder output = new StringBuilder("Available subcategories: ");
-        categoryList.forEach((category, subcategoryList) -> {
-            if (requiredCategory.equalsIgnoreCase(category)) {
-                for (String subcategory: subcategoryList){
-                    output.append(subcategory).append("/");
-                }
-            }
-        });
-        System.out.println(output);
+        for (String subcategory: subcategoryList){
+            output.append(subcategory).append("/");
+        }
+        out().println(output);
     }
 
     /**
      * Alert when already at the last page.
      */
     public static void alertLastPage() {
-        System.out.println("[!]Already reached last page.");
+        out().println("[!]Already reached last page.");
     }
 
     /**
      * Alert when already at the first page.
      */
     public static void alertFirstPage() {
-        System.out.println("[!]Already reached first page.");
+        out().println("[!]Already reached first page.");
     }
 
     /**
      * Alert when already at the main menu.
      */
     public static void alertMainMenu() {
-        System.out.println("[!]Already reached main menu.");
+        out().println("[!]Already reached main menu.");
     }
 
     /**
      * Print one field of product information with a specified format.
      *
+     * @param out                           The renderer the line is printed to.
      * @param fieldName                     The field's name.
      * @param value                         The field's value.
      */
-    private static void printProductInfoLine(String fieldName, String value){
+    private static void printProductInfoLine(ScreenRenderer out, String fieldName, String value){
         int fieldNameLength = fieldName.length();
         int valueLineLength = Constant.LINE_LENGTH_LIMIT - fieldNameLength - 7;
         int valueLength = value.length();
         int lines = (int)Math.ceil((double)valueLength / valueLineLength);
-        StringBuilder result = new StringBuilder();
         for (int currentLine = 0; currentLine < lines; currentLine++) {
             if (currentLine == 0){
-                result.append(String.format("|  [%s] ", fieldName));
+                out.print("|  [");
+                out.print(fieldName);
+                out.print("] ");
             }
             else {
-                result.append("|").append(" ".repeat(fieldNameLength + 5));
+                out.print("|");
+                out.printSpaces(fieldNameLength + 5);
             }
             // get the start & end index in the value string
             int lineStartIndex = currentLine * valueLineLength;
@@ -259,10 +342,10 @@ public class Boundary {
 
             // number of aligning spaces
             int spaceLength = valueLineLength - (lineEndIndex - lineStartIndex);
-            result.append(value, lineStartIndex, lineEndIndex).append(" ".repeat(spaceLength)).append("|\n");
-
+            out.print(value, lineStartIndex, lineEndIndex);
+            out.printSpaces(spaceLength);
+            out.println("|");
         }
-        System.out.print(result);
     }
 
 
@@ -275,16 +358,16 @@ public class Boundary {
     public static void printOverViewOfProduct(Product product, int option){
         switch (option) {
             case Constant.OP_TYPE_CREATE_PRODUCT -> {
-                System.out.println("The new product information is:");
+                out().println("The new product information is:");
             }
             case Constant.OP_TYPE_CHECK_PRODUCT -> {
-                System.out.println("The current product information is:");
+                out().println("The current product information is:");
             }
             case Constant.OP_TYPE_UPDATE_PRODUCT -> {
-                System.out.println("The updated product information is:");
+                out().println("The updated product information is:");
             }
             case Constant.OP_TYPE_REMOVE_PRODUCT -> {
-                System.out.println("The to-be-removed product information is:");
+                out().println("The to-be-removed product information is:");
             }
         }
         printOneProduct(product);
@@ -296,52 +379,136 @@ public class Boundary {
      * @param product                       The presented product.
      */
     public static void printOneProduct(Product product){
+        printOneProduct(out(), product);
+    }
+
+    /**
+     * Present the information of a product on a renderer.
+     *
+     * @param out                               The renderer the product is printed to.
+     * @param product                           The presented product.
+     */
+    private static void printOneProduct(ScreenRenderer out, Product product){
 
-        System.out.println("-".repeat(Constant.LINE_LENGTH_LIMIT));
+        out.println(RULE_LIGHT);
 
-        printProductInfoLine(String.format("%03d", product.getProductId()), product.getName());
-        System.out.println("-".repeat(Constant.LINE_LENGTH_LIMIT));
+        printProductInfoLine(out, String.format("%03d", product.getProductId()), product.getName());
+        out.println(RULE_LIGHT);
 
-        printProductInfoLine("PRICE", String.format("$%.2f / VIP $%.2f",
-                product.getPrice(), product.getMemberPrice()));
-        printProductInfoLine("BRAND", product.getBrand());
-        printProductInfoLine("QUANTITY", String.valueOf(product.getQuantity()));
-        printProductInfoLine("CATEGORY", product.getCategory() + " > " + product.getSubcategory());
-        printProductInfoLine("DESCRIPTION", product.getDescription());
+        printProductInfoLine(out, "PRICE", Money.format(product.getPrice()) + " / VIP " +
+                Money.format(product.getMemberPrice()));
+        printProductInfoLine(out, "BRAND", product.getBrand());
+        printProductInfoLine(out, "QUANTITY", String.valueOf(product.getQuantity()));
+        printProductInfoLine(out, "CATEGORY", product.getCategory() + " > " + product.getSubcategory());
+        printProductInfoLine(out, "DESCRIPTION", product.getDescription());
 
 
         if (product.getCategory().equalsIgnoreCase(Constant.CATEGORY_FOOD) ||
                 product.getCategory().equalsIgnoreCase(Constant.CATEGORY_BEVERAGE)) {
-            printProductInfoLine("EXPIRY DATE", Util.getStringFromDate(((FoodProduct)product)
+            printProductInfoLine(out, "EXPIRY DATE", Util.getStringFromDate(((FoodProduct)product)
                     .getExpirationDate()));
-            printProductInfoLine("INGREDIENT", ((FoodProduct)product).getIngredients());
-            printProductInfoLine("STORAGE", ((FoodProduct)product).getStorageInstructions());
-            printProductInfoLine("ALLERGEN", ((FoodProduct)product).getAllergenInfo());
+            printProductInfoLine(out, "INGREDIENT", ((FoodProduct)product).getIngredients());
+            printProductInfoLine(out, "STORAGE", ((FoodProduct)product).getStorageInstructions());
+            printProductInfoLine(out, "ALLERGEN", ((FoodProduct)product).getAllergenInfo());
         }
 
-        System.out.println("-".repeat(Constant.LINE_LENGTH_LIMIT));
+        out.println(RULE_LIGHT);
     }
 
     /**
-     * print the inventory.
+     * print one page of the inventory, copying the rendered page if the catalog has not
+     * changed since it was last shown.
      *
-     * @param productList                       The product list.
-     * @param currentPage                       Page number of the list that is currently shown.
+     * @param page                              The page number.
+     * @param pageSource                        Gets the products on a page.
+     * @param renderedPages                     The cache of rendered cards and pages.
      */
-    public static void printInventory(ArrayList<Product> productList, int currentPage) {
+    public static void printInventory(int page, IntFunction<List<Product>> pageSource,
+                                      RenderedPageCache renderedPages) {
+        ScreenRenderer out = out();
+        if (out.isDiscarding()) {
+            return;
+        }
+        if (!Constant.RENDERED_PAGE_CACHE_ENABLED) {
+            printProductPage(out, "View Inventory", pageSource.apply(page), null, 0);
+            return;
+        }
 
-        System.out.println();
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
-        System.out.println(" ".repeat(30) + "View Inventory");
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
+        // read before the products, so a page rendered from outdated products is not kept
+        long version = renderedPages.getVersion();
+        String rendered = renderedPages.getPage(page, version);
+        if (rendered == null) {
+            ScreenRenderer capture = CAPTURE.get();
+            int start = capture.mark();
+            printProductPage(capture, "View Inventory", pageSource.apply(page), renderedPages, version);
+            rendered = capture.takeText(start);
+            renderedPages.putPage(page, version, rendered);
+        }
+        out.print(rendered);
+    }
 
-        int startIdx = (currentPage - 1) * Constant.PRODUCT_PAGE_SIZE;
-        int endIdx = Math.min(currentPage * Constant.PRODUCT_PAGE_SIZE, productList.size());
+    /**
+     * Print one page of the product search results.
+     *
+     * @param pageList                          The matched products on the page, in ranking order.
+     * @param renderedPages                     The cache of rendered cards and pages.
+     * @param version                           The catalog version read before the products were searched.
+     */
+    public static void printSearchResults(List<Product> pageList, RenderedPageCache renderedPages, long version) {
+        ScreenRenderer out = out();
+        if (out.isDiscarding()) {
+            return;
+        }
+        printProductPage(out, "Search Results", pageList, renderedPages, version);
+    }
 
-        for (int idx = startIdx; idx < endIdx; idx++) {
-            Product product = productList.get(idx);
-            printOneProduct(product);
+    /**
+     * Print one page of products under a title.
+     *
+     * @param out                               The renderer the page is printed to.
+     * @param title                             The page title.
+     * @param pageList                          The products on the page.
+     * @param renderedPages                     The cache of rendered cards and pages.
+     * @param version                           The catalog version read before the products were read.
+     */
+    private static void printProductPage(ScreenRenderer out, String title, List<Product> pageList,
+                                         RenderedPageCache renderedPages, long version) {
+
+        out.println();
+        out.println(RULE_HEAVY);
+        out.print(TITLE_INDENT);
+        out.println(title);
+        out.println(RULE_HEAVY);
+
+        for (Product product : pageList) {
+            printProductCard(out, product, renderedPages, version);
+        }
+    }
+
+    /**
+     * Print the information of a product on a page, copying its rendered card if the product
+     * has not changed since the card was rendered.
+     *
+     * @param out                               The renderer the card is printed to.
+     * @param product                           The presented product.
+     * @param renderedPages                     The cache of rendered cards and pages.
+     * @param version                           The catalog version read before the product was read.
+     */
+    private static void printProductCard(ScreenRenderer out, Product product,
+                                         RenderedPageCache renderedPages, long version) {
+        if (!Constant.RENDERED_PAGE_CACHE_ENABLED) {
+            printOneProduct(out, product);
+            return;
+        }
+        String card = renderedPages.getCard(product.getProductId());
+        if (card == null) {
+            ScreenRenderer capture = CAPTURE.get();
+            int start = capture.mark();
+            printOneProduct(capture, product);
+            card = capture.takeText(start);
+            renderedPages.putCard(product.getProductId(), version, card);
         }
+        out.print(card);
     }
 
     /**
@@ -352,28 +519,28 @@ public class Boundary {
     public static void printOperationSuccess(int operation){
         switch (operation) {
             case Constant.OP_TYPE_ADD_TO_CART -> {
-                System.out.println("[√]Product has been added to cart.");
+                out().println("[√]Product has been added to cart.");
             }
             case Constant.OP_TYPE_LOGIN -> {
-                System.out.println("[√]Login successfully.");
+                out().println("[√]Login successfully.");
             }
             case Constant.OP_TYPE_LOGOUT -> {
-                System.out.println("[√]Logout successfully.");
+                out().println("[√]Logout successfully.");
             }
             case Constant.OP_TYPE_CREATE_PRODUCT -> {
-                System.out.println("[√]New product has been successfully created.");
+                out().println("[√]New product has been successfully created.");
             }
             case Constant.OP_TYPE_UPDATE_PRODUCT -> {
-                System.out.println("[√]Product information has been successfully updated.");
+                out().println("[√]Product information has been successfully updated.");
             }
             case Constant.OP_TYPE_REMOVE_PRODUCT -> {
-                System.out.println("[√]Product has been successfully removed.");
+                out().println("[√]Product has been successfully removed.");
             }
             case Constant.OP_TYPE_CHECKOUT -> {
-                System.out.println("[√]Order has been successfully created.");
+                out().println("[√]Order has been successfully created.");
             }
             default -> {
-                System.out.println("[√]Operation succeeds.");
+                out().println("[√]Operation succeeds.");
             }
         }
     }
@@ -386,16 +553,16 @@ public class Boundary {
     public static void printOperationCancel(int operation){
         switch (operation) {
             case Constant.OP_TYPE_CREATE_PRODUCT -> {
-                System.out.println("[-]Product creation canceled.");
+                out().println("[-]Product creation canceled.");
             }
             case Constant.OP_TYPE_UPDATE_PRODUCT -> {
-                System.out.println("[-]Product field edition canceled.");
+                out().println("[-]Product field edition canceled.");
             }
             case Constant.OP_TYPE_REMOVE_PRODUCT -> {
-                System.out.println("[-]Product deletion canceled.");
+                out().println("[-]Product deletion canceled.");
             }
             case Constant.OP_TYPE_CHECKOUT -> {
-                System.out.println("[-]Shopping cart checkout canceled.");
+                out().println("[-]Shopping cart checkout canceled.");
             }
         }
     }
@@ -406,14 +573,14 @@ public class Boundary {
      * @param fieldName                     The name of the field.
      */
     public static void promptFieldInput(String fieldName) {
-        System.out.println("Please enter the " + fieldName + ":");
+        out().println("Please enter the " + fieldName + ":");
     }
 
     /**
      * Prompt user input for expiry date
      */
     public static void promptExpiryDateInput(){
-        System.out.println("Please enter the expiry date in \"YYYY M D\" format (eg. 2024 5 20):");
+        out().println("Please enter the expiry date in \"YYYY M D\" format (eg. 2024 5 20):");
     }
 
     /**
@@ -424,22 +591,22 @@ public class Boundary {
     public static void promptConfirm(int operation) {
         switch (operation) {
             case Constant.OP_TYPE_CREATE_PRODUCT -> {
-                System.out.println("[?]Are you sure you want to create this product?\n   Please input y or n:");
+                out().println("[?]Are you sure you want to create this product?\n   Please input y or n:");
             }
             case Constant.OP_TYPE_UPDATE_PRODUCT -> {
-                System.out.println("[?]Are you sure you want to make this update?\n   Please input y or n:");
+                out().println("[?]Are you sure you want to make this update?\n   Please input y or n:");
             }
             case Constant.OP_TYPE_REMOVE_PRODUCT -> {
-                System.out.println("[?]Are you sure you want to remove this product?\n   Please input y or n:");
+                out().println("[?]Are you sure you want to remove this product?\n   Please input y or n:");
             }
             case Constant.OP_TYPE_CHECKOUT -> {
-                System.out.println("[?]Are you sure you want to checkout?\n   Please input y or n:");
+                out().println("[?]Are you sure you want to checkout?\n   Please input y or n:");
             }
             case Constant.OP_TYPE_EXIT -> {
-                System.out.println("[?]Are you sure you want to exit?\n   Please input y or n:");
+                out().println("[?]Are you sure you want to exit?\n   Please input y or n:");
             }
             case Constant.OP_TYPE_LOGOUT -> {
-                System.out.println("[?]Are you sure you want to logout?\n   Please input y or n:");
+                out().println("[?]Are you sure you want to logout?\n   Please input y or n:");
             }
         }
     }
@@ -450,7 +617,7 @@ public class Boundary {
      * @param fieldName                     The name of the field.
      */
     public static void alertUnformattedInput(String fieldName) {
-        System.out.println("[×]Invalid " + fieldName + ". Please input again.");
+        out().println("[×]Invalid " + fieldName + ". Please input again.");
     }
 
     /**
@@ -461,32 +628,32 @@ public class Boundary {
     public static void alertInvalidValue(String fieldName) {
         switch (fieldName) {
             case Constant.FIELD_QUANTITY -> {
-                System.out.println("[×]Invalid quantity, must be between 0 and 10.");
+                out().println("[×]Invalid quantity, must be between 0 and 10.");
             }
             case Constant.FIELD_ACCOUNT -> {
-                System.out.println("[×]Invalid account information, please check your email or password.");
+                out().println("[×]Invalid account information, please check your email or password.");
             }
             case Constant.FIELD_PRODUCT_NAME -> {
-                System.out.println("[×]Invalid product name, name cannot be empty.");
+                out().println("[×]Invalid product name, name cannot be empty.");
             }
             case Constant.FIELD_PRODUCT_CATEGORY -> {
-                System.out.println("[×]Invalid category, category cannot be empty.");
+                out().println("[×]Invalid category, category cannot be empty.");
             }
             case Constant.FIELD_PRODUCT_SUBCATEGORY -> {
-                System.out.println("[×]Invalid subcategory, subcategory cannot be empty.");
+                out().println("[×]Invalid subcategory, subcategory cannot be empty.");
             }
             case Constant.FIELD_PRODUCT_PRICE -> {
-                System.out.println("[×]Invalid price, must be larger than 0 and smaller than " +
-                        String.format("%.0f", Constant.PRODUCT_PRICE_LIMIT) + ".");
+                out().println("[×]Invalid price, must be larger than 0 and smaller than " +
+                        Money.format(Constant.PRODUCT_PRICE_LIMIT) + ".");
             }
             case Constant.FIELD_PRODUCT_MEMBER_PRICE -> {
-                System.out.println("[×]Invalid member price, must be between 0 and the normal price.");
+                out().println("[×]Invalid member price, must be between 0 and the normal price.");
             }
             case Constant.FIELD_PRODUCT_QUANTITY -> {
-                System.out.println("[×]Invalid stock quantity, cannot be less than 0.");
+                out().println("[×]Invalid stock quantity, cannot be less than 0.");
             }
             default -> {
-                System.out.println("[×]Invalid " + fieldName + ".");
+                out().println("[×]Invalid " + fieldName + ".");
             }
         }
     }
@@ -497,7 +664,7 @@ public class Boundary {
      * @param currentStock                  The product's current stock.
      */
     public static void alertOutOfStock(int currentStock) {
-        System.out.println("[×]Quantity exceeds inventory. Current stock for this product " +
+        out().println("[×]Quantity exceeds inventory. Current stock for this product " +
                 "is only " + currentStock + ".");
     }
 
@@ -505,14 +672,14 @@ public class Boundary {
      * Alert user when adding a product which is out of stock.
      */
     public static void alertOutOfStock() {
-        System.out.println("[×]This product is currently sold out.");
+        out().println("[×]This product is currently sold out.");
     }
 
     /**
      * Alert user when adding a product to cart but already having limit number of it in cart.
      */
     public static void alertAlreadyReachedLimit() {
-        System.out.println("[×]You already have "  + Constant.ITEM_QUANTITY_LIMIT + " of the this product\n" +
+        out().println("[×]You already have "  + Constant.ITEM_QUANTITY_LIMIT + " of the this product\n" +
                 "   in cart. Already reached item quantity limit.");
     }
 
@@ -522,7 +689,7 @@ public class Boundary {
      * @param stock                         The product's current stock.
      */
     public static void alertAlreadyReachedStock(int stock) {
-        System.out.println("[×]You already have "  + stock + " of the this product\n" +
+        out().println("[×]You already have "  + stock + " of the this product\n" +
                 "   in cart. Current stock is only " + stock + ".");
     }
 
@@ -532,7 +699,7 @@ public class Boundary {
      * @param inCartQuantity                The product's current stock.
      */
     public static void alertSumOutOfLimit(int inCartQuantity) {
-        System.out.println("[×]Quantity exceeds limit. You already have " + inCartQuantity +
+        out().println("[×]Quantity exceeds limit. You already have " + inCartQuantity +
                 " of this product in cart.\n" + "   Item quantity limit is " + Constant.ITEM_QUANTITY_LIMIT + ".");
     }
 
@@ -543,7 +710,7 @@ public class Boundary {
      * @param inCartQuantity                Currently how many of this product have been added to cart.
      */
     public static void alertSumOutOfStock(int currentStock, int inCartQuantity) {
-        System.out.println("[×]Quantity exceeds inventory. You already have " + inCartQuantity +
+        out().println("[×]Quantity exceeds inventory. You already have " + inCartQuantity +
                 " of this product in cart.\n" + "   Current stock is only " + currentStock + ".");
     }
 
@@ -553,7 +720,7 @@ public class Boundary {
      * @param productID                     The user input productID.
      */
     public static void alertProductNotExist(int productID) {
-        System.out.println("[×]Product ID " + productID + " does not exist.");
+        out().println("[×]Product ID " + productID + " does not exist.");
     }
 
     /**
@@ -562,7 +729,7 @@ public class Boundary {
      * @param category                     The user input category.
      */
     public static void alertCategoryNotExist(String category) {
-        System.out.println("[×]Category " + category + " does not exist. Please input a valid one.");
+        out().println("[×]Category " + category + " does not exist. Please input a valid one.");
 
     }
 
@@ -572,7 +739,7 @@ public class Boundary {
      * @param subcategory                     The user input subcategory.
      */
     public static void alertSubcategoryNotExist(String subcategory) {
-        System.out.println("[×]Subcategory " + subcategory + " does not exist. Please input a valid one.");
+        out().println("[×]Subcategory " + subcategory + " does not exist. Please input a valid one.");
 
     }
 
@@ -580,27 +747,43 @@ public class Boundary {
      * Alert user when shopping cart is already full.
      */
     public static void alertFullCart() {
-        System.out.println("[-]Shopping cart is full. You can only add 20 items.");
+        out().println("[-]Shopping cart is full. You can only add 20 items.");
     }
 
     /**
      * Alert user when shopping cart is empty.
      */
     public static void alertEmptyCart() {
-        System.out.println("[-]Shopping cart is empty. ");
+        out().println("[-]Shopping cart is empty. ");
     }
     /**
      * Alert user when inventory is empty.
      */
     public static void alertEmptyInventory() {
-        System.out.println("[-]Inventory is empty. ");
+        out().println("[-]Inventory is empty. ");
+    }
+
+    /**
+     * Alert user when no product matches the search keywords.
+     *
+     * @param keywords                      The search keywords.
+     */
+    public static void alertNoSearchResult(String keywords) {
+        out().println("[-]No product matches \"" + keywords + "\".");
+    }
+
+    /**
+     * Alert user when checking out but the stock of a product in cart has been cut meanwhile.
+     */
+    public static void alertCheckoutOutOfStock() {
+        out().println("[×]Checkout failed, the stock of a product in cart has been reduced.");
     }
 
     /**
      * Alert user when checking out but the credits is not enough.
      */
     public static void alertNotEnoughCredit() {
-        System.out.println("[×]Checkout failed, remaining credits is not enough.");
+        out().println("[×]Checkout failed, remaining credits is not enough.");
     }
 
     /**
@@ -611,11 +794,11 @@ public class Boundary {
     public static void alertProductTypeChange(int operation) {
         switch (operation) {
             case Constant.OP_TYPE_CHANGE_NONFOOD_TO_FOOD -> {
-                System.out.println("[!]You are changing a non-food product into food product.\n" +
+                out().println("[!]You are changing a non-food product into food product.\n" +
                         "   Please enter additional attributes.");
             }
             case Constant.OP_TYPE_CHANGE_FOOD_TO_NONFOOD -> {
-                System.out.println("[!]Changing a food product into non-food product\n" +
+                out().println("[!]Changing a food product into non-food product\n" +
                         "   will remove part of its attributes.");
             }
         }
@@ -628,7 +811,7 @@ public class Boundary {
      * @param fileName                         The parsing filename.
      */
     public static void alertInvalidFileLine(String line, String fileName) {
-        System.out.println("[×]" + fileName + " line content is invalid: " + line);
+        out().println("[×]" + fileName + " line content is invalid: " + line);
     }
 
     /**
@@ -637,7 +820,7 @@ public class Boundary {
      * @param fileName                         The data file's name.
      */
     public static void alertTotalInvalidFileContent(String fileName) {
-        System.out.println("[!]" + fileName + " doesn't contain any valid content.\n" +
+        out().println("[!]" + fileName + " doesn't contain any valid content.\n" +
                         "   Default settings will be applied instead.");
     }
 
@@ -647,7 +830,7 @@ public class Boundary {
      * @param fileName                         The data file's name.
      */
     public static void alertEmptyOrNotExistFile(String fileName) {
-        System.out.println("[!]" + fileName + " is empty or doesn't exist. \n" +
+        out().println("[!]" + fileName + " is empty or doesn't exist. \n" +
                 "   Default settings will be applied instead.");
     }
 
@@ -655,14 +838,14 @@ public class Boundary {
      * Alert user when file read encounters error.
      */
     public static void alertFileReadError(){
-        System.out.println("[×]Something went wrong in file reading.");
+        out().println("[×]Something went wrong in file reading.");
     }
 
     /**
      * Alert user when file write encounters error.
      */
     public static void alertFileWriteError(){
-        System.out.println("[×]Something went wrong in file writing.");
+        out().println("[×]Something went wrong in file writing.");
     }
 
     /**
@@ -670,7 +853,7 @@ public class Boundary {
      * @param fileName                  File name.
      */
     public static void alertFileNotFound(String fileName){
-        System.out.println("[×]Filename " + fileName + " is not found.");
+        out().println("[×]Filename " + fileName + " is not found.");
     }
 
     /**
@@ -680,7 +863,7 @@ public class Boundary {
      * @param invalidLines                     How many lines are invalid.
      */
     public static void alertPartialInvalidFileContent(String fileType, int invalidLines) {
-        System.out.println("[-]" + invalidLines + " lines of " + fileType + " is in invalid format.\n" +
+        out().println("[-]" + invalidLines + " lines of " + fileType + " is in invalid format.\n" +
                 "   These lines will be ignored.");
     }
 
@@ -690,8 +873,8 @@ public class Boundary {
      * @param errMsg                            The error message.
      */
     public static void alertException(String errMsg){
-        System.out.println("[×]Something went wrong. \n   Error: " + errMsg + "Restart again...");
-        System.out.println();
+        out().println("[×]Something went wrong. \n   Error: " + errMsg + "Restart again...");
+        out().println();
     }
 
 
@@ -703,18 +886,19 @@ public class Boundary {
     public static void printOneItem(Item item){
 
         Product product = item.getProduct();
-        double price = product.getPrice();
+        long price = product.getPrice();
         int quantity = item.getQuantity();
+        ScreenRenderer out = out();
 
-        System.out.println("-".repeat(Constant.LINE_LENGTH_LIMIT));
+        out.println(RULE_LIGHT);
 
-        printProductInfoLine(String.format("%03d", product.getProductId()), product.getName());
-        System.out.println("-".repeat(Constant.LINE_LENGTH_LIMIT));
-        printProductInfoLine("PRICE", String.format("$%.2f / VIP $%.2f",
-                product.getPrice(), product.getMemberPrice()));
-        printProductInfoLine("QUANTITY", String.valueOf(quantity));
-        printProductInfoLine("SUBTOTAL", String.format("$%.2f", price * quantity));
-        System.out.println("-".repeat(Constant.LINE_LENGTH_LIMIT));
+        printProductInfoLine(out, String.format("%03d", product.getProductId()), product.getName());
+        out.println(RULE_LIGHT);
+        printProductInfoLine(out, "PRICE", Money.format(product.getPrice()) + " / VIP " +
+                Money.format(product.getMemberPrice()));
+        printProductInfoLine(out, "QUANTITY", String.valueOf(quantity));
+        printProductInfoLine(out, "SUBTOTAL", Money.format(price * quantity));
+        out.println(RULE_LIGHT);
     }
 
     /**
@@ -726,33 +910,30 @@ public class Boundary {
      */
     public static void printShoppingCart(ShoppingCart shoppingCart, int currentPage, boolean isMember) {
 
-        System.out.println();
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
-        System.out.println(" ".repeat(30) + "Shopping Cart");
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
+        out().println();
+        out().println(RULE_HEAVY);
+        out().println(TITLE_INDENT + "Shopping Cart");
+        out().println(RULE_HEAVY);
 
         if (shoppingCart.getSize() == 0) {
-            System.out.println("[-]Cart is empty.");
+            out().println("[-]Cart is empty.");
             return;
         }
 
-        System.out.println("=".repeat(Constant.LINE_LENGTH_LIMIT));
+        out().println(RULE_DOUBLE);
         if (isMember){
-            String discount = String.format("-$%.2f", shoppingCart.getMemberDiscount());
-            System.out.println("|Membership discount" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 21 -
-                    discount.length()) + discount + "|");
+            String discount = "-" + Money.format(shoppingCart.getMemberDiscount());
+            printValueLine("Membership discount", discount);
 
-            String total = String.format("$%.2f", shoppingCart.getTotalMemberPrice());
-            System.out.println("|Total Price (Discounted)" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 26 -
-                    total.length()) + total + "|");
+            String total = Money.format(shoppingCart.getTotalMemberPrice());
+            printValueLine("Total Price (Discounted)", total);
         }
         else {
-            System.out.println("|No Membership Discount" + " ".repeat(Constant.LINE_LENGTH_LIMIT- 24) + "|");
-            String total = String.format("$%.2f", shoppingCart.getTotalPrice());
-            System.out.println("|Total Price" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 13 -
-                    total.length()) + total + "|");
+            printValueLine("No Membership Discount", "");
+            String total = Money.format(shoppingCart.getTotalPrice());
+            printValueLine("Total Price", total);
         }
-        System.out.println("=".repeat(Constant.LINE_LENGTH_LIMIT));
+        out().println(RULE_DOUBLE);
 
         int startIdx = (currentPage - 1) * Constant.CART_PAGE_SIZE;
         int endIdx = Math.min(currentPage * Constant.CART_PAGE_SIZE, shoppingCart.getSize());
@@ -772,46 +953,41 @@ public class Boundary {
      * @param customer                          The customer who this shopping cart belongs to.
      */
     public static void printOrderSummary(ShoppingCart shoppingCart, int currentPage, Customer customer) {
-        System.out.println();
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
-        System.out.println(" ".repeat(30) + "Order Summary");
-        System.out.println("+".repeat(Constant.LINE_LENGTH_LIMIT));
+        out().println();
+        out().println(RULE_HEAVY);
+        out().println(TITLE_INDENT + "Order Summary");
+        out().println(RULE_HEAVY);
 
         if (shoppingCart.getSize() == 0) {
-            System.out.println("[-]No item in shopping cart");
+            out().println("[-]No item in shopping cart");
             return;
         }
 
         //print user information
-        System.out.println("=".repeat(Constant.LINE_LENGTH_LIMIT));
+        out().println(RULE_DOUBLE);
         String userName = Util.formatName(customer.getFirstName(), customer.getLastName());
-        System.out.println("|User Name" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 11 - userName.length()) +
-                userName + "|" );
+        printValueLine("User Name", userName);
 
         String email = customer.getEmail();
-        System.out.println("|Email" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 7 - email.length()) + email + "|" );
+        printValueLine("Email", email);
 
-        String credit = String.format("$%.2f", customer.getCredits());
-        System.out.println("|Current Credits" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 17 - credit.length()) +
-                credit + "|" );
+        String credit = Money.format(customer.getCredits());
+        printValueLine("Current Credits", credit);
 
         //print total price
         if (customer.isMember()){
-            String discount = String.format("-$%.2f", shoppingCart.getMemberDiscount());
-            System.out.println("|Membership discount" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 21 -
-                    discount.length()) + discount+ "|" );
+            String discount = "-" + Money.format(shoppingCart.getMemberDiscount());
+            printValueLine("Membership discount", discount);
 
-            String total = String.format("$%.2f", shoppingCart.getTotalMemberPrice());
-            System.out.println("|Total Price (Discounted)" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 26 -
-                    total.length()) + total + "|" );
+            String total = Money.format(shoppingCart.getTotalMemberPrice());
+            printValueLine("Total Price (Discounted)", total);
         }
         else {
-            System.out.println("|No Membership Discount" + " ".repeat(Constant.LINE_LENGTH_LIMIT- 24) + "|" );
-            String total = String.format("$%.2f", shoppingCart.getTotalPrice());
-            System.out.println("|Total Price" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 13 -  total.length()) +
-                    total + "|" );
+            printValueLine("No Membership Discount", "");
+            String total = Money.format(shoppingCart.getTotalPrice());
+            printValueLine("Total Price", total);
         }
-        System.out.println("=".repeat(Constant.LINE_LENGTH_LIMIT));
+        out().println(RULE_DOUBLE);
 
         // print cart content
 
@@ -830,28 +1006,23 @@ public class Boundary {
      * @param order                         The Order object to be printed.
      */
     public static void printOrderBrief(Order order) {
-        System.out.println("=".repeat(Constant.LINE_LENGTH_LIMIT));
+        out().println(RULE_DOUBLE);
 
-        String creditString = String.format("$%.2f", order.getCreditBefore());
-        System.out.println("|Current credits" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 17 -
-                creditString.length()) + creditString + "|");
+        String creditString = Money.format(order.getCreditBefore());
+        printValueLine("Current credits", creditString);
 
-        String priceString = String.format("$%.2f", order.getPrice());
-        System.out.println("|Total price" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 13 -
-                priceString.length()) + priceString + "|");
+        String priceString = Money.format(order.getPrice());
+        printValueLine("Total price", priceString);
 
-        String memPriceString = String.format("$%.2f", order.getMemberPrice());
-        System.out.println("|Total member price" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 20 -
-                memPriceString.length()) + memPriceString + "|");
+        String memPriceString = Money.format(order.getMemberPrice());
+        printValueLine("Total member price", memPriceString);
 
         String enjoyDiscount = order.isMemberPrice() ? "yes" : "no";
-        System.out.println("|Enjoying member discount" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 26 -
-                enjoyDiscount.length()) + enjoyDiscount + "|");
+        printValueLine("Enjoying member discount", enjoyDiscount);
 
-        String remainingString = String.format("$%.2f", order.getCreditAfter());
-        System.out.println("|Credits after pay" + " ".repeat(Constant.LINE_LENGTH_LIMIT - 19 -
-                remainingString.length()) + remainingString + "|");
+        String remainingString = Money.format(order.getCreditAfter());
+        printValueLine("Credits after pay", remainingString);
 
-        System.out.println("=".repeat(Constant.LINE_LENGTH_LIMIT));
+        out().println(RULE_DOUBLE);
     }
 }
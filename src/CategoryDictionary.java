@@ -0,0 +1,170 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class which keeps the available categories and subcategories, resolves any spelling
+ * case of a name to its canonical name in constant time, and interns category and
+ * subcategory names so that every product refers to one shared String per name.
+ *
+ * @version ver1.0.0
+ */
+public class CategoryDictionary {
+    private final HashMap<String, List<String>> categoryList;
+    private final HashMap<String, Integer> categoryIds;
+    private final ArrayList<String> categoryNames;
+    private final ArrayList<HashMap<String, String>> subcategoryNames;
+    private final ConcurrentHashMap<String, String> unknownNames;
+
+    /**
+     * Default constructor of CategoryDictionary class.
+     */
+    public CategoryDictionary() {
+        this.categoryList = new HashMap<>();
+        this.categoryIds = new HashMap<>();
+        this.categoryNames = new ArrayList<>();
+        this.subcategoryNames = new ArrayList<>();
+        // products are parsed on several threads at startup
+        this.unknownNames = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Add a category with its subcategories, replacing the subcategories of a category
+     * with the same name in any case.
+     *
+     * @param category                  The category name.
+     * @param subcategories             The subcategory names.
+     */
+    public void addCategory(String category, List<String> subcategories) {
+        String key = normalize(category);
+        Integer categoryID = categoryIds.get(key);
+        if (categoryID == null) {
+            categoryID = categoryNames.size();
+            categoryIds.put(key, categoryID);
+            categoryNames.add(category);
+            subcategoryNames.add(new HashMap<>());
+        }
+
+        HashMap<String, String> names = subcategoryNames.get(categoryID);
+        names.clear();
+        List<String> canonicalSubcategories = new ArrayList<>(subcategories.size());
+        for (String subcategory : subcategories) {
+            String canonical = names.putIfAbsent(normalize(subcategory), subcategory);
+            canonicalSubcategories.add(canonical == null ? subcategory : canonical);
+        }
+        categoryList.put(categoryNames.get(categoryID), canonicalSubcategories);
+    }
+
+    /**
+     * Add all categories of a category list.
+     *
+     * @param categories                Category names mapped to their subcategory names.
+     */
+    public void addAll(Map<String, List<String>> categories) {
+        categories.forEach(this::addCategory);
+    }
+
+    /**
+     * Get the category ID of a category name in any case.
+     *
+     * @param category                  The category name.
+     * @return                          The category ID, or -1 if there is no such category.
+     */
+    public int getCategoryID(String category) {
+        Integer categoryID = categoryIds.get(normalize(category));
+        return categoryID == null ? -1 : categoryID;
+    }
+
+    /**
+     * Resolve a category name in any case to its canonical name.
+     *
+     * @param category                  The category name.
+     * @return                          The canonical category name, or null if there is no such category.
+     */
+    public String resolveCategory(String category) {
+        int categoryID = getCategoryID(category);
+        return categoryID < 0 ? null : categoryNames.get(categoryID);
+    }
+
+    /**
+     * Resolve a subcategory name in any case to its canonical name under a category.
+     *
+     * @param category                  The category name, in any case.
+     * @param subcategory               The subcategory name.
+     * @return                          The canonical subcategory name, or null if there is no such subcategory.
+     */
+    public String resolveSubcategory(String category, String subcategory) {
+        int categoryID = getCategoryID(category);
+        return categoryID < 0 ? null : subcategoryNames.get(categoryID).get(normalize(subcategory));
+    }
+
+    /**
+     * Get the canonical subcategory names of a category.
+     *
+     * @param category                  The category name, in any case.
+     * @return                          The subcategory names, empty if there is no such category.
+     */
+    public List<String> getSubcategories(String category) {
+        String canonical = resolveCategory(category);
+        return canonical == null ? Collections.emptyList() : categoryList.get(canonical);
+    }
+
+    /**
+     * Get the shared instance of a product's category name. A known category resolves to
+     * its canonical name, an unknown one keeps its spelling.
+     *
+     * @param category                  The category name.
+     * @return                          The shared category name.
+     */
+    public String internCategory(String category) {
+        String canonical = resolveCategory(category);
+        return canonical != null ? canonical : internUnknown(category);
+    }
+
+    /**
+     * Get the shared instance of a product's subcategory name. A known subcategory resolves
+     * to its canonical name, an unknown one keeps its spelling.
+     *
+     * @param category                  The product's category name.
+     * @param subcategory               The subcategory name.
+     * @return                          The shared subcategory name.
+     */
+    public String internSubcategory(String category, String subcategory) {
+        String canonical = resolveSubcategory(category, subcategory);
+        return canonical != null ? canonical : internUnknown(subcategory);
+    }
+
+    /**
+     * Getter method for categoryList.
+     *
+     * @return                          Canonical category names mapped to their subcategory names.
+     */
+    public HashMap<String, List<String>> getCategoryList() {
+        return categoryList;
+    }
+
+    /**
+     * Get the shared instance of a name which is not in the dictionary.
+     *
+     * @param name                      The name.
+     * @return                          The shared name.
+     */
+    private String internUnknown(String name) {
+        String shared = unknownNames.putIfAbsent(name, name);
+        return shared == null ? name : shared;
+    }
+
+    /**
+     * Normalize a name to its dictionary key, names are case-insensitive.
+     *
+     * @param name                      The name.
+     * @return                          The dictionary key.
+     */
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,499 @@
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Class which stores the products column by column for very large catalogs. Every field
+ * is kept in a primitive array indexed by the product's position in the ID order, brand,
+ * category and subcategory names are dictionary encoded, and the free text fields of a
+ * product are packed as UTF-8 bytes into shared pages. Product objects are only built
+ * when a product is asked for, and are kept while anyone still refers to them, so all
+ * sessions share one object, and one stock, per product.
+ *
+ * @version ver1.0.0
+ */
+public class ColumnarProductStore implements ProductStore {
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NO_TEXT = -1;
+    private static final byte FLAG_FOOD = 1;
+
+    private int size;
+    private int[] ids;
+    private long[] prices;
+    private long[] memberPrices;
+    private int[] quantities;
+    private int[] brands;
+    private int[] categories;
+    private int[] subcategories;
+    private int[] expiryDays;
+    private byte[] flags;
+    private int[] textPages;
+    private int[] textOffsets;
+    private int[] textLengths;
+    private boolean sorted;
+
+    private final ArrayList<byte[]> pages;
+    private int pageUsed;
+    private final HashMap<String, Integer> symbolCodes;
+    private final ArrayList<String> symbols;
+
+    private final ConcurrentHashMap<Integer, ViewReference> views;
+    private final ReferenceQueue<Product> collectedViews;
+
+    /**
+     * Default constructor of ColumnarProductStore class.
+     */
+    public ColumnarProductStore() {
+        this.size = 0;
+        this.ids = new int[16];
+        this.prices = new long[16];
+        this.memberPrices = new long[16];
+        this.quantities = new int[16];
+        this.brands = new int[16];
+        this.categories = new int[16];
+        this.subcategories = new int[16];
+        this.expiryDays = new int[16];
+        this.flags = new byte[16];
+        this.textPages = new int[16];
+        this.textOffsets = new int[16];
+        this.textLengths = new int[16];
+        this.sorted = true;
+        this.pages = new ArrayList<>();
+        this.pageUsed = 0;
+        this.symbolCodes = new HashMap<>();
+        this.symbols = new ArrayList<>();
+        this.views = new ConcurrentHashMap<>();
+        this.collectedViews = new ReferenceQueue<>();
+    }
+
+    @Override
+    public void load(Product product) {
+        // the loaded object is only encoded, it is not kept
+        if (size > 0 && ids[size - 1] >= product.getProductId()) {
+            sorted = false;
+        }
+        insertRow(size);
+        writeRow(size - 1, product);
+    }
+
+    @Override
+    public void finishLoading() {
+        if (sorted) {
+            return;
+        }
+        sorted = true;
+
+        // sort positions by ID, the position in the low bits keeps equal IDs in file order
+        long[] order = new long[size];
+        for (int row = 0; row < size; row++) {
+            order[row] = ((long) ids[row] << 32) | row;
+        }
+        Arrays.sort(order);
+
+        int[] rows = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            // like the ID index of the object store, the last product of a repeated ID wins
+            if (i + 1 < size && (order[i + 1] >> 32) == (order[i] >> 32)) {
+                continue;
+            }
+            rows[count++] = (int) order[i];
+        }
+
+        ids = gather(ids, rows, count);
+        prices = gather(prices, rows, count);
+        memberPrices = gather(memberPrices, rows, count);
+        quantities = gather(quantities, rows, count);
+        brands = gather(brands, rows, count);
+        categories = gather(categories, rows, count);
+        subcategories = gather(subcategories, rows, count);
+        expiryDays = gather(expiryDays, rows, count);
+        flags = gather(flags, rows, count);
+        textPages = gather(textPages, rows, count);
+        textOffsets = gather(textOffsets, rows, count);
+        textLengths = gather(textLengths, rows, count);
+        size = count;
+    }
+
+    @Override
+    public Product get(int productID) {
+        int position = positionOf(productID);
+        return position < 0 ? null : view(position);
+    }
+
+    @Override
+    public Product getAt(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of " + size + " products.");
+        }
+        return view(position);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(Product product) {
+        int position = findPosition(product.getProductId());
+        if (position == size || ids[position] != product.getProductId()) {
+            insertRow(position);
+        }
+        writeRow(position, product);
+        cacheView(product);
+    }
+
+    @Override
+    public boolean replace(Product oldProduct, Product newProduct) {
+        int position = positionOf(oldProduct.getProductId());
+        if (position < 0) {
+            return false;
+        }
+        writeRow(position, newProduct);
+        cacheView(newProduct);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Product product) {
+        int position = positionOf(product.getProductId());
+        if (position < 0) {
+            return false;
+        }
+        moveRows(position + 1, position, size - position - 1);
+        size--;
+        views.remove(product.getProductId());
+        return true;
+    }
+
+    @Override
+    public void update(Product product) {
+        int position = positionOf(product.getProductId());
+        if (position >= 0) {
+            writeRow(position, product);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<Product> action) {
+        for (int position = 0; position < size; position++) {
+            // products nobody refers to are built just for the action and not cached
+            Product product = cachedView(ids[position]);
+            action.accept(product != null ? product : materialize(position));
+        }
+    }
+
+    /**
+     * Get the shared product object of a position, building it if nobody refers to it.
+     *
+     * @param position                      The product's position.
+     * @return                              The product.
+     */
+    private Product view(int position) {
+        Product product = cachedView(ids[position]);
+        if (product != null) {
+            return product;
+        }
+        // concurrent readers of the same product must end up sharing one object, and one stock
+        synchronized (views) {
+            product = cachedView(ids[position]);
+            if (product == null) {
+                product = materialize(position);
+                cacheView(product);
+            }
+            return product;
+        }
+    }
+
+    /**
+     * Get the shared product object of an ID if anyone still refers to it.
+     *
+     * @param productID                     The product's ID.
+     * @return                              The product, null if there is none.
+     */
+    private Product cachedView(int productID) {
+        ViewReference reference = views.get(productID);
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * Make a product object the shared object of its ID.
+     *
+     * @param product                       The product.
+     */
+    private void cacheView(Product product) {
+        synchronized (views) {
+            ViewReference collected;
+            while ((collected = (ViewReference) collectedViews.poll()) != null) {
+                views.remove(collected.productID, collected);
+            }
+            views.put(product.getProductId(), new ViewReference(product, collectedViews));
+        }
+    }
+
+    /**
+     * Build a product object from the columns of a position.
+     *
+     * @param position                      The product's position.
+     * @return                              The product.
+     */
+    private Product materialize(int position) {
+        FileRecord text = new FileRecord(new String(pages.get(textPages[position]), textOffsets[position],
+                textLengths[position], StandardCharsets.UTF_8));
+        String brand = symbols.get(brands[position]);
+        String category = symbols.get(categories[position]);
+        String subcategory = symbols.get(subcategories[position]);
+        if ((flags[position] & FLAG_FOOD) == 0) {
+            return new Product(ids[position], textField(text, 0), brand, textField(text, 1), prices[position],
+                    memberPrices[position], quantities[position], category, subcategory);
+        }
+        LocalDate expiryDate = expiryDays[position] == NO_DATE ? null : LocalDate.ofEpochDay(expiryDays[position]);
+        return new FoodProduct(ids[position], textField(text, 0), brand, textField(text, 1), prices[position],
+                memberPrices[position], quantities[position], category, subcategory, expiryDate,
+                textField(text, 2), textField(text, 3), textField(text, 4));
+    }
+
+    /**
+     * Encode a product's fields into the columns of a position.
+     *
+     * @param position                      The position.
+     * @param product                       The product.
+     */
+    private void writeRow(int position, Product product) {
+        ids[position] = product.getProductId();
+        prices[position] = product.getPrice();
+        memberPrices[position] = product.getMemberPrice();
+        quantities[position] = product.getQuantity();
+        brands[position] = encodeSymbol(product.getBrand());
+        categories[position] = encodeSymbol(product.getCategory());
+        subcategories[position] = encodeSymbol(product.getSubcategory());
+
+        String text;
+        if (product.isFoodProduct()) {
+            FoodProduct foodProduct = (FoodProduct) product;
+            LocalDate expiryDate = foodProduct.getExpirationDate();
+            flags[position] = FLAG_FOOD;
+            expiryDays[position] = expiryDate == null ? NO_DATE : (int) expiryDate.toEpochDay();
+            text = String.join(Constant.STRING_FIELD_DELIMITER, product.getName(), product.getDescription(),
+                    foodProduct.getIngredients(), foodProduct.getStorageInstructions(), foodProduct.getAllergenInfo());
+        } else {
+            flags[position] = 0;
+            expiryDays[position] = NO_DATE;
+            text = String.join(Constant.STRING_FIELD_DELIMITER, product.getName(), product.getDescription());
+        }
+        writeText(position, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Store the packed text fields of a position, in place when they fit into the old ones.
+     *
+     * @param position                      The position.
+     * @param bytes                         The packed text fields.
+     */
+    private void writeText(int position, byte[] bytes) {
+        int oldLength = textLengths[position];
+        if (oldLength != NO_TEXT && bytes.length <= oldLength) {
+            // most updates only change numbers, so the text is usually equal and nothing is written
+            byte[] page = pages.get(textPages[position]);
+            int offset = textOffsets[position];
+            if (bytes.length != oldLength || !Arrays.equals(page, offset, offset + oldLength, bytes, 0, bytes.length)) {
+                System.arraycopy(bytes, 0, page, offset, bytes.length);
+                textLengths[position] = bytes.length;
+            }
+            return;
+        }
+
+        byte[] page = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+        if (page == null || pageUsed + bytes.length > page.length) {
+            page = new byte[Math.max(Constant.PRODUCT_TEXT_PAGE_SIZE, bytes.length)];
+            pages.add(page);
+            pageUsed = 0;
+        }
+        System.arraycopy(bytes, 0, page, pageUsed, bytes.length);
+        textPages[position] = pages.size() - 1;
+        textOffsets[position] = pageUsed;
+        textLengths[position] = bytes.length;
+        pageUsed += bytes.length;
+    }
+
+    /**
+     * Get a text field, the packed text drops trailing empty fields.
+     *
+     * @param text                          The packed text fields.
+     * @param index                         The field index.
+     * @return                              The field content.
+     */
+    private static String textField(FileRecord text, int index) {
+        return index < text.getFieldCount() ? text.getField(index) : "";
+    }
+
+    /**
+     * Get the dictionary code of a name, adding the name if it is new.
+     *
+     * @param name                          The name.
+     * @return                              The name's code.
+     */
+    private int encodeSymbol(String name) {
+        Integer code = symbolCodes.get(name);
+        if (code == null) {
+            code = symbols.size();
+            symbols.add(name);
+            symbolCodes.put(name, code);
+        }
+        return code;
+    }
+
+    /**
+     * Binary search the IDs for the first position whose ID is not less than the given ID.
+     *
+     * @param productID                     The product ID to search for.
+     * @return                              That position, or the size if there is none.
+     */
+    private int findPosition(int productID) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[middle] < productID) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get the position of a product ID.
+     *
+     * @param productID                     The product ID.
+     * @return                              The position, or -1 if there is no such product.
+     */
+    private int positionOf(int productID) {
+        int position = findPosition(productID);
+        return position < size && ids[position] == productID ? position : -1;
+    }
+
+    /**
+     * Open an empty position, moving the later positions up by one.
+     *
+     * @param position                      The position to be opened.
+     */
+    private void insertRow(int position) {
+        if (size == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            memberPrices = Arrays.copyOf(memberPrices, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            brands = Arrays.copyOf(brands, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            subcategories = Arrays.copyOf(subcategories, capacity);
+            expiryDays = Arrays.copyOf(expiryDays, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            textPages = Arrays.copyOf(textPages, capacity);
+            textOffsets = Arrays.copyOf(textOffsets, capacity);
+            textLengths = Arrays.copyOf(textLengths, capacity);
+        }
+        moveRows(position, position + 1, size - position);
+        size++;
+        // the moved text now belongs to the next position, this one gets its own
+        textLengths[position] = NO_TEXT;
+    }
+
+    /**
+     * Move consecutive positions in every column.
+     *
+     * @param from                          The first position to be moved.
+     * @param to                            Where it is moved to.
+     * @param count                         The number of positions.
+     */
+    private void moveRows(int from, int to, int count) {
+        System.arraycopy(ids, from, ids, to, count);
+        System.arraycopy(prices, from, prices, to, count);
+        System.arraycopy(memberPrices, from, memberPrices, to, count);
+        System.arraycopy(quantities, from, quantities, to, count);
+        System.arraycopy(brands, from, brands, to, count);
+        System.arraycopy(categories, from, categories, to, count);
+        System.arraycopy(subcategories, from, subcategories, to, count);
+        System.arraycopy(expiryDays, from, expiryDays, to, count);
+        System.arraycopy(flags, from, flags, to, count);
+        System.arraycopy(textPages, from, textPages, to, count);
+        System.arraycopy(textOffsets, from, textOffsets, to, count);
+        System.arraycopy(textLengths, from, textLengths, to, count);
+    }
+
+    /**
+     * Build a column holding the values of the given positions.
+     *
+     * @param column                        The column.
+     * @param rows                          The positions to keep, in their new order.
+     * @param count                         The number of positions to keep.
+     * @return                              The new column.
+     */
+    private static int[] gather(int[] column, int[] rows, int count) {
+        int[] gathered = new int[Math.max(count, 16)];
+        for (int i = 0; i < count; i++) {
+            gathered[i] = column[rows[i]];
+        }
+        return gathered;
+    }
+
+    /**
+     * Build a column holding the values of the given positions.
+     *
+     * @param column                        The column.
+     * @param rows                          The positions to keep, in their new order.
+     * @param count                         The number of positions to keep.
+     * @return                              The new column.
+     */
+    private static long[] gather(long[] column, int[] rows, int count) {
+        long[] gathered = new long[Math.max(count, 16)];
+        for (int i = 0; i < count; i++) {
+            gathered[i] = column[rows[i]];
+        }
+        return gathered;
+    }
+
+    /**
+     * Build a column holding the values of the given positions.
+     *
+     * @param column                        The column.
+     * @param rows                          The positions to keep, in their new order.
+     * @param count                         The number of positions to keep.
+     * @return                              The new column.
+     */
+    private static byte[] gather(byte[] column, int[] rows, int count) {
+        byte[] gathered = new byte[Math.max(count, 16)];
+        for (int i = 0; i < count; i++) {
+            gathered[i] = column[rows[i]];
+        }
+        return gathered;
+    }
+
+    /**
+     * Class which refers to a shared product object without keeping it alive, and
+     * remembers its ID once the object has been collected.
+     */
+    private static class ViewReference extends WeakReference<Product> {
+        private final int productID;
+
+        /**
+         * Constructor of ViewReference class.
+         *
+         * @param product                   The shared product object.
+         * @param queue                     The queue the reference is put in once the object is collected.
+         */
+        private ViewReference(Product product, ReferenceQueue<Product> queue) {
+            super(product, queue);
+            this.productID = product.getProductId();
+        }
+    }
+}
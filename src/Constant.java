@@ -34,9 +34,13 @@ public class Constant {
      */
     public final static int ITEM_QUANTITY_LIMIT = 10;
     /**
-     * Product price limit.
+     * Product price limit in cents.
      */
-    public final static double PRODUCT_PRICE_LIMIT = 1000000.0;
+    public final static long PRODUCT_PRICE_LIMIT = 100000000;
+    /**
+     * Credits of a new customer in cents.
+     */
+    public final static long CUSTOMER_INITIAL_CREDITS = 100000;
     /**
      * Regularly printed field name.
      */
@@ -113,6 +117,30 @@ public class Constant {
      * Regularly printed field name.
      */
     public final static String FIELD_CONFIRM = "input for confirmation";
+    /**
+     * Field name for search keywords.
+     */
+    public final static String FIELD_SEARCH_KEYWORDS = "search keywords";
+    /**
+     * Field name for server port.
+     */
+    public final static String FIELD_PORT = "server port";
+    /**
+     * Field name for number of load generator clients.
+     */
+    public final static String FIELD_LOAD_CLIENTS = "number of clients";
+    /**
+     * Field name for number of load generator rounds.
+     */
+    public final static String FIELD_LOAD_ROUNDS = "number of rounds";
+    /**
+     * Field name for the load generator's checkout login.
+     */
+    public final static String FIELD_LOAD_CHECKOUT = "checkout login";
+    /**
+     * Field name for batch command file.
+     */
+    public final static String FIELD_BATCH_FILE = "batch file name";
     /**
      * Regularly checked string.
      */
@@ -161,6 +189,22 @@ public class Constant {
      * Return code for operation cancel.
      */
     public final static int OPERATION_CANCEL = 4;
+    /**
+     * Return code for operation fail because the stock has run out.
+     */
+    public final static int OPERATION_OUT_OF_STOCK = 5;
+    /**
+     * Return code for operation fail because a value is unformatted or invalid.
+     */
+    public final static int OPERATION_INVALID_VALUE = 6;
+    /**
+     * Return code for operation fail because the product, or anything to check out, does not exist.
+     */
+    public final static int OPERATION_NOT_FOUND = 7;
+    /**
+     * Return code for operation fail because the quantity limit of a cart item would be exceeded.
+     */
+    public final static int OPERATION_LIMIT_REACHED = 8;
     /**
      * Code for indicating operation type.
      */
@@ -259,6 +303,342 @@ public class Constant {
      * Category data file name.
      */
     public final static String CATEGORY_FILE_PATH = "data/Category.txt";
+    /**
+     * Size in bytes of the window mapped at once when streaming a data file.
+     */
+    public final static int FILE_MAP_WINDOW_SIZE = 64 * 1024 * 1024;
+    /**
+     * Fsync policy which leaves flushing written files to the operating system.
+     */
+    public final static int FSYNC_POLICY_NEVER = 0;
+    /**
+     * Fsync policy which syncs every write before returning.
+     */
+    public final static int FSYNC_POLICY_ALWAYS = 1;
+    /**
+     * Fsync policy which coalesces the syncs of appended files into one per group commit interval.
+     * Whole files are rewritten once per burst of changes by the PersistenceWriter and synced then.
+     */
+    public final static int FSYNC_POLICY_GROUP = 2;
+    /**
+     * Fsync policy applied to data file writes. The inventory file is always synced when it is
+     * rewritten, as the journal and the hot field slots are dropped right after it.
+     */
+    public final static int FSYNC_POLICY = FSYNC_POLICY_GROUP;
+    /**
+     * Interval in milliseconds between two group commits.
+     */
+    public final static long GROUP_COMMIT_INTERVAL_MILLIS = 200;
+    /**
+     * Delay in milliseconds after a data file is marked as changed before it is rewritten
+     * in the background, changes made within the delay are written together. A checkout's
+     * stock and order are durable within a group commit interval, its credit deduction only
+     * once the user file is rewritten, so a crash within the delay keeps the order but gives
+     * the credits back. Every order record holds the customer's credits after it, to settle
+     * them by hand.
+     */
+    public final static long WRITE_BEHIND_DELAY_MILLIS = 200;
+    /**
+     * Suffix of the temporary file a data file is written to before being renamed.
+     */
+    public final static String STRING_TEMP_FILE_SUFFIX = ".tmp";
+    /**
+     * Size in bytes of the chunks a data file is split into for parsing in parallel.
+     */
+    public final static int FILE_PARSE_CHUNK_SIZE = 4 * 1024 * 1024;
+    /**
+     * Inventory journal file name, mutations are appended here between snapshots.
+     */
+    public final static String INVENTORY_JOURNAL_FILE_PATH = "data/Product.journal";
+    /**
+     * Whether inventory mutations are journaled instead of rewriting the whole inventory file.
+     */
+    public final static boolean INVENTORY_JOURNAL_ENABLED = true;
+    /**
+     * Number of journal records after which the journal is compacted into a fresh snapshot.
+     */
+    public final static int JOURNAL_COMPACT_THRESHOLD = 1000;
+    /**
+     * Whether product quantities and prices are stored in fixed slots of their own file, so
+     * checkouts and price edits rewrite only the changed slots.
+     */
+    public final static boolean HOT_FIELD_FILE_ENABLED = true;
+    /**
+     * Hot field file name, holds the latest quantity and prices of changed products.
+     */
+    public final static String PRODUCT_HOT_FIELD_FILE_PATH = "data/Product.hot";
+    /**
+     * Format version of the hot field file, a file of another version is discarded.
+     */
+    public final static int HOT_FIELD_FILE_VERSION = 1;
+    /**
+     * Journal record type for a created or updated product.
+     */
+    public final static String JOURNAL_OP_UPDATE = "U";
+    /**
+     * Journal record type for a removed product.
+     */
+    public final static String JOURNAL_OP_REMOVE = "R";
+    /**
+     * Order log segment file name prefix, followed by the segment number.
+     */
+    public final static String ORDER_SEGMENT_FILE_PREFIX = "data/Order-";
+    /**
+     * Order log segment file name suffix.
+     */
+    public final static String ORDER_SEGMENT_FILE_SUFFIX = ".log";
+    /**
+     * Order index file name, maps every order to its customer, segment and offset.
+     */
+    public final static String ORDER_INDEX_FILE_PATH = "data/Order.index";
+    /**
+     * Size in bytes after which new orders are appended to a new segment.
+     */
+    public final static long ORDER_SEGMENT_MAX_SIZE = 16 * 1024 * 1024;
+    /**
+     * Number of bits of a packed order position holding the offset in the segment.
+     */
+    public final static int ORDER_OFFSET_BITS = 40;
+    /**
+     * Number of fields of an order record before its items.
+     */
+    public final static int ORDER_RECORD_FIELDS = 9;
+    /**
+     * Number of fields of each item in an order record.
+     */
+    public final static int ORDER_ITEM_FIELDS = 5;
+    /**
+     * Whether products are stored column by column instead of one object each, which takes
+     * far less memory for very large catalogs.
+     */
+    public final static boolean PRODUCT_STORE_COLUMNAR = false;
+    /**
+     * Size in bytes of the pages the columnar product store packs product texts into.
+     */
+    public final static int PRODUCT_TEXT_PAGE_SIZE = 1024 * 1024;
+    /**
+     * Whether binary snapshots of the inventory and user files are kept to speed up startup.
+     */
+    public final static boolean SNAPSHOT_ENABLED = true;
+    /**
+     * Format version of binary snapshots, snapshots of another version are ignored.
+     */
+    public final static int SNAPSHOT_VERSION = 1;
+    /**
+     * Binary snapshot file name of the inventory file.
+     */
+    public final static String PRODUCT_SNAPSHOT_FILE_PATH = "data/Product.snapshot";
+    /**
+     * Binary snapshot file name of the user file.
+     */
+    public final static String USER_SNAPSHOT_FILE_PATH = "data/User.snapshot";
+    /**
+     * Number of emails the login filter is initially sized for, it is rebuilt larger when exceeded.
+     */
+    public final static int EMAIL_FILTER_INITIAL_CAPACITY = 1024;
+    /**
+     * Expected false positive rate of the login filter.
+     */
+    public final static double EMAIL_FILTER_FALSE_POSITIVE_RATE = 0.01;
+    /**
+     * Search weight of a word appearing in the product name.
+     */
+    public final static int SEARCH_WEIGHT_NAME = 4;
+    /**
+     * Search weight of a word appearing in the product brand.
+     */
+    public final static int SEARCH_WEIGHT_BRAND = 2;
+    /**
+     * Search weight of a word appearing in the product description.
+     */
+    public final static int SEARCH_WEIGHT_DESCRIPTION = 1;
+    /**
+     * Search weight of a word appearing in the food product ingredients.
+     */
+    public final static int SEARCH_WEIGHT_INGREDIENTS = 1;
+    /**
+     * Default local port of the server mode.
+     */
+    public final static int SERVER_DEFAULT_PORT = 7070;
+    /**
+     * Command line argument which starts the server mode.
+     */
+    public final static String ARG_SERVER = "--server";
+    /**
+     * Number of connections the server mode lets wait to be accepted.
+     */
+    public final static int SERVER_BACKLOG = 1024;
+    /**
+     * Command line argument followed by the file whose lines are run as user input.
+     */
+    public final static String ARG_BATCH = "--batch";
+    /**
+     * Command line argument which discards all output, e.g. for load tests.
+     */
+    public final static String ARG_QUIET = "--quiet";
+    /**
+     * Batch file name standing for the standard input.
+     */
+    public final static String ARG_STANDARD_INPUT = "-";
+    /**
+     * Size in characters of the input and output buffers of a batch.
+     */
+    public final static int BATCH_BUFFER_SIZE = 64 * 1024;
+    /**
+     * Size in characters after which composed output is written even if the screen is not
+     * complete yet.
+     */
+    public final static int SCREEN_BUFFER_SIZE = 16 * 1024;
+    /**
+     * Whether rendered product cards and inventory pages are kept for later screens.
+     */
+    public final static boolean RENDERED_PAGE_CACHE_ENABLED = true;
+    /**
+     * Number of rendered product cards kept before the cache is emptied.
+     */
+    public final static int RENDERED_CARD_CACHE_LIMIT = 20000;
+    /**
+     * Number of rendered inventory pages kept before the cache is emptied.
+     */
+    public final static int RENDERED_PAGE_CACHE_LIMIT = 2000;
+    /**
+     * Number of locks the products are spread over by ID, so admin changes of different products
+     * rarely wait for each other. A power of two.
+     */
+    public final static int INVENTORY_LOCK_STRIPES = 64;
+    /**
+     * Default local port of the HTTP mode.
+     */
+    public final static int HTTP_DEFAULT_PORT = 8080;
+    /**
+     * Command line argument which starts the HTTP mode.
+     */
+    public final static String ARG_HTTP = "--http";
+    /**
+     * Command line argument which runs the load generator against the HTTP mode.
+     */
+    public final static String ARG_HTTP_LOAD = "--http-load";
+    /**
+     * Command line argument which makes the load generator's clients check out, followed by
+     * the customer's email and password. Checkouts change the served stock and credits.
+     */
+    public final static String ARG_LOAD_CHECKOUT = "--checkout";
+    /**
+     * Number of concurrent clients the load generator runs by default.
+     */
+    public final static int HTTP_LOAD_DEFAULT_CLIENTS = 50;
+    /**
+     * Number of rounds of requests each client of the load generator runs by default.
+     */
+    public final static int HTTP_LOAD_DEFAULT_ROUNDS = 20;
+    /**
+     * Path of the HTTP mode's catalog requests.
+     */
+    public final static String HTTP_PATH_PRODUCTS = "/products";
+    /**
+     * Path of the HTTP mode's login and logout requests.
+     */
+    public final static String HTTP_PATH_SESSIONS = "/sessions";
+    /**
+     * Path of the HTTP mode's shopping cart requests.
+     */
+    public final static String HTTP_PATH_CART = "/cart";
+    /**
+     * Path of the HTTP mode's checkout requests.
+     */
+    public final static String HTTP_PATH_CHECKOUT = "/checkout";
+    /**
+     * Request header carrying the token of a logged in HTTP session.
+     */
+    public final static String HTTP_SESSION_HEADER = "X-Session-Token";
+    /**
+     * Query parameter of the catalog page number.
+     */
+    public final static String HTTP_PARAM_PAGE = "page";
+    /**
+     * Request body member of the login email.
+     */
+    public final static String HTTP_PARAM_EMAIL = "email";
+    /**
+     * Request body member of the login password.
+     */
+    public final static String HTTP_PARAM_PASSWORD = "password";
+    /**
+     * Request body member of the product ID added to the cart.
+     */
+    public final static String HTTP_PARAM_PRODUCT_ID = "productId";
+    /**
+     * Request body member of the quantity added to the cart.
+     */
+    public final static String HTTP_PARAM_QUANTITY = "quantity";
+    /**
+     * Content type of the HTTP mode's responses.
+     */
+    public final static String HTTP_CONTENT_TYPE_JSON = "application/json; charset=utf-8";
+    /**
+     * Longest request body in bytes the HTTP mode reads.
+     */
+    public final static int HTTP_BODY_LIMIT = 16 * 1024;
+    /**
+     * Minutes after which an unused HTTP session is closed and its cart's stock is given back.
+     */
+    public final static int HTTP_SESSION_IDLE_MINUTES = 30;
+    /**
+     * Result name of a malformed HTTP request.
+     */
+    public final static String HTTP_RESULT_BAD_REQUEST = "BAD_REQUEST";
+    /**
+     * Result name of an HTTP request without a valid login or session.
+     */
+    public final static String HTTP_RESULT_UNAUTHORIZED = "UNAUTHORIZED";
+    /**
+     * Result name of an HTTP request which failed unexpectedly.
+     */
+    public final static String HTTP_RESULT_SERVER_ERROR = "SERVER_ERROR";
+    /**
+     * Error message for indicating a malformed JSON request body.
+     */
+    public final static String ERR_MSG_INVALID_JSON = "Request body is not a flat JSON object";
+    /**
+     * Error message for indicating a request body over the size limit.
+     */
+    public final static String ERR_MSG_HTTP_BODY_TOO_LONG = "Request body is too long";
+    /**
+     * Error message for indicating a missing or invalid request body member, followed by its name.
+     */
+    public final static String ERR_MSG_HTTP_INVALID_MEMBER = "Missing or invalid whole number: ";
+    /**
+     * Error message for indicating a login request without email or password.
+     */
+    public final static String ERR_MSG_HTTP_MISSING_LOGIN = "Email and password are required";
+    /**
+     * Error message for indicating a wrong login or a user who is not a customer.
+     */
+    public final static String ERR_MSG_HTTP_LOGIN_FAILED = "Incorrect customer email or password";
+    /**
+     * Error message for indicating a missing, unknown or closed session token.
+     */
+    public final static String ERR_MSG_HTTP_NO_SESSION = "Missing or expired session";
+    /**
+     * Error message for indicating a page number out of range.
+     */
+    public final static String ERR_MSG_HTTP_INVALID_PAGE = "Page does not exist";
+    /**
+     * Error message for indicating an unknown product ID.
+     */
+    public final static String ERR_MSG_HTTP_NO_PRODUCT = "Product does not exist";
+    /**
+     * Error message for indicating an unknown request path.
+     */
+    public final static String ERR_MSG_HTTP_NO_PATH = "Unknown request path";
+    /**
+     * Error message for indicating an unsupported request method.
+     */
+    public final static String ERR_MSG_HTTP_METHOD_NOT_ALLOWED = "Request method is not allowed";
+    /**
+     * Error message for indicating an unexpected failure.
+     */
+    public final static String ERR_MSG_HTTP_SERVER_ERROR = "Request failed unexpectedly";
     /**
      * Error message for indicating invalid line content.
      */
@@ -14,7 +14,7 @@ public class Customer extends User {
     private String address;
     private String gender;
     private LocalDate memberExpireDate;
-    private double credits;
+    private long credits; // in cents
 
     /**
      * Default constructor for Customer class.
@@ -28,7 +28,7 @@ public class Customer extends User {
         this.address = "default";
         this.gender = "default";
         this.memberExpireDate = null;
-        this.credits = 1000;
+        this.credits = Constant.CUSTOMER_INITIAL_CREDITS;
     }
 
     /**
@@ -55,7 +55,7 @@ public class Customer extends User {
         this.address = address;
         this.gender = gender;
         this.memberExpireDate = memberExpireDate;
-        this.credits = 1000;
+        this.credits = Constant.CUSTOMER_INITIAL_CREDITS;
     }
 
     /**
@@ -70,12 +70,12 @@ public class Customer extends User {
      * @param address                    Customer address.
      * @param gender                     Customer gender.
      * @param memberExpireDate           Customer member expiry date.
-     * @param credits                    Customer credits.
+     * @param credits                    Customer credits in cents.
      */
     public Customer(String email, String password, String firstName,
                     String lastName, LocalDate birthday, String mobile,
                     String address, String gender, LocalDate memberExpireDate,
-                    double credits) {
+                    long credits) {
         super(email, password, Constant.USER_TYPE_CUSTOMER);
         this.firstName = firstName;
         this.lastName = lastName;
@@ -225,18 +225,18 @@ public class Customer extends User {
     /**
      * Getter method for credits.
      *
-     * @return                The Customer's credits.
+     * @return                The Customer's credits in cents.
      */
-    public double getCredits() {
+    public long getCredits() {
         return credits;
     }
 
     /**
      * Setter method for credits.
      *
-     * @param credits         New credits to be set.
+     * @param credits         New credits to be set, in cents.
      */
-    public void setCredits(double credits) {
+    public void setCredits(long credits) {
         this.credits = credits;
     }
 
@@ -248,6 +248,6 @@ public class Customer extends User {
     @Override
     public String toString() {
         return String.join(Constant.STRING_FIELD_DELIMITER, new String[]{super.toString(), firstName, lastName, Util.getStringFromDate(birthday),
-                mobile, address, gender, Util.getStringFromDate(memberExpireDate), String.valueOf(credits)});
+                mobile, address, gender, Util.getStringFromDate(memberExpireDate), Money.toPlainString(credits)});
     }
 }
@@ -1,7 +1,25 @@
 import java.util.ArrayList;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 /**
  * Class which provides text file operations including read and write.
  *
@@ -11,6 +29,7 @@ import java.util.Scanner;
 public class FileIO
 {
     private String fileName;
+    private int invalidRecords;
 
     /**
      * Default constructor which creates the object of class FileIO.
@@ -19,6 +38,7 @@ public class FileIO
     public FileIO()
     {
         fileName = "Unknown";
+        invalidRecords = 0;
     }
 
     /**
@@ -30,6 +50,7 @@ public class FileIO
     public FileIO(String fileName)
     {
         this.fileName = fileName;
+        invalidRecords = 0;
     }
 
     /**
@@ -90,6 +111,270 @@ public class FileIO
         }
     }
 
+    /**
+     * Method to stream the file record by record. The file is memory mapped window by
+     * window and every non-empty line is tokenized into one reused FileRecord, so the
+     * whole content is never held in memory. Records rejected by the handler are
+     * reported as invalid lines.
+     *
+     * @param handler       Callback which receives each record and returns whether
+     *                      it is valid.
+     * @return              The number of non-empty lines in the file.
+     */
+    public int readRecords(Predicate<FileRecord> handler)
+    {
+        invalidRecords = 0;
+        int records = 0;
+        FileRecord record = new FileRecord();
+        byte[] lineBuffer = new byte[1024];
+        int lineLength = 0;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            for (long windowStart = 0; windowStart < size; windowStart += Constant.FILE_MAP_WINDOW_SIZE)
+            {
+                int windowSize = (int) Math.min(Constant.FILE_MAP_WINDOW_SIZE, size - windowStart);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+
+                int segmentStart = 0;
+                for (int position = 0; position <= windowSize; position++)
+                {
+                    if (position < windowSize && window.get(position) != '\n')
+                        continue;
+
+                    // copy the bytes since the last line break, a line may span two windows
+                    int segmentLength = position - segmentStart;
+                    if (lineLength + segmentLength > lineBuffer.length)
+                        lineBuffer = Arrays.copyOf(lineBuffer, Math.max(lineBuffer.length * 2,
+                                lineLength + segmentLength));
+                    window.get(segmentStart, lineBuffer, lineLength, segmentLength);
+                    lineLength += segmentLength;
+                    segmentStart = position + 1;
+
+                    if (position == windowSize)
+                        break;
+
+                    records += handleLine(lineBuffer, lineLength, record, handler);
+                    lineLength = 0;
+                }
+            }
+            // last line without a trailing line break
+            records += handleLine(lineBuffer, lineLength, record, handler);
+        }
+        catch (NoSuchFileException e)
+        {
+            Boundary.alertFileNotFound(fileName);
+        }
+        catch (Exception e)
+        {
+            Boundary.alertFileReadError();
+        }
+        return records;
+    }
+
+    /**
+     * Method to decode one line, tokenize it and pass it to the record handler.
+     *
+     * @param lineBuffer    The buffer holding the line's bytes.
+     * @param lineLength    The number of bytes in the line.
+     * @param record        The reused record object.
+     * @param handler       Callback which receives the record.
+     * @return              1 if the line is not empty, otherwise 0.
+     */
+    private int handleLine(byte[] lineBuffer, int lineLength, FileRecord record, Predicate<FileRecord> handler)
+    {
+        if (lineLength > 0 && lineBuffer[lineLength - 1] == '\r')
+            lineLength--;
+        if (lineLength == 0)
+            return 0;
+
+        record.tokenize(new String(lineBuffer, 0, lineLength, StandardCharsets.UTF_8));
+        if (!handler.test(record))
+        {
+            invalidRecords++;
+            Boundary.alertInvalidFileLine(record.getLine(), fileName);
+        }
+        return 1;
+    }
+
+    /**
+     * Method to parse the file record by record on the fork-join pool. The file is split
+     * into chunks at line breaks and the chunks are parsed in parallel, while the parsed
+     * values are passed to the loader on the calling thread in file order. Records
+     * rejected by the parser are reported as invalid lines, as readRecords does.
+     *
+     * @param parser        Callback which turns a record into a value, or returns null
+     *                      if it is invalid. It is called from several threads at once.
+     * @param loader        Callback which receives each value in file order.
+     * @return              The number of non-empty lines in the file.
+     */
+    public <T> int readRecordsParallel(Function<FileRecord, T> parser, Consumer<T> loader)
+    {
+        int maxPending = ForkJoinPool.getCommonPoolParallelism() * 2;
+        if (maxPending <= 2) // a single core, handing chunks around would only cost time
+        {
+            return readRecords(record -> {
+                T value = parser.apply(record);
+                if (value == null)
+                    return false;
+                loader.accept(value);
+                return true;
+            });
+        }
+
+        invalidRecords = 0;
+        int records = 0;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ))
+        {
+            long[] boundaries = findChunkBoundaries(channel);
+            int chunkCount = boundaries.length - 1;
+            // only parse a few chunks ahead of the loader, so parsed values do not pile up
+            ArrayDeque<ForkJoinTask<ParsedChunk<T>>> pending = new ArrayDeque<>();
+            int nextChunk = 0;
+            while (nextChunk < chunkCount || !pending.isEmpty())
+            {
+                while (nextChunk < chunkCount && pending.size() < maxPending)
+                {
+                    long start = boundaries[nextChunk];
+                    long end = boundaries[nextChunk + 1];
+                    pending.add(ForkJoinPool.commonPool().submit(() -> parseChunk(channel, start, end, parser)));
+                    nextChunk++;
+                }
+
+                ParsedChunk<T> chunk = pending.poll().join();
+                records += chunk.lines;
+                chunk.values.forEach(loader);
+                for (String line : chunk.invalidLines)
+                {
+                    invalidRecords++;
+                    Boundary.alertInvalidFileLine(line, fileName);
+                }
+            }
+        }
+        catch (NoSuchFileException e)
+        {
+            Boundary.alertFileNotFound(fileName);
+        }
+        catch (Exception e)
+        {
+            Boundary.alertFileReadError();
+        }
+        return records;
+    }
+
+    /**
+     * Method to split the file into chunks of about the parse chunk size which start
+     * right after a line break.
+     *
+     * @param channel       The open file.
+     * @return              The start positions of the chunks, followed by the file size.
+     * @throws IOException  If the file cannot be read.
+     */
+    private static long[] findChunkBoundaries(FileChannel channel) throws IOException
+    {
+        long size = channel.size();
+        long[] boundaries = new long[(int) (size / Constant.FILE_PARSE_CHUNK_SIZE) + 2];
+        int count = 0;
+        boundaries[count++] = 0;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = Constant.FILE_PARSE_CHUNK_SIZE;
+        while (position < size)
+        {
+            // move the boundary forward to the next line break
+            long boundary = -1;
+            while (boundary < 0 && position < size)
+            {
+                probe.clear();
+                int read = channel.read(probe, position);
+                if (read <= 0)
+                    break;
+                for (int index = 0; index < read && boundary < 0; index++)
+                {
+                    if (probe.get(index) == '\n')
+                        boundary = position + index + 1;
+                }
+                position += read;
+            }
+            if (boundary < 0 || boundary >= size)
+                break;
+            boundaries[count++] = boundary;
+            position = boundary + Constant.FILE_PARSE_CHUNK_SIZE;
+        }
+        boundaries[count++] = size;
+        return Arrays.copyOf(boundaries, count);
+    }
+
+    /**
+     * Method to parse the lines of one chunk of the file.
+     *
+     * @param channel       The open file.
+     * @param start         Position of the chunk's first byte.
+     * @param end           Position after the chunk's last byte.
+     * @param parser        Callback which turns a record into a value, or returns null
+     *                      if it is invalid.
+     * @return              The parsed values and invalid lines of the chunk.
+     * @throws IOException  If the file cannot be read.
+     */
+    private static <T> ParsedChunk<T> parseChunk(FileChannel channel, long start, long end,
+                                                 Function<FileRecord, T> parser) throws IOException
+    {
+        ParsedChunk<T> chunk = new ParsedChunk<>();
+        MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        FileRecord record = new FileRecord();
+        byte[] lineBuffer = new byte[1024];
+        int windowSize = window.limit();
+        int lineStart = 0;
+        for (int position = 0; position <= windowSize; position++)
+        {
+            if (position < windowSize && window.get(position) != '\n')
+                continue;
+
+            int lineLength = position - lineStart;
+            if (lineLength > lineBuffer.length)
+                lineBuffer = new byte[Math.max(lineBuffer.length * 2, lineLength)];
+            window.get(lineStart, lineBuffer, 0, lineLength);
+            lineStart = position + 1;
+
+            if (lineLength > 0 && lineBuffer[lineLength - 1] == '\r')
+                lineLength--;
+            if (lineLength == 0)
+                continue;
+
+            chunk.lines++;
+            record.tokenize(new String(lineBuffer, 0, lineLength, StandardCharsets.UTF_8));
+            T value = parser.apply(record);
+            if (value == null)
+                chunk.invalidLines.add(record.getLine());
+            else
+                chunk.values.add(value);
+        }
+        return chunk;
+    }
+
+    /**
+     * Class which holds the result of parsing one chunk of a file.
+     *
+     * @param <T>           The type of the parsed values.
+     */
+    private static class ParsedChunk<T>
+    {
+        private final ArrayList<T> values = new ArrayList<>();
+        private final ArrayList<String> invalidLines = new ArrayList<>();
+        private int lines = 0;
+    }
+
+    /**
+     * Accessor method to get the number of invalid records found by the last readRecords call.
+     *
+     * @return          The number of records rejected by the handler.
+     */
+    public int getInvalidRecords()
+    {
+        return invalidRecords;
+    }
+
     /**
      * Mutator method to set the file's name.
      *
@@ -111,19 +396,126 @@ public class FileIO
     }
 
     /**
-     * Method to write the designated content to the file.
+     * Method to write the designated content to the file, according to
+     * the configured fsync policy. Whole files are rewritten by the
+     * PersistenceWriter, which already writes a burst of changes once, so
+     * with group commit the file is synced as it is written.
      *
      * @param content    The content to be written as a String.
      */
     public void writeFile(String content)
     {
+        writeFileAtomic(content, Constant.FSYNC_POLICY != Constant.FSYNC_POLICY_NEVER);
+    }
+
+    /**
+     * Method to write the designated content to the file durably before
+     * returning, regardless of the fsync policy.
+     *
+     * @param content    The content to be written as a String.
+     */
+    public void writeFileNow(String content)
+    {
+        writeFileAtomic(content, true);
+    }
+
+    /**
+     * Method to replace the file's content atomically. The content is written
+     * to a temporary file which is then renamed over the file, so a crash
+     * leaves either the old or the new content, never a truncated file. If
+     * the temporary file cannot be written completely, e.g. as the disk is
+     * full, it is deleted and the file is left alone.
+     *
+     * @param content    The content to be written as a String.
+     * @param sync       Whether to sync the content to disk before renaming.
+     */
+    public void writeFileAtomic(String content, boolean sync)
+    {
+        Path target = Paths.get(fileName);
+        Path temp = Paths.get(fileName + Constant.STRING_TEMP_FILE_SUFFIX);
         try
         {
-            PrintWriter writer = new PrintWriter(fileName);
+            FileOutputStream output = new FileOutputStream(temp.toFile());
+            // unlike a PrintWriter, the writer reports a failed write instead of hiding it
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            try
+            {
+                writer.write(content);
+                writer.write(System.lineSeparator());
+                writer.flush();
+                if (sync)
+                    output.getFD().sync();
+            }
+            finally
+            {
+                writer.close();
+            }
+
             try
             {
-                writer.println(content);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
 
+            if (sync)
+                syncDirectory(target);
+        }
+        catch (Exception e)
+        {
+            try
+            {
+                Files.deleteIfExists(temp);
+            }
+            catch (IOException deleteError)
+            {
+                // the next write of the file replaces it
+            }
+            Boundary.alertFileWriteError();
+        }
+    }
+
+    /**
+     * Method to sync the directory containing a file so that a rename is durable.
+     * Not every platform allows opening a directory, in which case this is skipped.
+     *
+     * @param file       The file whose directory is synced.
+     */
+    private void syncDirectory(Path file)
+    {
+        Path directory = file.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ))
+        {
+            channel.force(true);
+        }
+        catch (Exception e)
+        {
+            // directories cannot be synced on this platform
+        }
+    }
+
+    /**
+     * Method to append the designated content to the end of the file,
+     * the file is created if it does not exist.
+     *
+     * @param content    The content to be appended as a String.
+     */
+    public void appendFile(String content)
+    {
+        try
+        {
+            FileOutputStream output = new FileOutputStream(fileName, true);
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            try
+            {
+                writer.write(content);
+                writer.flush();
+                if (Constant.FSYNC_POLICY == Constant.FSYNC_POLICY_ALWAYS)
+                    output.getFD().sync();
+                else if (Constant.FSYNC_POLICY == Constant.FSYNC_POLICY_GROUP)
+                    GroupCommit.submitSync(fileName);
             }
             catch (Exception e)
             {
@@ -146,4 +538,31 @@ public class FileIO
             Boundary.alertFileWriteError();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Method to check whether the file exists.
+     *
+     * @return          A boolean, true if the file exists.
+     */
+    public boolean exists()
+    {
+        return new File(fileName).exists();
+    }
+
+    /**
+     * Method to delete the file if it exists, durably before returning,
+     * regardless of the fsync policy.
+     */
+    public void deleteFileNow()
+    {
+        File file = new File(fileName);
+        if (!file.exists())
+            return;
+        if (!file.delete())
+        {
+            Boundary.alertFileWriteError();
+            return;
+        }
+        syncDirectory(file.toPath());
+    }
+}
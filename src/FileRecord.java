@@ -0,0 +1,196 @@
+import java.util.Arrays;
+
+/**
+ * Class which represents one delimited line of a data file. The fields are located by
+ * scanning for the field delimiter, so no regular expression or String array is needed,
+ * and the same object is reused for every line of a file.
+ *
+ * @version ver1.0.0
+ */
+public class FileRecord {
+    private String line;
+    private int[] fieldStarts;
+    private int[] fieldEnds;
+    private int fieldCount;
+
+    /**
+     * Default constructor of FileRecord class.
+     */
+    public FileRecord() {
+        this.line = "";
+        this.fieldStarts = new int[16];
+        this.fieldEnds = new int[16];
+        this.fieldCount = 0;
+    }
+
+    /**
+     * Constructor of FileRecord class.
+     *
+     * @param line                      The line content to be tokenized.
+     */
+    public FileRecord(String line) {
+        this();
+        tokenize(line);
+    }
+
+    /**
+     * Point this record at a new line and locate its fields.
+     *
+     * @param line                      The line content to be tokenized.
+     */
+    public void tokenize(String line) {
+        this.line = line;
+        fieldCount = 0;
+        int delimiterLength = Constant.STRING_FIELD_DELIMITER.length();
+        int start = 0;
+        while (true) {
+            int end = line.indexOf(Constant.STRING_FIELD_DELIMITER, start);
+            if (end < 0) {
+                addField(start, line.length());
+                break;
+            }
+            addField(start, end);
+            start = end + delimiterLength;
+        }
+        // same as String.split(), trailing empty fields are dropped
+        while (fieldCount > 0 && fieldStarts[fieldCount - 1] == fieldEnds[fieldCount - 1]) {
+            fieldCount--;
+        }
+    }
+
+    /**
+     * Record the bounds of the next field, growing the bound arrays if needed.
+     *
+     * @param start                     Start index of the field in the line.
+     * @param end                       End index (exclusive) of the field in the line.
+     */
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * Getter method for the whole line.
+     *
+     * @return                          The line content.
+     */
+    public String getLine() {
+        return line;
+    }
+
+    /**
+     * Getter method for the number of fields.
+     *
+     * @return                          The number of fields in the line.
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Get a field as a String.
+     *
+     * @param index                     The field index.
+     * @return                          The field content.
+     */
+    public String getField(int index) {
+        checkIndex(index);
+        return line.substring(fieldStarts[index], fieldEnds[index]);
+    }
+
+    /**
+     * Check whether a field equals the given value without extracting it.
+     *
+     * @param index                     The field index.
+     * @param value                     The value to compare with.
+     * @return                          A boolean, true if the field equals the value.
+     */
+    public boolean fieldEquals(int index, String value) {
+        checkIndex(index);
+        int length = fieldEnds[index] - fieldStarts[index];
+        return length == value.length() && line.startsWith(value, fieldStarts[index]);
+    }
+
+    /**
+     * Parse a field as an integer directly from the line.
+     *
+     * @param index                     The field index.
+     * @return                          The field's integer value.
+     * @throws NumberFormatException    If the field is not an integer.
+     */
+    public int getIntField(int index) {
+        checkIndex(index);
+        int position = fieldStarts[index];
+        int end = fieldEnds[index];
+        boolean negative = position < end && line.charAt(position) == '-';
+        if (position < end && (negative || line.charAt(position) == '+')) {
+            position++;
+        }
+        if (position == end) {
+            throw new NumberFormatException("For input string: \"" + getField(index) + "\"");
+        }
+        long value = 0;
+        for (; position < end; position++) {
+            char digit = line.charAt(position);
+            if (digit < '0' || digit > '9') {
+                throw new NumberFormatException("For input string: \"" + getField(index) + "\"");
+            }
+            value = value * 10 + (digit - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("For input string: \"" + getField(index) + "\"");
+            }
+        }
+        if (!negative && value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getField(index) + "\"");
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Parse a field as a double.
+     *
+     * @param index                     The field index.
+     * @return                          The field's double value.
+     * @throws NumberFormatException    If the field is not a double.
+     */
+    public double getDoubleField(int index) {
+        return Double.parseDouble(getField(index));
+    }
+
+    /**
+     * Parse a field as an amount of money.
+     *
+     * @param index                     The field index.
+     * @return                          The field's amount in cents.
+     * @throws NumberFormatException    If the field is not an amount of money.
+     */
+    public long getMoneyField(int index) {
+        return Money.parse(getField(index));
+    }
+
+    /**
+     * Check whether a field index is in range.
+     *
+     * @param index                     The field index.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " out of " + fieldCount + " fields.");
+        }
+    }
+
+    /**
+     * Override the toString() method.
+     *
+     * @return                          The line content.
+     */
+    @Override
+    public String toString() {
+        return line;
+    }
+}
@@ -18,8 +18,8 @@ public class FoodProduct extends Product{
      * @param name                      Product name.
      * @param brand                     Product brand.
      * @param description               Product description.
-     * @param price                     Product price.
-     * @param memberPrice               Product memberPrice.
+     * @param price                     Product price in cents.
+     * @param memberPrice               Product memberPrice in cents.
      * @param quantity                  Product quantity.
      * @param category                  Product category.
      * @param subcategory               Product subcategory.
@@ -28,7 +28,7 @@ public class FoodProduct extends Product{
      * @param storageInstructions       Product storage instructions.
      * @param allergenInfo              Product allergen information.
      */
-    public FoodProduct(String name, String brand, String description, double price, double memberPrice, int quantity, String category, String subcategory,
+    public FoodProduct(String name, String brand, String description, long price, long memberPrice, int quantity, String category, String subcategory,
                        LocalDate expirationDate, String ingredients, String storageInstructions, String allergenInfo) {
         super(name, brand, description, price, memberPrice, quantity, category, subcategory);
         this.expirationDate = expirationDate;
@@ -44,8 +44,8 @@ public class FoodProduct extends Product{
      * @param name                      Product name.
      * @param brand                     Product brand.
      * @param description               Product description.
-     * @param price                     Product price.
-     * @param memberPrice               Product memberPrice.
+     * @param price                     Product price in cents.
+     * @param memberPrice               Product memberPrice in cents.
      * @param quantity                  Product quantity.
      * @param category                  Product category.
      * @param subcategory               Product subcategory.
@@ -54,7 +54,7 @@ public class FoodProduct extends Product{
      * @param storageInstructions       Product storage instructions.
      * @param allergenInfo              Product allergen information.
      */
-    public FoodProduct(int productID, String name, String brand, String description, double price, double memberPrice, int quantity, String category, String subcategory,
+    public FoodProduct(int productID, String name, String brand, String description, long price, long memberPrice, int quantity, String category, String subcategory,
                        LocalDate expirationDate, String ingredients, String storageInstructions, String allergenInfo) {
         super(productID, name, brand, description, price, memberPrice, quantity, category, subcategory);
         this.expirationDate = expirationDate;
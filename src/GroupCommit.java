@@ -0,0 +1,87 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class which coalesces the syncs of appended files into one per commit interval, instead
+ * of one after every append. Whole files are rewritten by the PersistenceWriter, which
+ * coalesces bursts of changes itself.
+ *
+ * @version ver1.0.0
+ */
+public class GroupCommit {
+
+    private static final Set<String> pendingSyncs = new LinkedHashSet<>();
+    private static final Object flushLock = new Object();
+    private static ScheduledExecutorService scheduler = null;
+    private static boolean commitScheduled = false;
+
+    /**
+     * Default constructor of GroupCommit class.
+     */
+    private GroupCommit() {
+
+    }
+
+    /**
+     * Queue a file which has been appended to be synced in the next group commit.
+     *
+     * @param fileName                  The file's name.
+     */
+    public static synchronized void submitSync(String fileName) {
+        pendingSyncs.add(fileName);
+        scheduleCommit();
+    }
+
+    /**
+     * Sync everything queued so far.
+     */
+    public static void flush() {
+        // when a flush returns, every append queued before it is durable, even one a running flush took
+        synchronized (flushLock) {
+            Set<String> syncs;
+            synchronized (GroupCommit.class) {
+                syncs = new LinkedHashSet<>(pendingSyncs);
+                pendingSyncs.clear();
+                commitScheduled = false;
+            }
+            for (String fileName : syncs) {
+                try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+                catch (NoSuchFileException e) {
+                    // the file has been compacted away in the meantime
+                }
+                catch (IOException e) {
+                    Boundary.alertFileWriteError();
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedule a group commit unless one is already pending for this interval.
+     */
+    private static void scheduleCommit() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "group-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // pending syncs must not be lost when the system exits
+            Runtime.getRuntime().addShutdownHook(new Thread(GroupCommit::flush));
+        }
+        if (!commitScheduled) {
+            commitScheduled = true;
+            scheduler.schedule(GroupCommit::flush, Constant.GROUP_COMMIT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Class which stores the frequently changed fields of products, quantity and prices, in
+ * fixed-size slots of their own file. Changing them rewrites only the slots of the changed
+ * products, instead of the whole inventory file or a whole journal record. The slots are
+ * applied on top of the inventory file and the journal at startup.
+ *
+ * A slot takes 32 bytes, so a 4KB page holds 128 slots and no slot ever spans two disk
+ * sectors. Slot 0 is the file header.
+ *
+ * @version ver1.0.0
+ */
+public class HotFieldFile {
+    private static final int MAGIC = 0x4D4D4846; // "MMHF"
+    private static final int SLOT_SIZE = 32;
+    private static final int CHECKED_SIZE = SLOT_SIZE - 4;
+    private static final int FLAG_USED = 1;
+
+    private final String fileName;
+    private final IntObjectMap<Integer> slotIndex;
+    private final ArrayDeque<Integer> freeSlots;
+    private int slotCount;
+    private FileChannel channel;
+
+    /**
+     * Constructor of HotFieldFile class.
+     *
+     * @param fileName                      The file's name.
+     */
+    public HotFieldFile(String fileName) {
+        this.fileName = fileName;
+        this.slotIndex = new IntObjectMap<>();
+        this.freeSlots = new ArrayDeque<>();
+        this.slotCount = 1;
+        this.channel = null;
+    }
+
+    /**
+     * Apply the stored fields to the loaded products. Slots of products which no longer
+     * exist are cleared, so a later product with the same ID does not inherit them.
+     *
+     * @param store                         The store holding the loaded products.
+     */
+    public void load(ProductStore store) {
+        ByteBuffer buffer;
+        try (FileChannel input = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            buffer = ByteBuffer.allocate((int) Math.min(input.size(), Integer.MAX_VALUE));
+            while (buffer.hasRemaining() && input.read(buffer) >= 0) {
+                // read the whole file in as few calls as the operating system allows
+            }
+            buffer.flip();
+        }
+        catch (NoSuchFileException e) {
+            return;
+        }
+        catch (IOException e) {
+            Boundary.alertFileReadError();
+            return;
+        }
+
+        if (buffer.limit() < SLOT_SIZE || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != Constant.HOT_FIELD_FILE_VERSION) { // not a slot file, start a new one
+            deleteFile();
+            return;
+        }
+        slotCount = buffer.limit() / SLOT_SIZE;
+        ArrayDeque<Integer> staleSlots = new ArrayDeque<>();
+        for (int slot = 1; slot < slotCount; slot++) {
+            int offset = slot * SLOT_SIZE;
+            if (!isUsed(buffer, offset)) {
+                freeSlots.add(slot);
+                continue;
+            }
+            int productID = buffer.getInt(offset);
+            Product product = store.get(productID);
+            if (product == null || slotIndex.containsKey(productID)) {
+                staleSlots.add(slot);
+                continue;
+            }
+            int quantity = buffer.getInt(offset + 4);
+            long price = buffer.getLong(offset + 8);
+            long memberPrice = buffer.getLong(offset + 16);
+            if (product.getQuantity() != quantity) {
+                product.setQuantity(quantity);
+            }
+            if (product.getPrice() != price) {
+                product.setPrice(price);
+            }
+            if (product.getMemberPrice() != memberPrice) {
+                product.setMemberPrice(memberPrice);
+            }
+            store.update(product);
+            slotIndex.put(productID, slot);
+        }
+        for (int slot : staleSlots) {
+            clearSlot(slot);
+        }
+    }
+
+    /**
+     * Store the current quantity and prices of products.
+     *
+     * @param products                      The changed products.
+     */
+    public void write(List<Product> products) {
+        try {
+            FileChannel output = openChannel();
+            for (Product product : products) {
+                int slot = slotOf(product.getProductId());
+                output.write(encodeSlot(product), (long) slot * SLOT_SIZE);
+            }
+            syncChannel(output);
+        }
+        catch (IOException e) {
+            Boundary.alertFileWriteError();
+        }
+    }
+
+    /**
+     * Drop the stored fields of a removed product.
+     *
+     * @param productID                     The removed product's ID.
+     */
+    public void remove(int productID) {
+        Integer slot = slotIndex.remove(productID);
+        if (slot != null) {
+            clearSlot(slot);
+        }
+    }
+
+    /**
+     * Drop all stored fields, called once the inventory file holds the current values durably.
+     */
+    public void clear() {
+        closeChannel();
+        deleteFile();
+        slotIndex.clear();
+        freeSlots.clear();
+        slotCount = 1;
+    }
+
+    /**
+     * Get the slot of a product, taking a free slot or appending one if it has none yet.
+     *
+     * @param productID                     The product's ID.
+     * @return                              The slot number.
+     */
+    private int slotOf(int productID) {
+        Integer slot = slotIndex.get(productID);
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.poll();
+            slotIndex.put(productID, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Overwrite a slot with an empty one and make it free.
+     *
+     * @param slot                          The slot number.
+     */
+    private void clearSlot(int slot) {
+        try {
+            FileChannel output = openChannel();
+            output.write(ByteBuffer.allocate(SLOT_SIZE), (long) slot * SLOT_SIZE);
+            syncChannel(output);
+            freeSlots.add(slot);
+        }
+        catch (IOException e) {
+            Boundary.alertFileWriteError();
+        }
+    }
+
+    /**
+     * Encode the current quantity and prices of a product as a slot.
+     *
+     * @param product                       The product.
+     * @return                              The slot's bytes.
+     */
+    private static ByteBuffer encodeSlot(Product product) {
+        ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+        slot.putInt(product.getProductId()).putInt(product.getQuantity())
+                .putLong(product.getPrice()).putLong(product.getMemberPrice()).putInt(FLAG_USED);
+        CRC32C crc = new CRC32C();
+        crc.update(slot.array(), 0, CHECKED_SIZE);
+        slot.putInt((int) crc.getValue()).flip();
+        return slot;
+    }
+
+    /**
+     * Check whether a slot holds a product's fields, a damaged slot counts as empty.
+     *
+     * @param buffer                        The file content.
+     * @param offset                        The slot's offset.
+     * @return                              A boolean, true if the slot is in use.
+     */
+    private static boolean isUsed(ByteBuffer buffer, int offset) {
+        if ((buffer.getInt(offset + 24) & FLAG_USED) == 0) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), offset, CHECKED_SIZE);
+        return buffer.getInt(offset + CHECKED_SIZE) == (int) crc.getValue();
+    }
+
+    /**
+     * Get the open file, opening it and writing the header first if needed.
+     *
+     * @return                              The open file.
+     * @throws IOException                  If the file cannot be opened.
+     */
+    private FileChannel openChannel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() < SLOT_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(SLOT_SIZE);
+                header.putInt(MAGIC).putInt(Constant.HOT_FIELD_FILE_VERSION).flip();
+                channel.write(header, 0);
+            }
+        }
+        return channel;
+    }
+
+    /**
+     * Make the written slots durable according to the configured fsync policy.
+     *
+     * @param output                        The open file.
+     * @throws IOException                  If the file cannot be synced.
+     */
+    private void syncChannel(FileChannel output) throws IOException {
+        if (Constant.FSYNC_POLICY == Constant.FSYNC_POLICY_ALWAYS) {
+            output.force(false);
+        }
+        else if (Constant.FSYNC_POLICY == Constant.FSYNC_POLICY_GROUP) {
+            GroupCommit.submitSync(fileName);
+        }
+    }
+
+    /**
+     * Close the file if it is open.
+     */
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            Boundary.alertFileWriteError();
+        }
+        channel = null;
+    }
+
+    /**
+     * Delete the file.
+     */
+    private void deleteFile() {
+        try {
+            Files.deleteIfExists(Paths.get(fileName));
+        }
+        catch (IOException e) {
+            Boundary.alertFileWriteError();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load generator class, runs many concurrent clients against the HTTP mode on a local port
+ * and reports the throughput and latencies. Each client pages the catalog and looks up a
+ * product of the page in every round. Given a customer login, each client also logs in, adds
+ * the product to its cart and checks out in every round, so the stock and credits can be
+ * checked against the number of successful checkouts afterwards. Checkouts use up the served
+ * stock and credits, which are saved, so they are meant for a server run on a copy of the
+ * data directory.
+ *
+ * @version ver1.0.0
+ */
+public class HttpLoadGenerator {
+    private static final Pattern TOTAL_PAGES = Pattern.compile("\"totalPages\":(\\d+)");
+    private static final Pattern PRODUCT_ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final String baseUri;
+    private final int clients;
+    private final int rounds;
+    private final String email;
+    private final String password;
+    private final HttpClient httpClient;
+
+    /**
+     * Constructor of HttpLoadGenerator class.
+     *
+     * @param port                      The local port of the HTTP mode.
+     * @param clients                   Number of concurrent clients.
+     * @param rounds                    Number of rounds of requests each client runs.
+     * @param email                     The customer's email, null to only browse the catalog
+     *                                  and leave the data unchanged.
+     * @param password                  The customer's password.
+     */
+    public HttpLoadGenerator(int port, int clients, int rounds, String email, String password) {
+        this.baseUri = "http://localhost:" + port;
+        this.clients = clients;
+        this.rounds = rounds;
+        this.email = email;
+        this.password = password;
+        this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .executor(MMOSSServer.newSessionExecutor()).build();
+    }
+
+    /**
+     * Run all clients until they finish their rounds and print the results.
+     */
+    public void run() {
+        int totalPages;
+        try {
+            HttpResponse<String> firstPage = send(HttpRequest.newBuilder(uri(Constant.HTTP_PATH_PRODUCTS)).GET(), null);
+            Matcher matcher = TOTAL_PAGES.matcher(firstPage.body());
+            if (firstPage.statusCode() != 200 || !matcher.find()) {
+                Boundary.alertException(firstPage.body());
+                return;
+            }
+            totalPages = Math.max(Integer.parseInt(matcher.group(1)), 1);
+        }
+        catch (IOException e) {
+            Boundary.alertException(e.toString());
+            return;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        ExecutorService clientExecutor = MMOSSServer.newSessionExecutor();
+        List<Future<Client>> runs = new ArrayList<>(clients);
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            runs.add(clientExecutor.submit(() -> new Client().run(totalPages)));
+        }
+
+        long requests = 0;
+        long rejected = 0;
+        long failed = 0;
+        List<long[]> clientLatencies = new ArrayList<>(clients);
+        int latencyCount = 0;
+        for (Future<Client> run : runs) {
+            try {
+                Client client = run.get();
+                requests += client.requests;
+                rejected += client.rejected;
+                failed += client.failed;
+                clientLatencies.add(Arrays.copyOf(client.latencies, client.requests));
+                latencyCount += client.requests;
+            }
+            catch (ExecutionException e) {
+                Boundary.alertException(e.getCause().toString());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1000000;
+        clientExecutor.shutdown();
+
+        long[] latencies = new long[latencyCount];
+        int position = 0;
+        for (long[] clientLatency : clientLatencies) {
+            System.arraycopy(clientLatency, 0, latencies, position, clientLatency.length);
+            position += clientLatency.length;
+        }
+        Arrays.sort(latencies);
+        Boundary.printHttpLoadResult(requests, rejected, failed, millis, latencies);
+    }
+
+    /**
+     * Send a request.
+     *
+     * @param request                   The request, without its body.
+     * @param token                     The session token, null if the request needs no session.
+     * @return                          The response.
+     * @throws IOException              If the request cannot be sent or answered.
+     * @throws InterruptedException     If the client is interrupted.
+     */
+    private HttpResponse<String> send(HttpRequest.Builder request, String token)
+            throws IOException, InterruptedException {
+        if (token != null) {
+            request.header(Constant.HTTP_SESSION_HEADER, token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Get the URI of a path of the HTTP mode.
+     *
+     * @param path                      The path, with any query string.
+     * @return                          The URI.
+     */
+    private URI uri(String path) {
+        return URI.create(baseUri + path);
+    }
+
+    /**
+     * Class which runs the rounds of one client and counts its results.
+     */
+    private class Client {
+        private final long[] latencies;
+        private int requests;
+        private long rejected;
+        private long failed;
+
+        /**
+         * Default constructor of Client class.
+         */
+        private Client() {
+            // a round sends at most 4 requests, plus the login and logout
+            this.latencies = new long[rounds * 4 + 2];
+            this.requests = 0;
+            this.rejected = 0;
+            this.failed = 0;
+        }
+
+        /**
+         * Run all rounds of the client.
+         *
+         * @param totalPages            Number of catalog pages.
+         * @return                      The client itself, holding its results.
+         */
+        private Client run(int totalPages) {
+            String token = null;
+            if (email != null) {
+                StringBuilder login = new StringBuilder().append('{');
+                Json.appendMember(login, Constant.HTTP_PARAM_EMAIL, email);
+                Json.appendMember(login, Constant.HTTP_PARAM_PASSWORD, password);
+                HttpResponse<String> response = call(HttpRequest.newBuilder(uri(Constant.HTTP_PATH_SESSIONS))
+                        .POST(HttpRequest.BodyPublishers.ofString(login.append('}').toString())), null);
+                if (response == null || response.statusCode() != 201) {
+                    return this;
+                }
+                token = Json.parseObject(response.body()).get("session");
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int round = 0; round < rounds; round++) {
+                int page = random.nextInt(totalPages) + 1;
+                HttpResponse<String> response = call(HttpRequest.newBuilder(
+                        uri(Constant.HTTP_PATH_PRODUCTS + "?" + Constant.HTTP_PARAM_PAGE + "=" + page)).GET(), null);
+                if (response == null) {
+                    continue;
+                }
+                List<String> productIDs = new ArrayList<>();
+                Matcher matcher = PRODUCT_ID.matcher(response.body());
+                while (matcher.find()) {
+                    productIDs.add(matcher.group(1));
+                }
+                if (productIDs.isEmpty()) {
+                    continue;
+                }
+                String productID = productIDs.get(random.nextInt(productIDs.size()));
+                call(HttpRequest.newBuilder(uri(Constant.HTTP_PATH_PRODUCTS + "/" + productID)).GET(), null);
+
+                if (token != null) {
+                    StringBuilder item = new StringBuilder().append('{');
+                    Json.appendName(item, Constant.HTTP_PARAM_PRODUCT_ID).append(productID);
+                    Json.appendMember(item, Constant.HTTP_PARAM_QUANTITY, 1);
+                    call(HttpRequest.newBuilder(uri(Constant.HTTP_PATH_CART))
+                            .POST(HttpRequest.BodyPublishers.ofString(item.append('}').toString())), token);
+                    call(HttpRequest.newBuilder(uri(Constant.HTTP_PATH_CHECKOUT))
+                            .POST(HttpRequest.BodyPublishers.noBody()), token);
+                }
+            }
+
+            if (token != null) {
+                call(HttpRequest.newBuilder(uri(Constant.HTTP_PATH_SESSIONS)).DELETE(), token);
+            }
+            return this;
+        }
+
+        /**
+         * Send a request, counting its result and latency.
+         *
+         * @param request               The request, without its body.
+         * @param token                 The session token, null if the request needs no session.
+         * @return                      The response, null if the request failed.
+         */
+        private HttpResponse<String> call(HttpRequest.Builder request, String token) {
+            long start = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = send(request, token);
+            }
+            catch (IOException e) {
+                failed++;
+                return null;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed++;
+                return null;
+            }
+            latencies[requests++] = (System.nanoTime() - start) / 1000;
+            if (response.statusCode() >= 500) {
+                failed++;
+                return null;
+            }
+            if (response.statusCode() >= 400) {
+                rejected++;
+            }
+            return response;
+        }
+    }
+}
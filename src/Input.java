@@ -1,5 +1,3 @@
-import java.util.Scanner;
-
 /**
  * Class which gets specific types of user inputs.
  *
@@ -26,11 +24,9 @@ public class Input
      */
     public static char acceptCharacterInput(int position)
     {
-        Scanner scanner = new Scanner(System.in);
-        String input = "";
+        String input = Session.current().readLine().trim();
         try
         {
-            input = scanner.nextLine().trim();
             char temp = input.charAt(position);
             return temp;
         }
@@ -54,11 +50,9 @@ public class Input
      */
     public static double acceptDoubleInput()
     {
-        Scanner scanner = new Scanner(System.in);
-        String input = "";
+        String input = Session.current().readLine().trim();
         try
         {
-            input = scanner.nextLine().trim();
             double temp = Double.parseDouble(input);
             return temp;
         }
@@ -80,11 +74,9 @@ public class Input
      */
     public static int acceptIntegerInput()
     {
-        Scanner scanner = new Scanner(System.in);
-        String input = "";
+        String input = Session.current().readLine().trim();
         try
         {
-            input = scanner.nextLine().trim();
             int temp = Integer.parseInt(input);
             return temp;
         }
@@ -106,8 +98,7 @@ public class Input
      */
     public static String acceptStringInput()
     {
-        Scanner scanner = new Scanner(System.in);
-        String temp = scanner.nextLine();
+        String temp = Session.current().readLine();
         return temp.trim();
     }
 }
\ No newline at end of file
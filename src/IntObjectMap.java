@@ -0,0 +1,201 @@
+import java.util.Arrays;
+
+/**
+ * Class which maps primitive int keys to objects with open addressing, so no
+ * Integer boxing or entry objects are allocated on lookups or insertions.
+ *
+ * @param <V>                       The value type, values cannot be null.
+ * @version ver1.0.0
+ */
+public class IntObjectMap<V> {
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Default constructor of IntObjectMap class.
+     */
+    public IntObjectMap() {
+        this(16);
+    }
+
+    /**
+     * Constructor of IntObjectMap class.
+     *
+     * @param expectedSize          Number of entries to reserve room for.
+     */
+    public IntObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize * 2 - 1, 1)) << 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    /**
+     * Get the value mapped to a key.
+     *
+     * @param key                   The key.
+     * @return                      The mapped value, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        for (int slot = hash(key) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether a key is mapped.
+     *
+     * @param key                   The key.
+     * @return                      A boolean, true if the key is mapped.
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Map a key to a value, replacing any previous value.
+     *
+     * @param key                   The key.
+     * @param value                 The value, cannot be null.
+     * @return                      The previous value, or null if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("IntObjectMap does not accept null values.");
+        }
+        int slot = hash(key) & mask;
+        for (; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > values.length) { // keep the load factor at most 0.5
+            resize(values.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Remove a key's mapping.
+     *
+     * @param key                   The key.
+     * @return                      The removed value, or null if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = hash(key) & mask;
+        for (; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of mappings.
+     *
+     * @return                      The number of mappings.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get all mapped keys, in no particular order.
+     *
+     * @return                      An array of the mapped keys.
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int count = 0;
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                result[count++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove all mappings.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Close the gap left by a removed entry by moving later entries of the same
+     * probe chain back, so lookups never need tombstones.
+     *
+     * @param gap                   The slot which has been emptied.
+     */
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == null) {
+                break;
+            }
+            int home = hash(keys[slot]) & mask;
+            // move the entry if its home slot is not between the gap and its current slot
+            boolean movable = gap <= slot ? (home <= gap || home > slot) : (home <= gap && home > slot);
+            if (movable) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        values[gap] = null;
+    }
+
+    /**
+     * Rebuild the table with a new capacity.
+     *
+     * @param capacity              The new capacity, a power of two.
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (int index = 0; index < oldValues.length; index++) {
+            if (oldValues[index] != null) {
+                int slot = hash(oldKeys[index]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[index];
+                values[slot] = oldValues[index];
+            }
+        }
+    }
+
+    /**
+     * Spread the key bits so sequential IDs do not cluster.
+     *
+     * @param key                   The key.
+     * @return                      The spread hash.
+     */
+    private static int hash(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
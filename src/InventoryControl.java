@@ -1,5 +1,8 @@
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
 /**
  * Class which keeps track of inventory data and provides management operations,
  * also is responsible for data persistence.
@@ -8,114 +11,400 @@ import java.util.*;
  */
 public class InventoryControl {
 
-    private final ArrayList<Product> productList;
-    private final HashMap<String, List<String>> categoryList;
+    private final ProductStore productStore;
+    private ProductSearchIndex searchIndex;
+    private final CategoryDictionary categories;
+    private final HotFieldFile hotFields;
+    private final RenderedPageCache renderedPages;
+    private int journalRecords;
+    // readers of the products and the search index share it, changes of them take it alone,
+    // a waiting change keeps new readers out, so a steady stream of readers cannot starve it
+    private final ReentrantReadWriteLock catalogLock;
+    // an admin change holds its product's stripe from checking the product to persisting it
+    private final ReentrantLock[] productLocks;
+    // the journal, the hot field file and the inventory file are written one change at a time
+    private final ReentrantLock fileLock;
 
     /**
      * Constructor of InventoryControl class.
      */
     public InventoryControl() {
-        productList = new ArrayList<>();
-        categoryList = new HashMap<>();
-        getProductsFromFile();
+        productStore = Constant.PRODUCT_STORE_COLUMNAR ? new ColumnarProductStore() : new ObjectProductStore();
+        searchIndex = null;
+        categories = new CategoryDictionary();
+        hotFields = new HotFieldFile(Constant.PRODUCT_HOT_FIELD_FILE_PATH);
+        renderedPages = new RenderedPageCache();
+        journalRecords = 0;
+        catalogLock = new ReentrantReadWriteLock();
+        productLocks = new ReentrantLock[Constant.INVENTORY_LOCK_STRIPES];
+        for (int stripe = 0; stripe < productLocks.length; stripe++) {
+            productLocks[stripe] = new ReentrantLock();
+        }
+        fileLock = new ReentrantLock();
+        // categories first, so products share the category name instances
         getCategoriesFromFile();
+        getProductsFromFile();
+        replayInventoryJournal();
+        // the slots always hold the latest quantity and prices, so they are applied last
+        if (Constant.HOT_FIELD_FILE_ENABLED) {
+            hotFields.load(productStore);
+        }
+        if (journalRecords >= Constant.JOURNAL_COMPACT_THRESHOLD) {
+            requestJournalCompaction();
+        }
     }
 
     /**
      * Method to read from the specified category file and populate data.
      */
     public void getCategoriesFromFile() {
-        // read category data file
-        String fileContent = new FileIO(Constant.CATEGORY_FILE_PATH).readFile();
+        // stream category data file
+        FileIO categoryFile = new FileIO(Constant.CATEGORY_FILE_PATH);
+        int lines = categoryFile.readRecords(this::loadCategoryRecord);
 
-        if (fileContent.isEmpty()){ // no such file, or empty file, create default categories
+        if (lines == 0){ // no such file, or empty file, create default categories
             Boundary.alertEmptyOrNotExistFile(Constant.CATEGORY_FILE_PATH);
-            categoryList.putAll(Constant.DEFAULT_CATEGORIES);
+            categories.addAll(Constant.DEFAULT_CATEGORIES);
             return;
         }
 
-        String[] lines = fileContent.split(Constant.STRING_NEXT_LINE);
-
-        int invalidLines = 0;
-        for (String line : lines) {
-            String[] fields = line.split(Constant.STRING_FIELD_DELIMITER);
-            try {
-                if (fields.length > 1) { // a category have at least one subcategory
-                    String category = fields[0];
-                    List<String> subcategories = new ArrayList<>(Arrays.asList(fields).subList(1, fields.length));
-                    categoryList.put(category, subcategories);
-                }
-                else {
-                    throw new Exception(Constant.ERR_MSG_INVALID_LINE);
-                }
-            }
-            catch (Exception e) {
-                invalidLines++;
-                Boundary.alertInvalidFileLine(line, Constant.CATEGORY_FILE_PATH);
-            }
-        }
-        if (invalidLines == lines.length) { // no valid content, use default settings
+        int invalidLines = categoryFile.getInvalidRecords();
+        if (invalidLines == lines) { // no valid content, use default settings
             Boundary.alertTotalInvalidFileContent(Constant.CATEGORY_FILE_PATH);
-            categoryList.putAll(Constant.DEFAULT_CATEGORIES);
+            categories.addAll(Constant.DEFAULT_CATEGORIES);
         }
         if (invalidLines > 0) { // partially invalid content
             Boundary.alertPartialInvalidFileContent(Constant.CATEGORY_FILE_PATH, invalidLines);
         }
     }
 
+    /**
+     * Populate one category and its subcategories from a category file record.
+     *
+     * @param record                        The category file record.
+     * @return                              A boolean representing whether the record is valid.
+     */
+    private boolean loadCategoryRecord(FileRecord record) {
+        int fieldCount = record.getFieldCount();
+        if (fieldCount <= 1) { // a category have at least one subcategory
+            return false;
+        }
+        List<String> subcategories = new ArrayList<>(fieldCount - 1);
+        for (int index = 1; index < fieldCount; index++) {
+            subcategories.add(record.getField(index));
+        }
+        categories.addCategory(record.getField(0), subcategories);
+        return true;
+    }
+
     /**
      * Method to read from the specified inventory file and populate data.
      */
     private void getProductsFromFile() {
+        // a snapshot of the unchanged inventory file saves parsing it
+        if (Constant.SNAPSHOT_ENABLED && new ProductSnapshot(categories).load(productStore::load)) {
+            productStore.finishLoading();
+            return;
+        }
+
+        // stream product data file, no content or no such file is acceptable
+        FileIO inventoryFile = new FileIO(Constant.INVENTORY_FILE_PATH);
+        int lines = inventoryFile.readRecordsParallel(this::parseProductRecord, productStore::load);
+        productStore.finishLoading();
+
+        int invalidLines = inventoryFile.getInvalidRecords();
+        if (invalidLines > 0) {
+            Boundary.alertPartialInvalidFileContent(Constant.INVENTORY_FILE_PATH, invalidLines);
+        }
+        else if (lines > 0) { // only a fully valid file is worth a snapshot, invalid lines are reported every startup
+            saveProductSnapshot();
+        }
+    }
 
-        // read product data file
-        String fileContent = new FileIO(Constant.INVENTORY_FILE_PATH).readFile();
+    /**
+     * Write a binary snapshot of the loaded products, which must match the inventory file.
+     */
+    private void saveProductSnapshot() {
+        if (Constant.SNAPSHOT_ENABLED) {
+            new ProductSnapshot(categories).save(productStore::forEach);
+        }
+    }
+
+    /**
+     * Parse one product from an inventory file record, called on several threads at once.
+     *
+     * @param record                        The inventory file record.
+     * @return                              The product, or null if the record is invalid.
+     */
+    private Product parseProductRecord(FileRecord record) {
+        try {
+            return parseProduct(record, 0);
+        }
+        catch (Exception e) {
+            return null;
+        }
+    }
 
-        if (fileContent.isEmpty()){ // no content or no such file, it's acceptable
+    /**
+     * Build a product from its serialized fields.
+     *
+     * @param record                        The record holding the serialized fields.
+     * @param offset                        Index of the product ID field.
+     * @return                              The parsed Product or FoodProduct object.
+     * @throws Exception                    If the fields are not a valid product record.
+     */
+    private Product parseProduct(FileRecord record, int offset) throws Exception {
+        int length = record.getFieldCount() - offset;
+        if (length != 9 && length != 13) {
+            throw new Exception(Constant.ERR_MSG_INVALID_LINE);
+        }
+        // share one instance of each category and subcategory name across products
+        String category = categories.internCategory(record.getField(offset + 7));
+        String subcategory = categories.internSubcategory(category, record.getField(offset + 8));
+        if (length == 9) {
+            return new Product(record.getIntField(offset), record.getField(offset + 1),
+                    record.getField(offset + 2), record.getField(offset + 3),
+                    record.getMoneyField(offset + 4), record.getMoneyField(offset + 5),
+                    record.getIntField(offset + 6), category, subcategory);
+        }
+        return new FoodProduct(record.getIntField(offset), record.getField(offset + 1),
+                record.getField(offset + 2), record.getField(offset + 3),
+                record.getMoneyField(offset + 4), record.getMoneyField(offset + 5),
+                record.getIntField(offset + 6), category, subcategory,
+                Util.getDateFromISOString(record.getField(offset + 9)), record.getField(offset + 10),
+                record.getField(offset + 11), record.getField(offset + 12));
+    }
+
+    /**
+     * Method to replay the inventory journal on top of the loaded snapshot.
+     */
+    private void replayInventoryJournal() {
+        FileIO journal = new FileIO(Constant.INVENTORY_JOURNAL_FILE_PATH);
+        if (!journal.exists()) { // nothing has changed since the last snapshot
             return;
         }
 
-        String[] lines = fileContent.split(Constant.STRING_NEXT_LINE);
+        journal.readRecords(this::replayJournalRecord);
 
-        int invalidLines = 0;
-        for (String line : lines) {
-            String[] fields = line.split(Constant.STRING_FIELD_DELIMITER);
-            try {
-                if (fields.length == 9) {
-                    productList.add(new Product(Integer.parseInt(fields[0]), fields[1], fields[2], fields[3],
-                            Double.parseDouble(fields[4]), Double.parseDouble(fields[5]),
-                            Integer.parseInt(fields[6]), fields[7], fields[8]));
-                }
-                else if (fields.length == 13) {
-                    productList.add(new FoodProduct(Integer.parseInt(fields[0]), fields[1], fields[2], fields[3],
-                            Double.parseDouble(fields[4]), Double.parseDouble(fields[5]),
-                            Integer.parseInt(fields[6]), fields[7], fields[8],
-                            Util.getDateFromISOString(fields[9]), fields[10], fields[11], fields[12]));
+        int invalidLines = journal.getInvalidRecords();
+        if (invalidLines > 0) {
+            Boundary.alertPartialInvalidFileContent(Constant.INVENTORY_JOURNAL_FILE_PATH, invalidLines);
+        }
+    }
+
+    /**
+     * Apply one journal record to the loaded products.
+     *
+     * @param record                        The journal record.
+     * @return                              A boolean representing whether the record is valid.
+     */
+    private boolean replayJournalRecord(FileRecord record) {
+        try {
+            if (record.fieldEquals(0, Constant.JOURNAL_OP_UPDATE)) {
+                Product product = parseProduct(record, 1);
+                Product current = getProductByID(product.getProductId());
+                if (current == null) {
+                    addProduct(product);
+                } else { // also covers a food/non-food type change
+                    replaceProduct(current, product);
                 }
-                else {
-                    invalidLines++;
-                    throw new Exception(Constant.ERR_MSG_INVALID_LINE);
+            }
+            else if (record.fieldEquals(0, Constant.JOURNAL_OP_REMOVE) && record.getFieldCount() == 2) {
+                Product current = getProductByID(record.getIntField(1));
+                if (current != null) {
+                    deleteProduct(current);
                 }
             }
-            catch (Exception e) {
-                Boundary.alertInvalidFileLine(line, Constant.INVENTORY_FILE_PATH);
+            else {
+                return false;
             }
+            journalRecords++;
+            return true;
         }
-
-        if (invalidLines > 0) {
-            Boundary.alertPartialInvalidFileContent(Constant.INVENTORY_FILE_PATH, invalidLines);
+        catch (Exception e) {
+            return false;
         }
     }
 
     /**
-     * Update inventory file's content with latest productList data.
+     * Update inventory file's content with latest product data, the file is rewritten in the background.
      */
     public void updateInventoryFile() {
+        PersistenceWriter.markDirty(Constant.INVENTORY_FILE_PATH, this::writeInventoryFile);
+    }
+
+    /**
+     * Rewrite the inventory file and its snapshot with the latest product data.
+     */
+    private void writeInventoryFile() {
+        fileLock.lock();
+        try {
+            writeInventoryFileAndSnapshot();
+            clearHotFields();
+        }
+        finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrite the inventory file and its snapshot from the same product data. Readers go on
+     * meanwhile, while changes of the products wait until both are written.
+     */
+    private void writeInventoryFileAndSnapshot() {
+        catalogLock.readLock().lock();
+        try {
+            new FileIO(Constant.INVENTORY_FILE_PATH).writeFileNow(getInventoryFileContent());
+            saveProductSnapshot();
+        }
+        finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drop the quantity and price slots once the inventory file holds their values durably.
+     */
+    private void clearHotFields() {
+        if (Constant.HOT_FIELD_FILE_ENABLED) {
+            hotFields.clear();
+        }
+    }
+
+    /**
+     * Serialize the latest product data in the inventory file format.
+     *
+     * @return                              The inventory file content.
+     */
+    private String getInventoryFileContent() {
         StringBuilder fileContent = new StringBuilder();
-        for (Product product : productList) {
-            fileContent.append(product.toString()).append("\n");
+        productStore.forEach(product -> fileContent.append(product.toString()).append("\n"));
+        return fileContent.toString();
+    }
+
+    /**
+     * Persist a created or updated product, appending it to the journal when journaling is enabled.
+     *
+     * @param product                       The created or updated product.
+     */
+    private void persistProduct(Product product) {
+        updateStoredProduct(product);
+        fileLock.lock();
+        try {
+            if (Constant.HOT_FIELD_FILE_ENABLED) { // keep the product's slot from overriding this record
+                hotFields.write(List.of(product));
+            }
+            if (!Constant.INVENTORY_JOURNAL_ENABLED) {
+                updateInventoryFile();
+                return;
+            }
+            appendToJournal(Constant.JOURNAL_OP_UPDATE + Constant.STRING_FIELD_DELIMITER + product + "\n", 1);
+        }
+        finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * Persist a change of a product's quantity or prices only, rewriting just its slot
+     * when the hot field file is enabled.
+     *
+     * @param product                       The updated product.
+     */
+    private void persistHotFields(Product product) {
+        if (!Constant.HOT_FIELD_FILE_ENABLED) {
+            persistProduct(product);
+            return;
+        }
+        updateStoredProduct(product);
+        fileLock.lock();
+        try {
+            hotFields.write(List.of(product));
+        }
+        finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * Persist a removed product, appending it to the journal when journaling is enabled.
+     *
+     * @param product                       The removed product.
+     */
+    private void persistRemoval(Product product) {
+        renderedPages.productChanged(product.getProductId());
+        fileLock.lock();
+        try {
+            if (Constant.HOT_FIELD_FILE_ENABLED) {
+                hotFields.remove(product.getProductId());
+            }
+            if (!Constant.INVENTORY_JOURNAL_ENABLED) {
+                updateInventoryFile();
+                return;
+            }
+            appendToJournal(Constant.JOURNAL_OP_REMOVE + Constant.STRING_FIELD_DELIMITER +
+                    product.getProductId() + "\n", 1);
+        }
+        finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * Write a product's changed fields into the store, then outdate its rendered text.
+     *
+     * @param product                       The updated product.
+     */
+    private void updateStoredProduct(Product product) {
+        catalogLock.writeLock().lock();
+        try {
+            productStore.update(product);
+        }
+        finally {
+            catalogLock.writeLock().unlock();
+        }
+        renderedPages.productChanged(product.getProductId());
+    }
+
+    /**
+     * Append records to the inventory journal, compacting it once it grows past the threshold.
+     * The caller holds the file lock.
+     *
+     * @param records                       The serialized journal records.
+     * @param count                         Number of records contained.
+     */
+    private void appendToJournal(String records, int count) {
+        new FileIO(Constant.INVENTORY_JOURNAL_FILE_PATH).appendFile(records);
+        journalRecords += count;
+        if (journalRecords >= Constant.JOURNAL_COMPACT_THRESHOLD) {
+            requestJournalCompaction();
+        }
+    }
+
+    /**
+     * Have the journal compacted in the background, it keeps growing until then.
+     */
+    private void requestJournalCompaction() {
+        PersistenceWriter.markDirty(Constant.INVENTORY_FILE_PATH, this::compactInventoryJournal);
+    }
+
+    /**
+     * Fold the journal into a fresh inventory snapshot and start a new empty journal.
+     */
+    public void compactInventoryJournal() {
+        // no record can be appended between taking the snapshot and dropping the journal
+        fileLock.lock();
+        try {
+            // each step must be durable before the next: until the journal is gone, its records
+            // may hold quantities and prices older than the slots, which are applied after them
+            writeInventoryFileAndSnapshot();
+            new FileIO(Constant.INVENTORY_JOURNAL_FILE_PATH).deleteFileNow();
+            journalRecords = 0;
+            clearHotFields();
+        }
+        finally {
+            fileLock.unlock();
         }
-        new FileIO(Constant.INVENTORY_FILE_PATH).writeFile(fileContent.toString());
     }
 
     /**
@@ -125,12 +414,7 @@ public class InventoryControl {
      * @return                              A boolean representing whether the category is valid.
      */
     private boolean isCategoryValid(String category) {
-        for (String key : categoryList.keySet()) {
-            if (key.equalsIgnoreCase(category)){
-                return true;
-            }
-        }
-        return false;
+        return categories.getCategoryID(category) >= 0;
     }
 
     /**
@@ -140,12 +424,7 @@ public class InventoryControl {
      * @return                              The valid category name.
      */
     private String getValidCategory(String category) {
-        for (String key : categoryList.keySet()) {
-            if (key.equalsIgnoreCase(category)){
-                return key;
-            }
-        }
-        return null;
+        return categories.resolveCategory(category);
     }
 
     /**
@@ -156,16 +435,7 @@ public class InventoryControl {
      * @return                              A boolean representing whether the subcategory is valid.
      */
     private boolean isSubcategoryValid(String category, String subcategory) {
-        for (var entry : categoryList.entrySet()) {
-            if ((entry.getKey()).equalsIgnoreCase(category)){
-                for (String value : entry.getValue()){
-                    if ((value).equalsIgnoreCase(subcategory)){
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return categories.resolveSubcategory(category, subcategory) != null;
     }
 
     /**
@@ -176,16 +446,7 @@ public class InventoryControl {
      * @return                              The valid subcategory name.
      */
     private String getValidSubcategory(String category, String subcategory) {
-        for (var entry : categoryList.entrySet()) {
-            if ((entry.getKey()).equalsIgnoreCase(category)){
-                for (String value : entry.getValue()){
-                    if ((value).equalsIgnoreCase(subcategory)){
-                        return value;
-                    }
-                }
-            }
-        }
-        return null;
+        return categories.resolveSubcategory(category, subcategory);
     }
 
 
@@ -196,30 +457,267 @@ public class InventoryControl {
      * @return                              The target Product object.
      */
     public Product getProductByID(int productID) {
-        for (Product product : productList) {
-            if (product.getProductId() == productID) {
-                return product;
+        catalogLock.readLock().lock();
+        try {
+            return productStore.get(productID);
+        }
+        finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lock the stripe of a product, so admin changes of the same product run one at a time
+     * while changes of other products and all readers go on.
+     *
+     * @param productID                     The product's ID.
+     * @return                              The locked stripe, to be unlocked by the caller.
+     */
+    private ReentrantLock lockProduct(int productID) {
+        ReentrantLock productLock = productLocks[productID & (productLocks.length - 1)];
+        productLock.lock();
+        return productLock;
+    }
+
+    /**
+     * Add a product to the inventory, keeping the products ordered by ID, and to the search index.
+     *
+     * @param product                       The product to be added.
+     */
+    private void addProduct(Product product) {
+        catalogLock.writeLock().lock();
+        try {
+            productStore.add(product);
+            indexProduct(product);
+        }
+        finally {
+            catalogLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace a product with another object of the same ID, e.g. after a type change.
+     *
+     * @param oldProduct                    The product currently in the inventory.
+     * @param newProduct                    The product replacing it.
+     */
+    private void replaceProduct(Product oldProduct, Product newProduct) {
+        catalogLock.writeLock().lock();
+        try {
+            if (!productStore.replace(oldProduct, newProduct)) { // removed by another session in the meantime
+                return;
             }
+            indexProduct(newProduct);
+        }
+        finally {
+            catalogLock.writeLock().unlock();
         }
-        return null;
     }
-    
+
+    /**
+     * Remove a product from the inventory and the search index.
+     *
+     * @param product                       The product to be removed.
+     */
+    private void deleteProduct(Product product) {
+        catalogLock.writeLock().lock();
+        try {
+            if (!productStore.remove(product)) { // removed by another session in the meantime
+                return;
+            }
+            if (searchIndex != null) {
+                searchIndex.removeProduct(product.getProductId());
+            }
+        }
+        finally {
+            catalogLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Update a product in the search index, if the index has been built.
+     *
+     * @param product                       The created or edited product.
+     */
+    private void indexForSearch(Product product) {
+        catalogLock.writeLock().lock();
+        try {
+            indexProduct(product);
+        }
+        finally {
+            catalogLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Update a product in the search index, if the index has been built. The caller holds
+     * the catalog lock for writing.
+     *
+     * @param product                       The created or edited product.
+     */
+    private void indexProduct(Product product) {
+        if (searchIndex != null) {
+            searchIndex.indexProduct(product);
+        }
+    }
+
+    /**
+     * Find the products matching search keywords, building the search index on first use
+     * so startup does not pay for it.
+     *
+     * @param keywords                      The search keywords.
+     * @return                              The matched products, in ranking order.
+     */
+    private ArrayList<Product> findProducts(String keywords) {
+        catalogLock.readLock().lock();
+        try {
+            if (searchIndex != null) {
+                return getSearchResults(keywords);
+            }
+        }
+        finally {
+            catalogLock.readLock().unlock();
+        }
+
+        // only the first search builds the index, later ones share the read lock
+        catalogLock.writeLock().lock();
+        try {
+            if (searchIndex == null) {
+                searchIndex = new ProductSearchIndex();
+                productStore.forEach(searchIndex::indexProduct);
+            }
+            return getSearchResults(keywords);
+        }
+        finally {
+            catalogLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the products matching search keywords from the built search index. The caller holds
+     * the catalog lock.
+     *
+     * @param keywords                      The search keywords.
+     * @return                              The matched products, in ranking order.
+     */
+    private ArrayList<Product> getSearchResults(String keywords) {
+        int[] productIDs = searchIndex.search(keywords);
+        ArrayList<Product> resultList = new ArrayList<>(productIDs.length);
+        for (int productID : productIDs) {
+            resultList.add(productStore.get(productID));
+        }
+        return resultList;
+    }
+
+    /**
+     * Get the number of products in the inventory.
+     *
+     * @return                              The number of products.
+     */
+    public int getProductCount() {
+        catalogLock.readLock().lock();
+        try {
+            return productStore.size();
+        }
+        finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a copy of one page of the ID-ordered inventory.
+     *
+     * @param page                          The page number.
+     * @return                              The products on the page.
+     */
+    public ArrayList<Product> getInventoryPage(int page) {
+        catalogLock.readLock().lock();
+        try {
+            int startIdx = Math.min((page - 1) * Constant.PRODUCT_PAGE_SIZE, productStore.size());
+            int endIdx = Math.min(page * Constant.PRODUCT_PAGE_SIZE, productStore.size());
+            ArrayList<Product> pageList = new ArrayList<>(endIdx - startIdx);
+            for (int idx = startIdx; idx < endIdx; idx++) {
+                pageList.add(productStore.getAt(idx));
+            }
+            return pageList;
+        }
+        finally {
+            catalogLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get one page of a product list.
+     *
+     * @param products                      The product list.
+     * @param page                          The page number.
+     * @return                              A view of the products on the page.
+     */
+    private static List<Product> getPage(List<Product> products, int page) {
+        int startIdx = Math.min((page - 1) * Constant.PRODUCT_PAGE_SIZE, products.size());
+        int endIdx = Math.min(page * Constant.PRODUCT_PAGE_SIZE, products.size());
+        return products.subList(startIdx, endIdx);
+    }
+
     /**
      * Control the process of viewing the inventory.
      *
      * @return                                  A code representing the operation's result.
      */
     public int viewInventory() {
-        if (productList.isEmpty()) {
+        int productCount = getProductCount();
+        if (productCount == 0) {
              Boundary.alertEmptyInventory();
                 return Constant.CODE_BACK;
         }
 
+        // the products are kept ordered by ID, pages are sliced straight from them
+        return browseProducts(productCount, page -> Boundary.printInventory(page, this::getInventoryPage, renderedPages));
+    }
+
+    /**
+     * Control the process of searching products by keywords.
+     *
+     * @return                                  A code representing the operation's result.
+     */
+    public int searchProducts() {
+        while (true) {
+            Boundary.promptFieldInput(Constant.FIELD_SEARCH_KEYWORDS);
+            String input = Input.acceptStringInput();
+
+            if (input.equalsIgnoreCase(Constant.STRING_BACK)) {
+                return Constant.CODE_BACK;
+            }
+
+            if (input.equalsIgnoreCase(Constant.STRING_LOGOUT)) {
+                return Constant.CODE_LOGOUT;
+            }
+
+            // read before searching, so cards rendered from the results are not kept if they change meanwhile
+            long version = renderedPages.getVersion();
+            ArrayList<Product> resultList = findProducts(input);
+            if (resultList.isEmpty()) {
+                Boundary.alertNoSearchResult(input);
+                continue;
+            }
+
+            return browseProducts(resultList.size(), page -> Boundary.printSearchResults(getPage(resultList, page),
+                    renderedPages, version));
+        }
+    }
+
+    /**
+     * Control the process of paging through a product list.
+     *
+     * @param productCount                      Number of products in the list.
+     * @param pagePrinter                       Prints the given page of the list.
+     * @return                                  A code representing the operation's result.
+     */
+    private int browseProducts(int productCount, IntConsumer pagePrinter) {
         int currentPage = 1;
-        int totalPages = (int) Math.ceil((double) (productList.size()) / Constant.PRODUCT_PAGE_SIZE);
+        int totalPages = (int) Math.ceil((double) productCount / Constant.PRODUCT_PAGE_SIZE);
 
-        productList.sort(Comparator.comparing(Product::getProductId));
-        Boundary.printInventory(productList, currentPage);
+        pagePrinter.accept(currentPage);
         Boundary.printInventoryMenu(currentPage, totalPages);
 
         while (true) {
@@ -237,7 +735,7 @@ public class InventoryControl {
             switch (input) {
                 case ">" -> {
                     if (currentPage < totalPages) {
-                        Boundary.printInventory(productList, ++currentPage);
+                        pagePrinter.accept(++currentPage);
                         Boundary.printInventoryMenu(currentPage, totalPages);
                     } else {
                         Boundary.alertLastPage();
@@ -245,7 +743,7 @@ public class InventoryControl {
                 }
                 case "<" -> {
                     if (currentPage > 1) {
-                        Boundary.printInventory(productList, --currentPage);
+                        pagePrinter.accept(--currentPage);
                         Boundary.printInventoryMenu(currentPage, totalPages);
                     } else {
                         Boundary.alertFirstPage();
@@ -263,6 +761,394 @@ public class InventoryControl {
 
     }
     
+    /**
+     * Check whether a price is within the allowed range.
+     *
+     * @param price                             The price in cents.
+     * @return                                  A boolean, true if the price is valid.
+     */
+    private static boolean isPriceValid(long price) {
+        return price > 0 && price < Constant.PRODUCT_PRICE_LIMIT;
+    }
+
+    /**
+     * Check whether a member price is within the allowed range and not above the price.
+     *
+     * @param memberPrice                       The member price in cents.
+     * @param price                             The price in cents.
+     * @return                                  A boolean, true if the member price is valid.
+     */
+    private static boolean isMemberPriceValid(long memberPrice, long price) {
+        return isPriceValid(memberPrice) && memberPrice <= price;
+    }
+
+    /**
+     * Check whether a text value can be stored, a line break would split the product's record.
+     *
+     * @param value                             The text value.
+     * @return                                  A boolean, true if the value is valid.
+     */
+    private static boolean isTextValid(String value) {
+        return value != null && value.indexOf('\n') < 0 && value.indexOf('\r') < 0;
+    }
+
+    /**
+     * Check whether products of a category are food products.
+     *
+     * @param category                          The category.
+     * @return                                  A boolean, true for the food and beverage categories.
+     */
+    private static boolean isFoodCategory(String category) {
+        return category.equalsIgnoreCase(Constant.CATEGORY_FOOD) ||
+                category.equalsIgnoreCase(Constant.CATEGORY_BEVERAGE);
+    }
+
+    /**
+     * Get a text value to be stored, or the placeholder of a value that is not specified.
+     *
+     * @param value                             The text value, may be empty or null.
+     * @return                                  The value to be stored.
+     */
+    private static String formatOptionalValue(String value) {
+        return Util.formatEmptyAbleValue(value == null ? "" : value);
+    }
+
+    /**
+     * Find the first field of a product specification whose value is missing or invalid.
+     *
+     * @param spec                              The product specification.
+     * @return                                  The field's name, null if the specification is valid.
+     */
+    public String findInvalidField(ProductSpec spec) {
+        if (spec.getCategory() == null || !isCategoryValid(spec.getCategory())) {
+            return Constant.FIELD_PRODUCT_CATEGORY;
+        }
+        String category = getValidCategory(spec.getCategory());
+        if (spec.getSubcategory() == null || !isSubcategoryValid(category, spec.getSubcategory())) {
+            return Constant.FIELD_PRODUCT_SUBCATEGORY;
+        }
+        if (!isTextValid(spec.getName()) || spec.getName().isEmpty()) {
+            return Constant.FIELD_PRODUCT_NAME;
+        }
+        if (spec.getBrand() != null && !isTextValid(spec.getBrand())) {
+            return Constant.FIELD_PRODUCT_BRAND;
+        }
+        if (spec.getDescription() != null && !isTextValid(spec.getDescription())) {
+            return Constant.FIELD_PRODUCT_DESC;
+        }
+        if (!isPriceValid(spec.getPrice())) {
+            return Constant.FIELD_PRODUCT_PRICE;
+        }
+        if (!isMemberPriceValid(spec.getMemberPrice(), spec.getPrice())) {
+            return Constant.FIELD_PRODUCT_MEMBER_PRICE;
+        }
+        if (spec.getQuantity() < 0) {
+            return Constant.FIELD_PRODUCT_QUANTITY;
+        }
+        if (isFoodCategory(category)) {
+            if (spec.getExpiryDate() == null) {
+                return Constant.FIELD_PRODUCT_EXPIRY;
+            }
+            if (spec.getIngredients() != null && !isTextValid(spec.getIngredients())) {
+                return Constant.FIELD_PRODUCT_INGREDIENT;
+            }
+            if (spec.getStorageInstructions() != null && !isTextValid(spec.getStorageInstructions())) {
+                return Constant.FIELD_PRODUCT_STORAGE;
+            }
+            if (spec.getAllergenInfo() != null && !isTextValid(spec.getAllergenInfo())) {
+                return Constant.FIELD_PRODUCT_ALLERGEN;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create a product without any prompt.
+     *
+     * @param spec                              The product specification.
+     * @return                                  The created product, null if a field is invalid, see findInvalidField.
+     */
+    public Product createProduct(ProductSpec spec) {
+        if (findInvalidField(spec) != null) {
+            return null;
+        }
+        Product product = buildProduct(spec);
+        addNewProduct(product);
+        return product;
+    }
+
+    /**
+     * Build a product from a valid specification, giving it the next product ID.
+     *
+     * @param spec                              The product specification.
+     * @return                                  A FoodProduct for the food and beverage categories, otherwise a Product.
+     */
+    private Product buildProduct(ProductSpec spec) {
+        String category = getValidCategory(spec.getCategory());
+        String subcategory = getValidSubcategory(category, spec.getSubcategory());
+        String brand = formatOptionalValue(spec.getBrand());
+        String description = formatOptionalValue(spec.getDescription());
+
+        if (isFoodCategory(category)) {
+            return new FoodProduct(spec.getName(), brand, description, spec.getPrice(), spec.getMemberPrice(),
+                    spec.getQuantity(), category, subcategory, spec.getExpiryDate(),
+                    formatOptionalValue(spec.getIngredients()), formatOptionalValue(spec.getStorageInstructions()),
+                    formatOptionalValue(spec.getAllergenInfo()));
+        }
+        return new Product(spec.getName(), brand, description, spec.getPrice(), spec.getMemberPrice(),
+                spec.getQuantity(), category, subcategory);
+    }
+
+    /**
+     * Add a newly built product to the inventory and persist it.
+     *
+     * @param product                           The new product.
+     */
+    private void addNewProduct(Product product) {
+        addProduct(product);
+        persistProduct(product);
+    }
+
+    /**
+     * Update one field of a product without any prompt. The value is given and checked as it
+     * would be typed in the console, e.g. "12.50" for a price and "2025 6 30" for an expiry date.
+     * The category is changed with changeCategory, and both prices at once with updatePrices.
+     *
+     * @param productID                         The product's ID.
+     * @param field                             The field's name, one of the product field names in Constant.
+     * @param value                             The new value.
+     * @return                                  A code representing the operation's result.
+     */
+    public int updateField(int productID, String field, String value) {
+        ReentrantLock productLock = lockProduct(productID);
+        try {
+            Product product = getProductByID(productID);
+            if (product == null) {
+                return Constant.OPERATION_NOT_FOUND;
+            }
+            if (!isTextValid(value)) {
+                return Constant.OPERATION_INVALID_VALUE;
+            }
+
+            switch (field) {
+                case Constant.FIELD_PRODUCT_SUBCATEGORY -> {
+                    String subcategory = value.isEmpty() ? null : getValidSubcategory(product.getCategory(), value);
+                    if (subcategory == null) {
+                        return Constant.OPERATION_INVALID_VALUE;
+                    }
+                    product.setSubcategory(subcategory);
+                    persistProduct(product);
+                }
+                case Constant.FIELD_PRODUCT_NAME -> {
+                    if (value.isEmpty()) {
+                        return Constant.OPERATION_INVALID_VALUE;
+                    }
+                    product.setName(value);
+                    indexForSearch(product);
+                    persistProduct(product);
+                }
+                case Constant.FIELD_PRODUCT_BRAND -> {
+                    product.setBrand(Util.formatEmptyAbleValue(value));
+                    indexForSearch(product);
+                    persistProduct(product);
+                }
+                case Constant.FIELD_PRODUCT_DESC -> {
+                    product.setDescription(Util.formatEmptyAbleValue(value));
+                    indexForSearch(product);
+                    persistProduct(product);
+                }
+                case Constant.FIELD_PRODUCT_PRICE -> {
+                    if (!Money.isMoney(value)) {
+                        return Constant.OPERATION_INVALID_VALUE;
+                    }
+                    return updatePrices(productID, Money.parse(value), product.getMemberPrice());
+                }
+                case Constant.FIELD_PRODUCT_MEMBER_PRICE -> {
+                    if (!Money.isMoney(value)) {
+                        return Constant.OPERATION_INVALID_VALUE;
+                    }
+                    return updatePrices(productID, product.getPrice(), Money.parse(value));
+                }
+                case Constant.FIELD_PRODUCT_QUANTITY -> {
+                    if (!Util.isInteger(value) || Integer.parseInt(value) < 0) {
+                        return Constant.OPERATION_INVALID_VALUE;
+                    }
+                    product.setQuantity(Integer.parseInt(value));
+                    persistHotFields(product);
+                }
+                case Constant.FIELD_PRODUCT_EXPIRY -> {
+                    if (!product.isFoodProduct() || !Util.isValidDateString(value)) {
+                        return Constant.OPERATION_INVALID_VALUE;
+                    }
+                    ((FoodProduct) product).setExpirationDate(Util.getDateFromString(value));
+                    persistProduct(product);
+                }
+                case Constant.FIELD_PRODUCT_INGREDIENT -> {
+                    if (!product.isFoodProduct()) {
+                        return Constant.OPERATION_INVALID_VALUE;
+                    }
+                    ((FoodProduct) product).setIngredients(Util.formatEmptyAbleValue(value));
+                    indexForSearch(product);
+                    persistProduct(product);
+                }
+                case Constant.FIELD_PRODUCT_STORAGE -> {
+                    if (!product.isFoodProduct()) {
+                        return Constant.OPERATION_INVALID_VALUE;
+                    }
+                    ((FoodProduct) product).setStorageInstructions(Util.formatEmptyAbleValue(value));
+                    persistProduct(product);
+                }
+                case Constant.FIELD_PRODUCT_ALLERGEN -> {
+                    if (!product.isFoodProduct()) {
+                        return Constant.OPERATION_INVALID_VALUE;
+                    }
+                    ((FoodProduct) product).setAllergenInfo(Util.formatEmptyAbleValue(value));
+                    persistProduct(product);
+                }
+                default -> {
+                    return Constant.OPERATION_INVALID_VALUE;
+                }
+            }
+            return Constant.OPERATION_SUCCESS;
+        }
+        finally {
+            productLock.unlock();
+        }
+    }
+
+    /**
+     * Update the price and the member price of a product together without any prompt.
+     *
+     * @param productID                         The product's ID.
+     * @param price                             The new price in cents.
+     * @param memberPrice                       The new member price in cents, not above the price.
+     * @return                                  A code representing the operation's result.
+     */
+    public int updatePrices(int productID, long price, long memberPrice) {
+        ReentrantLock productLock = lockProduct(productID);
+        try {
+            Product product = getProductByID(productID);
+            if (product == null) {
+                return Constant.OPERATION_NOT_FOUND;
+            }
+            if (!isPriceValid(price) || !isMemberPriceValid(memberPrice, price)) {
+                return Constant.OPERATION_INVALID_VALUE;
+            }
+            product.setPrice(price);
+            product.setMemberPrice(memberPrice);
+            persistHotFields(product);
+            return Constant.OPERATION_SUCCESS;
+        }
+        finally {
+            productLock.unlock();
+        }
+    }
+
+    /**
+     * Change the category and subcategory of a product without any prompt. A non-food product
+     * moved into the food or beverage category needs an expiry date, and a food product moved
+     * out of them loses its food details.
+     *
+     * @param productID                         The product's ID.
+     * @param category                          The new category, in any case.
+     * @param subcategory                       The new subcategory, in any case.
+     * @param expiryDate                        The expiry date, only used when the product becomes a food product.
+     * @param ingredients                       The ingredients, only used when the product becomes a food product.
+     * @param storageInstructions               The storage instructions, only used when the product becomes a food product.
+     * @param allergenInfo                      The allergen info, only used when the product becomes a food product.
+     * @return                                  A code representing the operation's result.
+     */
+    public int changeCategory(int productID, String category, String subcategory, LocalDate expiryDate,
+                                           String ingredients, String storageInstructions, String allergenInfo) {
+        ReentrantLock productLock = lockProduct(productID);
+        try {
+            Product product = getProductByID(productID);
+            if (product == null) {
+                return Constant.OPERATION_NOT_FOUND;
+            }
+            if (category == null || subcategory == null || !isCategoryValid(category)
+                    || !isSubcategoryValid(category, subcategory)) {
+                return Constant.OPERATION_INVALID_VALUE;
+            }
+            String newCategory = getValidCategory(category);
+            String newSubcategory = getValidSubcategory(newCategory, subcategory);
+            boolean isFoodProduct = isFoodCategory(newCategory);
+
+            if (isFoodProduct && !product.isFoodProduct()) { // change a non-food to food
+                if (expiryDate == null || (ingredients != null && !isTextValid(ingredients))
+                        || (storageInstructions != null && !isTextValid(storageInstructions))
+                        || (allergenInfo != null && !isTextValid(allergenInfo))) {
+                    return Constant.OPERATION_INVALID_VALUE;
+                }
+                FoodProduct newProduct = new FoodProduct(product, newCategory, newSubcategory, expiryDate,
+                        formatOptionalValue(ingredients), formatOptionalValue(storageInstructions),
+                        formatOptionalValue(allergenInfo));
+                replaceProduct(product, newProduct);
+                product = newProduct;
+            }
+            else if (!isFoodProduct && product.isFoodProduct()) { // change a food into non-food
+                Product newProduct = new Product((FoodProduct) product, newCategory, newSubcategory);
+                replaceProduct(product, newProduct);
+                product = newProduct;
+            }
+            else {
+                product.setCategory(newCategory);
+                product.setSubcategory(newSubcategory);
+            }
+            persistProduct(product);
+            return Constant.OPERATION_SUCCESS;
+        }
+        finally {
+            productLock.unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the inventory without any prompt.
+     *
+     * @param productID                         The product's ID.
+     * @return                                  A code representing the operation's result.
+     */
+    public int removeProduct(int productID) {
+        ReentrantLock productLock = lockProduct(productID);
+        try {
+            Product product = getProductByID(productID);
+            if (product == null) {
+                return Constant.OPERATION_NOT_FOUND;
+            }
+            deleteProduct(product);
+            persistRemoval(product);
+            return Constant.OPERATION_SUCCESS;
+        }
+        finally {
+            productLock.unlock();
+        }
+    }
+
+    /**
+     * Print the result of a confirmed product update.
+     *
+     * @param result                            The update's result code.
+     * @param productID                         The product's ID.
+     * @param field                             The updated field's name.
+     * @return                                  A boolean, false if the product has been removed in the meantime.
+     */
+    private static boolean printUpdateResult(int result, int productID, String field) {
+        switch (result) {
+            case Constant.OPERATION_SUCCESS -> {
+                Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+            }
+            case Constant.OPERATION_NOT_FOUND -> {
+                Boundary.alertProductNotExist(productID);
+                return false;
+            }
+            default -> {
+                Boundary.alertInvalidValue(field);
+            }
+        }
+        return true;
+    }
+
     /**
      * Control the process of creating a new product.
      *
@@ -276,8 +1162,8 @@ public class InventoryControl {
         String name = null;
         String brand;
         String description;
-        double price = 0.0;
-        double memberPrice = 0.0;
+        long price = 0;
+        long memberPrice = 0;
         int quantity = 0;
         LocalDate expiryDate = null;
         String ingredient = null;
@@ -285,7 +1171,7 @@ public class InventoryControl {
         String allergen = null;
 
         //category
-        Boundary.printAvailableCategories(categoryList);
+        Boundary.printAvailableCategories(categories.getCategoryList());
         boolean valid = false;
         while (!valid) {
             Boundary.promptFieldInput(Constant.FIELD_PRODUCT_CATEGORY);
@@ -309,7 +1195,7 @@ public class InventoryControl {
         }
 
         //subcategory
-        Boundary.printAvailableSubcategories(categoryList, category);
+        Boundary.printAvailableSubcategories(categories.getSubcategories(category));
         valid = false;
         while (!valid) {
             Boundary.promptFieldInput(Constant.FIELD_PRODUCT_SUBCATEGORY);
@@ -388,11 +1274,11 @@ public class InventoryControl {
             if (input.equalsIgnoreCase(Constant.STRING_BACK)) {
                 return Constant.CODE_BACK;
             }
-            if (!Util.isDouble(input)) {
+            if (!Money.isMoney(input)) {
                 Boundary.alertUnformattedInput(Constant.FIELD_PRODUCT_PRICE);
             } else {
-                price = Double.parseDouble(input);
-                if (price <= 0 || price >= Constant.PRODUCT_PRICE_LIMIT) {
+                price = Money.parse(input);
+                if (!isPriceValid(price)) {
                     Boundary.alertInvalidValue(Constant.FIELD_PRODUCT_PRICE);
                 } else {
                     valid = true;
@@ -412,13 +1298,11 @@ public class InventoryControl {
             if (input.equalsIgnoreCase(Constant.STRING_BACK)) {
                 return Constant.CODE_BACK;
             }
-            if (!Util.isDouble(input)) {
+            if (!Money.isMoney(input)) {
                 Boundary.alertUnformattedInput(Constant.FIELD_PRODUCT_MEMBER_PRICE);
             } else {
-                memberPrice = Double.parseDouble(input);
-                if (memberPrice <= 0 || memberPrice >= Constant.PRODUCT_PRICE_LIMIT) {
-                    Boundary.alertInvalidValue(Constant.FIELD_PRODUCT_MEMBER_PRICE);
-                } else if (memberPrice > price) {
+                memberPrice = Money.parse(input);
+                if (!isMemberPriceValid(memberPrice, price)) {
                     Boundary.alertInvalidValue(Constant.FIELD_PRODUCT_MEMBER_PRICE);
                 } else {
                     valid = true;
@@ -451,8 +1335,7 @@ public class InventoryControl {
         }
 
 
-        boolean isFoodProduct = category.equalsIgnoreCase(Constant.CATEGORY_FOOD) ||
-                category.equalsIgnoreCase(Constant.CATEGORY_BEVERAGE);
+        boolean isFoodProduct = isFoodCategory(category);
 
 
         if (isFoodProduct) {
@@ -513,11 +1396,13 @@ public class InventoryControl {
             allergen = Util.formatEmptyAbleValue(input);
         }
 
-        Product newProduct = (isFoodProduct) ?
-                new FoodProduct(name, brand, description, price, memberPrice,
-                        quantity, category, subcategory, expiryDate, ingredient, storage, allergen) :
-                new Product(name, brand, description, price, memberPrice,
-                        quantity, category, subcategory);
+        ProductSpec spec = new ProductSpec(category, subcategory, name, brand, description,
+                price, memberPrice, quantity);
+        if (isFoodProduct) {
+            spec.setFoodDetails(expiryDate, ingredient, storage, allergen);
+        }
+        // built before the confirmation, so the overview shows the new product's ID
+        Product newProduct = buildProduct(spec);
 
 
         Boundary.printOverViewOfProduct(newProduct, Constant.OP_TYPE_CREATE_PRODUCT);
@@ -544,9 +1429,7 @@ public class InventoryControl {
             }
         }
 
-        productList.add(newProduct);
-        productList.sort(Comparator.comparing(Product::getProductId));
-        updateInventoryFile();
+        addNewProduct(newProduct);
         return Constant.OPERATION_SUCCESS;
     }
     
@@ -610,7 +1493,7 @@ public class InventoryControl {
                     String newCategory = null;
                     String newSubcategory = null;
 
-                    Boundary.printAvailableCategories(categoryList);
+                    Boundary.printAvailableCategories(categories.getCategoryList());
                     boolean back = false;
                     valid = false;
                     while (!valid) {
@@ -639,7 +1522,7 @@ public class InventoryControl {
                     if (back) break;
 
                     //subcategory
-                    Boundary.printAvailableSubcategories(categoryList, newCategory);
+                    Boundary.printAvailableSubcategories(categories.getSubcategories(newCategory));
                     back = false;
                     valid = false;
                     while (!valid) {
@@ -667,8 +1550,7 @@ public class InventoryControl {
 
                     if (back) break;
 
-                    boolean isFoodProduct = newCategory.equalsIgnoreCase(Constant.CATEGORY_FOOD) ||
-                            newCategory.equalsIgnoreCase(Constant.CATEGORY_BEVERAGE);
+                    boolean isFoodProduct = isFoodCategory(newCategory);
 
                     LocalDate expiryDate = null;
                     String ingredient = null;
@@ -762,35 +1644,28 @@ public class InventoryControl {
                         }
                         if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                             valid = true;
-                            if (isFoodProduct && !product.isFoodProduct()) { // change a non-food to food
-                                FoodProduct newProduct = new FoodProduct(product, newCategory, newSubcategory,
-                                        expiryDate, ingredient, storage, allergen);
-                                productList.remove(product);
-                                productList.add(newProduct);
-
-                                product = newProduct;
+                            int productID = product.getProductId();
+                            int result = changeCategory(productID, newCategory, newSubcategory,
+                                    expiryDate, ingredient, storage, allergen);
+                            if (!printUpdateResult(result, productID, Constant.FIELD_PRODUCT_CATEGORY)) {
+                                return Constant.CODE_BACK;
                             }
-                            else if (!isFoodProduct && product.isFoodProduct()) { // change a food into non-food
-                                Product newProduct = new Product((FoodProduct)product, newCategory, newSubcategory);
-                                productList.remove(product);
-                                productList.add(newProduct);
-
-                                product = newProduct;
+                            if (result == Constant.OPERATION_SUCCESS) {
+                                // a change between food and non-food replaces the product object
+                                product = getProductByID(productID);
+                                if (product == null) { // removed by another session in the meantime
+                                    Boundary.alertProductNotExist(productID);
+                                    return Constant.CODE_BACK;
+                                }
                             }
-                            else {
-                                product.setCategory(newCategory);
-                                product.setSubcategory(newSubcategory);
-                            }
-                            updateInventoryFile();
                         } else {
                             Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                         }
                     }
-                    Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
                 }
                 case "2" -> {//subcategory
                     String newSubcategory = null;
-                    Boundary.printAvailableSubcategories(categoryList, product.getCategory());
+                    Boundary.printAvailableSubcategories(categories.getSubcategories(product.getCategory()));
                     boolean back = false;
                     valid = false;
                     while (!valid) {
@@ -833,9 +1708,10 @@ public class InventoryControl {
                         }
                         if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                             valid = true;
-                            product.setSubcategory(newSubcategory);
-                            updateInventoryFile();
-                            Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+                            int result = updateField(product.getProductId(), Constant.FIELD_PRODUCT_SUBCATEGORY, newSubcategory);
+                            if (!printUpdateResult(result, product.getProductId(), Constant.FIELD_PRODUCT_SUBCATEGORY)) {
+                                return Constant.CODE_BACK;
+                            }
                         } else {
                             Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                         }
@@ -882,9 +1758,10 @@ public class InventoryControl {
                         }
                         if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                             valid = true;
-                            product.setName(newName);
-                            updateInventoryFile();
-                            Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+                            int result = updateField(product.getProductId(), Constant.FIELD_PRODUCT_NAME, newName);
+                            if (!printUpdateResult(result, product.getProductId(), Constant.FIELD_PRODUCT_NAME)) {
+                                return Constant.CODE_BACK;
+                            }
                         } else {
                             Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                         }
@@ -919,9 +1796,10 @@ public class InventoryControl {
                         }
                         if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                             valid = true;
-                            product.setBrand(newBand);
-                            updateInventoryFile();
-                            Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+                            int result = updateField(product.getProductId(), Constant.FIELD_PRODUCT_BRAND, newBand);
+                            if (!printUpdateResult(result, product.getProductId(), Constant.FIELD_PRODUCT_BRAND)) {
+                                return Constant.CODE_BACK;
+                            }
                         } else {
                             Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                         }
@@ -956,17 +1834,18 @@ public class InventoryControl {
                         }
                         if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                             valid = true;
-                            product.setDescription(newDesc);
-                            updateInventoryFile();
-                            Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+                            int result = updateField(product.getProductId(), Constant.FIELD_PRODUCT_DESC, newDesc);
+                            if (!printUpdateResult(result, product.getProductId(), Constant.FIELD_PRODUCT_DESC)) {
+                                return Constant.CODE_BACK;
+                            }
                         } else {
                             Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                         }
                     }
                 }
                 case "6" -> {//price
-                    double newPrice = 0.0;
-                    double newMemberPrice = 0.0;
+                    long newPrice = 0;
+                    long newMemberPrice = 0;
                     boolean back = false;
                     valid = false;
                     while (!valid) {
@@ -981,11 +1860,11 @@ public class InventoryControl {
                             back = true;
                             break;
                         }
-                        if (!Util.isDouble(input)) {
+                        if (!Money.isMoney(input)) {
                             Boundary.alertUnformattedInput(Constant.FIELD_PRODUCT_PRICE);
                         } else {
-                            newPrice = Double.parseDouble(input);
-                            if (newPrice <= 0 || newPrice >= Constant.PRODUCT_PRICE_LIMIT) {
+                            newPrice = Money.parse(input);
+                            if (!isPriceValid(newPrice)) {
                                 Boundary.alertInvalidValue(Constant.FIELD_PRODUCT_PRICE);
                             } else {
                                 valid = true;
@@ -1009,13 +1888,11 @@ public class InventoryControl {
                             back = true;
                             break;
                         }
-                        if (!Util.isDouble(input)) {
+                        if (!Money.isMoney(input)) {
                             Boundary.alertUnformattedInput(Constant.FIELD_PRODUCT_MEMBER_PRICE);
                         } else {
-                            newMemberPrice = Double.parseDouble(input);
-                            if (newMemberPrice <= 0 || newMemberPrice >= Constant.PRODUCT_PRICE_LIMIT) {
-                                Boundary.alertInvalidValue(Constant.FIELD_PRODUCT_MEMBER_PRICE);
-                            } else if (newMemberPrice > newPrice) {
+                            newMemberPrice = Money.parse(input);
+                            if (!isMemberPriceValid(newMemberPrice, newPrice)) {
                                 Boundary.alertInvalidValue(Constant.FIELD_PRODUCT_MEMBER_PRICE);
                             } else {
                                 valid = true;
@@ -1040,17 +1917,17 @@ public class InventoryControl {
                         }
                         if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                             valid = true;
-                            product.setPrice(newPrice);
-                            product.setMemberPrice(newMemberPrice);
-                            updateInventoryFile();
-                            Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+                            int result = updatePrices(product.getProductId(), newPrice, newMemberPrice);
+                            if (!printUpdateResult(result, product.getProductId(), Constant.FIELD_PRODUCT_PRICE)) {
+                                return Constant.CODE_BACK;
+                            }
                         } else {
                             Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                         }
                     }
                 }
                 case "7" -> {//member price
-                    double newMemberPrice = 0.0;
+                    long newMemberPrice = 0;
                     boolean back = false;
                     valid = false;
                     while (!valid) {
@@ -1065,13 +1942,11 @@ public class InventoryControl {
                             back = true;
                             break;
                         }
-                        if (!Util.isDouble(input)) {
+                        if (!Money.isMoney(input)) {
                             Boundary.alertUnformattedInput(Constant.FIELD_PRODUCT_MEMBER_PRICE);
                         } else {
-                            newMemberPrice = Double.parseDouble(input);
-                            if (newMemberPrice <= 0 || newMemberPrice >= Constant.PRODUCT_PRICE_LIMIT) {
-                                Boundary.alertInvalidValue(Constant.FIELD_PRODUCT_MEMBER_PRICE);
-                            } else if (newMemberPrice > product.getPrice()) {
+                            newMemberPrice = Money.parse(input);
+                            if (!isMemberPriceValid(newMemberPrice, product.getPrice())) {
                                 Boundary.alertInvalidValue(Constant.FIELD_PRODUCT_MEMBER_PRICE);
                             } else {
                                 valid = true;
@@ -1096,9 +1971,10 @@ public class InventoryControl {
                         }
                         if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                             valid = true;
-                            product.setMemberPrice(newMemberPrice);
-                            updateInventoryFile();
-                            Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+                            int result = updatePrices(product.getProductId(), product.getPrice(), newMemberPrice);
+                            if (!printUpdateResult(result, product.getProductId(), Constant.FIELD_PRODUCT_MEMBER_PRICE)) {
+                                return Constant.CODE_BACK;
+                            }
                         } else {
                             Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                         }
@@ -1149,9 +2025,11 @@ public class InventoryControl {
                         }
                         if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                             valid = true;
-                            product.setQuantity(newQuantity);
-                            updateInventoryFile();
-                            Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+                            int result = updateField(product.getProductId(), Constant.FIELD_PRODUCT_QUANTITY,
+                                    String.valueOf(newQuantity));
+                            if (!printUpdateResult(result, product.getProductId(), Constant.FIELD_PRODUCT_QUANTITY)) {
+                                return Constant.CODE_BACK;
+                            }
                         } else {
                             Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                         }
@@ -1160,7 +2038,7 @@ public class InventoryControl {
 
                 case "9" -> {//expiry date
                     if (product.isFoodProduct()) {
-                        LocalDate newExpiryDate = null;
+                        String newExpiryDate = null;
                         valid = false;
                         boolean back = false;
                         while (!valid) {
@@ -1179,7 +2057,7 @@ public class InventoryControl {
                                 Boundary.alertUnformattedInput(Constant.FIELD_PRODUCT_EXPIRY);
                             } else {
                                 valid = true;
-                                newExpiryDate = Util.getDateFromString(input);
+                                newExpiryDate = input;
                             }
                         }
 
@@ -1200,9 +2078,10 @@ public class InventoryControl {
                             }
                             if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                                 valid = true;
-                                ((FoodProduct)product).setExpirationDate(newExpiryDate);
-                                updateInventoryFile();
-                                Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+                                int result = updateField(product.getProductId(), Constant.FIELD_PRODUCT_EXPIRY, newExpiryDate);
+                                if (!printUpdateResult(result, product.getProductId(), Constant.FIELD_PRODUCT_EXPIRY)) {
+                                    return Constant.CODE_BACK;
+                                }
                             } else {
                                 Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                             }
@@ -1244,9 +2123,11 @@ public class InventoryControl {
                             }
                             if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                                 valid = true;
-                                ((FoodProduct)product).setIngredients(newIngredients);
-                                updateInventoryFile();
-                                Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+                                int result = updateField(product.getProductId(), Constant.FIELD_PRODUCT_INGREDIENT,
+                                        newIngredients);
+                                if (!printUpdateResult(result, product.getProductId(), Constant.FIELD_PRODUCT_INGREDIENT)) {
+                                    return Constant.CODE_BACK;
+                                }
                             } else {
                                 Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                             }
@@ -1286,9 +2167,10 @@ public class InventoryControl {
                             }
                             if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                                 valid = true;
-                                ((FoodProduct)product).setStorageInstructions(newStorage);
-                                updateInventoryFile();
-                                Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+                                int result = updateField(product.getProductId(), Constant.FIELD_PRODUCT_STORAGE, newStorage);
+                                if (!printUpdateResult(result, product.getProductId(), Constant.FIELD_PRODUCT_STORAGE)) {
+                                    return Constant.CODE_BACK;
+                                }
                             } else {
                                 Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                             }
@@ -1328,9 +2210,10 @@ public class InventoryControl {
                             }
                             if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
                                 valid = true;
-                                ((FoodProduct)product).setAllergenInfo(allergen);
-                                updateInventoryFile();
-                                Boundary.printOperationSuccess(Constant.OP_TYPE_UPDATE_PRODUCT);
+                                int result = updateField(product.getProductId(), Constant.FIELD_PRODUCT_ALLERGEN, allergen);
+                                if (!printUpdateResult(result, product.getProductId(), Constant.FIELD_PRODUCT_ALLERGEN)) {
+                                    return Constant.CODE_BACK;
+                                }
                             } else {
                                 Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                             }
@@ -1410,23 +2293,86 @@ public class InventoryControl {
             }
         }
 
-        productList.remove(product);
-        updateInventoryFile();
+        if (removeProduct(product.getProductId()) == Constant.OPERATION_NOT_FOUND) {
+            // removed by another session in the meantime
+            Boundary.alertProductNotExist(product.getProductId());
+            return Constant.CODE_BACK;
+        }
         return Constant.OPERATION_SUCCESS;
 
     }
 
     /**
      * update the products quantity and update the product file after checking out.
+     * The quantities reserved by the cart are sold all together, or none of them are.
+     *
+     * @param itemList                         An Arraylist of Item that has been bought.
+     * @return                                 A boolean, false if some stock has been cut below the reserved quantity.
+     */
+    public boolean updateQuantityAfterCheckout(ArrayList<Item> itemList) {
+        // lock-free, checkouts of different products never wait for each other here
+        for (int idx = 0; idx < itemList.size(); idx++) {
+            Item item = itemList.get(idx);
+            if (!item.getProduct().commitStock(item.getQuantity())) {
+                for (int sold = 0; sold < idx; sold++) {
+                    itemList.get(sold).getProduct().revertStock(itemList.get(sold).getQuantity());
+                }
+                return false;
+            }
+        }
+        persistCheckout(itemList);
+        return true;
+    }
+
+    /**
+     * Persist the products sold in a checkout, rewriting only their slots when the hot
+     * field file is enabled.
      *
      * @param itemList                         An Arraylist of Item that has been bought.
      */
-    public void updateQuantityAfterCheckout(ArrayList<Item> itemList) {
-        for (Item item : itemList) {
-            Product product = item.getProduct();
-            product.setQuantity(product.getQuantity() - item.getQuantity());
+    private void persistCheckout(ArrayList<Item> itemList) {
+        List<Product> soldProducts = new ArrayList<>(itemList.size());
+        catalogLock.writeLock().lock();
+        try {
+            for (Item item : itemList) {
+                // a cart may hold a product object which has since changed type or been removed
+                Product product = productStore.get(item.getProduct().getProductId());
+                if (product != null) {
+                    productStore.update(product);
+                    soldProducts.add(product);
+                }
+            }
+        }
+        finally {
+            catalogLock.writeLock().unlock();
+        }
+        for (Product product : soldProducts) {
+            renderedPages.productChanged(product.getProductId());
+        }
+
+        fileLock.lock();
+        try {
+            if (Constant.HOT_FIELD_FILE_ENABLED) {
+                hotFields.write(soldProducts);
+                return;
+            }
+            // written while holding the file lock, so a record never overtakes a newer one of the same product
+            StringBuilder records = new StringBuilder();
+            for (Product product : soldProducts) {
+                records.append(Constant.JOURNAL_OP_UPDATE).append(Constant.STRING_FIELD_DELIMITER)
+                        .append(product).append("\n");
+            }
+            int count = soldProducts.size();
+            if (!Constant.INVENTORY_JOURNAL_ENABLED) {
+                updateInventoryFile();
+            }
+            else if (count > 0) {
+                appendToJournal(records.toString(), count);
+            }
+        }
+        finally {
+            fileLock.unlock();
         }
-        updateInventoryFile();
     }
 
 }
@@ -57,18 +57,18 @@ public class Item {
     /**
      * Calculate subtotal price of the products contained in this cart item.
      *
-     * @return                     The subtotal price of the products contained in this cart item.
+     * @return                     The subtotal price in cents of the products contained in this cart item.
      */
-    public double getTotalPrice(){
+    public long getTotalPrice(){
         return product.getPrice() * quantity;
     }
 
     /**
      * Calculate subtotal member price of the products contained in this cart item.
      *
-     * @return                     The subtotal member price of the products contained in this cart item.
+     * @return                     The subtotal member price in cents of the products contained in this cart item.
      */
-    public double getTotalMemberPrice(){
+    public long getTotalMemberPrice(){
         return product.getMemberPrice() * quantity;
     }
 }
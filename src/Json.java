@@ -0,0 +1,300 @@
+import java.util.HashMap;
+
+/**
+ * Class which writes and reads the JSON text of the HTTP front end. Responses are written
+ * straight into a StringBuilder, and request bodies are flat objects whose values are read
+ * as text, so no JSON library is needed.
+ *
+ * @version ver1.0.0
+ */
+public class Json {
+
+    /**
+     * Default constructor of Json class.
+     */
+    private Json() {
+
+    }
+
+    /**
+     * Append a string as a JSON string literal.
+     *
+     * @param json                      The JSON text being written.
+     * @param value                     The string, null for a JSON null.
+     * @return                          The JSON text being written.
+     */
+    public static StringBuilder appendString(StringBuilder json, String value) {
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"');
+    }
+
+    /**
+     * Append a member name and its string value to an object.
+     *
+     * @param json                      The JSON text being written.
+     * @param name                      The member's name.
+     * @param value                     The member's value, may be null.
+     * @return                          The JSON text being written.
+     */
+    public static StringBuilder appendMember(StringBuilder json, String name, String value) {
+        return appendString(appendName(json, name), value);
+    }
+
+    /**
+     * Append a member name and its number value to an object.
+     *
+     * @param json                      The JSON text being written.
+     * @param name                      The member's name.
+     * @param value                     The member's value.
+     * @return                          The JSON text being written.
+     */
+    public static StringBuilder appendMember(StringBuilder json, String name, long value) {
+        return appendName(json, name).append(value);
+    }
+
+    /**
+     * Append a member name and its boolean value to an object.
+     *
+     * @param json                      The JSON text being written.
+     * @param name                      The member's name.
+     * @param value                     The member's value.
+     * @return                          The JSON text being written.
+     */
+    public static StringBuilder appendMember(StringBuilder json, String name, boolean value) {
+        return appendName(json, name).append(value);
+    }
+
+    /**
+     * Append a member name and an amount of money as a decimal number to an object.
+     *
+     * @param json                      The JSON text being written.
+     * @param name                      The member's name.
+     * @param cents                     The amount in cents.
+     * @return                          The JSON text being written.
+     */
+    public static StringBuilder appendMoney(StringBuilder json, String name, long cents) {
+        return appendName(json, name).append(Money.toPlainString(cents));
+    }
+
+    /**
+     * Append a member name to an object, with a comma if it is not the first member.
+     * The value is to be appended next.
+     *
+     * @param json                      The JSON text being written.
+     * @param name                      The member's name.
+     * @return                          The JSON text being written.
+     */
+    public static StringBuilder appendName(StringBuilder json, String name) {
+        char last = json.length() == 0 ? '{' : json.charAt(json.length() - 1);
+        if (last != '{' && last != '[') {
+            json.append(',');
+        }
+        return appendString(json, name).append(':');
+    }
+
+    /**
+     * Parse a flat JSON object, e.g. a request body. Strings, numbers and booleans are kept as
+     * their text, nulls are kept as null.
+     *
+     * @param text                      The JSON text.
+     * @return                          The members' values by name.
+     * @throws IllegalArgumentException If the text is not a flat JSON object.
+     */
+    public static HashMap<String, String> parseObject(String text) {
+        Parser parser = new Parser(text);
+        HashMap<String, String> members = new HashMap<>();
+        parser.expect('{');
+        if (!parser.skip('}')) {
+            do {
+                String name = parser.readString();
+                parser.expect(':');
+                members.put(name, parser.readValue());
+            } while (parser.skip(','));
+            parser.expect('}');
+        }
+        parser.expectEnd();
+        return members;
+    }
+
+    /**
+     * Class which reads the tokens of a JSON text one after another.
+     */
+    private static class Parser {
+        private final String text;
+        private int position;
+
+        /**
+         * Constructor of Parser class.
+         *
+         * @param text                  The JSON text.
+         */
+        private Parser(String text) {
+            this.text = text;
+            this.position = 0;
+        }
+
+        /**
+         * Skip a character after any whitespace if it is the next one.
+         *
+         * @param c                     The character.
+         * @return                      A boolean, true if the character has been skipped.
+         */
+        private boolean skip(char c) {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Skip a character after any whitespace, which must be the next one.
+         *
+         * @param c                     The character.
+         * @throws IllegalArgumentException If another character or the end comes next.
+         */
+        private void expect(char c) {
+            if (!skip(c)) {
+                throw new IllegalArgumentException(Constant.ERR_MSG_INVALID_JSON);
+            }
+        }
+
+        /**
+         * Check that nothing but whitespace is left.
+         *
+         * @throws IllegalArgumentException If more text follows.
+         */
+        private void expectEnd() {
+            skipWhitespace();
+            if (position < text.length()) {
+                throw new IllegalArgumentException(Constant.ERR_MSG_INVALID_JSON);
+            }
+        }
+
+        /**
+         * Read a string, number, boolean or null value.
+         *
+         * @return                      The value's text, null for a JSON null.
+         * @throws IllegalArgumentException If no such value comes next.
+         */
+        private String readValue() {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == '"') {
+                return readString();
+            }
+            int start = position;
+            while (position < text.length() && "{}[],:\" \t\r\n".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.equals("true") || literal.equals("false") || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                return literal;
+            }
+            throw new IllegalArgumentException(Constant.ERR_MSG_INVALID_JSON);
+        }
+
+        /**
+         * Read a string literal.
+         *
+         * @return                      The string.
+         * @throws IllegalArgumentException If no complete string literal comes next.
+         */
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw new IllegalArgumentException(Constant.ERR_MSG_INVALID_JSON);
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        }
+                        catch (NumberFormatException e) {
+                            throw new IllegalArgumentException(Constant.ERR_MSG_INVALID_JSON);
+                        }
+                        position += 4;
+                        break;
+                    case '"':
+                    case '\\':
+                    case '/':
+                        value.append(escaped);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(Constant.ERR_MSG_INVALID_JSON);
+                }
+            }
+            throw new IllegalArgumentException(Constant.ERR_MSG_INVALID_JSON);
+        }
+
+        /**
+         * Skip any whitespace.
+         */
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
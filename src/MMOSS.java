@@ -1,25 +1,73 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Main system class, contains highest-level system logic.
  *
  * @version ver1.0.0
  */
 public class MMOSS {
-    private InventoryControl inventoryController;
-    private UserControl userController;
+    private final InventoryControl inventoryController;
+    private final UserControl userController;
 
     /**
      * Default constructor of MMOSS class.
      */
     public MMOSS() {
-        inventoryController = new InventoryControl();
-        userController = new UserControl();
+        this(CompletableFuture.supplyAsync(UserControl::new));
+    }
+
+    /**
+     * Constructor of MMOSS class, loads the inventory while the users are being loaded.
+     *
+     * @param userLoading               The loading of the user controller.
+     */
+    private MMOSS(CompletableFuture<UserControl> userLoading) {
+        this(new InventoryControl(), userLoading.join());
+    }
+
+    /**
+     * Constructor of MMOSS class, for a session sharing its controllers with other sessions.
+     *
+     * @param inventoryController       Controller that manages inventory.
+     * @param userController            Controller that manages users.
+     */
+    public MMOSS(InventoryControl inventoryController, UserControl userController) {
+        this.inventoryController = inventoryController;
+        this.userController = userController;
     }
 
     /**
-     * Main logic for customer, loop and attend to customer's input until user logout.
+     * Main logic for customer, attend to customer's input until user logout.
      */
     private void customerLogic() {
-        ShoppingCartControl shoppingCartController = new ShoppingCartControl();
+        ShoppingCartControl shoppingCartController = new ShoppingCartControl((Customer) userController.getCurrentUser());
+        try {
+            customerMenuLogic(shoppingCartController);
+        }
+        finally {
+            // however the customer leaves, the stock reserved by the cart goes back to the inventory
+            shoppingCartController.releaseShoppingCart();
+        }
+    }
+
+    /**
+     * Customer's main menu logic, loop and attend to customer's input until user logout.
+     *
+     * @param shoppingCartController        Controller that manages the customer's shopping cart.
+     */
+    private void customerMenuLogic(ShoppingCartControl shoppingCartController) {
 
         while (true) {
             Boundary.printCustomerMainMenu(userController.getCurrentUserName());
@@ -76,7 +124,20 @@ public class MMOSS {
                         }
                     }
                 }
-                case "4" -> { //logout
+                case "4" -> { // search products
+                    int result = inventoryController.searchProducts();
+                    switch (result) {
+                        case Constant.CODE_BACK -> {
+                            continue;
+                        }
+                        case Constant.CODE_LOGOUT -> {
+                            //back to guestLogic, set current user as null
+                            userController.logout();
+                            return;
+                        }
+                    }
+                }
+                case "5" -> { //logout
                     //confirmation
                     boolean valid = false;
                     while (!valid) {
@@ -182,7 +243,20 @@ public class MMOSS {
                         }
                     }
                 }
-                case "5" -> { // logout
+                case "5" -> { // search products
+                    int result = inventoryController.searchProducts();
+                    switch (result) {
+                        case Constant.CODE_BACK -> {
+                            continue;
+                        }
+                        case Constant.CODE_LOGOUT -> {
+                            //back to guestLogic, set current user as null
+                            userController.logout();
+                            return;
+                        }
+                    }
+                }
+                case "6" -> { // logout
                     //confirmation
                     boolean valid = false;
                     while (!valid) {
@@ -212,7 +286,7 @@ public class MMOSS {
     }
 
     /**
-     * Main logic for guest, loop and attend to guest user's input until user logout.
+     * Main logic for guest, loop and attend to guest user's input until user exits or the input ends.
      * Serve as the start point of the overall system.
      */
     public void guestLogic() {
@@ -261,7 +335,7 @@ public class MMOSS {
                                 valid = true;
                             }
                             else if (input.equalsIgnoreCase(Constant.STRING_CONFIRM_YES)) {
-                                System.exit(0);
+                                return;
                             } else {
                                 Boundary.alertUnformattedInput(Constant.FIELD_CONFIRM);
                             }
@@ -272,6 +346,11 @@ public class MMOSS {
                     }
                 }
             }
+            catch (NoSuchElementException e) {
+                // the input has ended, e.g. the user has disconnected
+                userController.setCurrentUser(null);
+                return;
+            }
             catch (Exception e){
                 Boundary.alertException(e.getMessage());
             }
@@ -286,8 +365,145 @@ public class MMOSS {
      *
      */
     public static void main(String[] args) {
+        if (args.length > 0 && (args[0].equals(Constant.ARG_SERVER) || args[0].equals(Constant.ARG_HTTP)
+                || args[0].equals(Constant.ARG_HTTP_LOAD))) {
+            // no input is read from the console, which would write the output
+            Session.current().getOutput().setAutoFlush(true);
+            runNetworkMode(args);
+            return;
+        }
+
+        String batchFile = null;
+        boolean quiet = false;
+        for (int index = 0; index < args.length; index++) {
+            if (args[index].equals(Constant.ARG_BATCH)) {
+                if (index + 1 == args.length) {
+                    Session.current().getOutput().setAutoFlush(true);
+                    Boundary.alertUnformattedInput(Constant.FIELD_BATCH_FILE);
+                    return;
+                }
+                batchFile = args[++index];
+            } else if (args[index].equals(Constant.ARG_QUIET)) {
+                quiet = true;
+            }
+        }
+        if (batchFile != null || quiet) {
+            // no input is read from the console, which would write the output
+            Session.current().getOutput().setAutoFlush(true);
+            runBatch(batchFile != null ? batchFile : Constant.ARG_STANDARD_INPUT, quiet);
+            return;
+        }
+
         MMOSS control = new MMOSS();
         Boundary.printSystemUsage();
         control.guestLogic();
+        // write the files changed in the last moments before exiting
+        PersistenceWriter.flush();
+    }
+
+    /**
+     * Run the server mode, the HTTP mode or the load generator, depending on the first argument.
+     *
+     * @param args                      The terminal command arguments.
+     */
+    private static void runNetworkMode(String[] args) {
+        if (args[0].equals(Constant.ARG_HTTP_LOAD)) {
+            runHttpLoad(args);
+            return;
+        }
+        if (args.length > 1 && !Util.isInteger(args[1])) {
+            Boundary.alertUnformattedInput(Constant.FIELD_PORT);
+            return;
+        }
+        if (args[0].equals(Constant.ARG_SERVER)) {
+            new MMOSSServer(args.length > 1 ? Integer.parseInt(args[1]) : Constant.SERVER_DEFAULT_PORT).serve();
+        } else {
+            new MMOSSHttpServer(args.length > 1 ? Integer.parseInt(args[1]) : Constant.HTTP_DEFAULT_PORT).serve();
+        }
+    }
+
+    /**
+     * Run the load generator against the HTTP mode, with the arguments
+     * "--http-load [port] [clients] [rounds] [--checkout email password]". The clients only
+     * check out when asked to, as checkouts change the stock and credits of the served data.
+     *
+     * @param args                      The terminal command arguments.
+     */
+    private static void runHttpLoad(String[] args) {
+        String[] fields = {Constant.FIELD_PORT, Constant.FIELD_LOAD_CLIENTS, Constant.FIELD_LOAD_ROUNDS};
+        int[] values = {Constant.HTTP_DEFAULT_PORT, Constant.HTTP_LOAD_DEFAULT_CLIENTS,
+                Constant.HTTP_LOAD_DEFAULT_ROUNDS};
+        int index = 1;
+        for (int field = 0; field < fields.length && index < args.length
+                && !args[index].equals(Constant.ARG_LOAD_CHECKOUT); field++, index++) {
+            if (!Util.isInteger(args[index]) || Integer.parseInt(args[index]) < 0) {
+                Boundary.alertUnformattedInput(fields[field]);
+                return;
+            }
+            values[field] = Integer.parseInt(args[index]);
+        }
+        String email = null;
+        String password = null;
+        if (index < args.length) {
+            if (!args[index].equals(Constant.ARG_LOAD_CHECKOUT) || index + 3 != args.length) {
+                Boundary.alertUnformattedInput(Constant.FIELD_LOAD_CHECKOUT);
+                return;
+            }
+            email = args[index + 1];
+            password = args[index + 2];
+        }
+        new HttpLoadGenerator(values[0], values[1], values[2], email, password).run();
+    }
+
+    /**
+     * Run the system on the commands of a file or the standard input, as fast as they can
+     * be read, until the commands end.
+     *
+     * @param batchFile                 The command file's name, or "-" for the standard input.
+     * @param quiet                     Whether to discard all output instead of showing it.
+     */
+    private static void runBatch(String batchFile, boolean quiet) {
+        if (batchFile.equals(Constant.ARG_STANDARD_INPUT)) {
+            runBatch(System.in, quiet);
+            return;
+        }
+        try (InputStream commands = new FileInputStream(batchFile)) {
+            runBatch(commands, quiet);
+        }
+        catch (FileNotFoundException e) {
+            Boundary.alertFileNotFound(batchFile);
+        }
+        catch (IOException e) {
+            // the file has only been read from, closing it loses nothing
+        }
+    }
+
+    /**
+     * Run the system on the commands of a stream until they end, then print a summary.
+     *
+     * @param commands                  The stream of command lines.
+     * @param quiet                     Whether to discard all output instead of showing it.
+     */
+    private static void runBatch(InputStream commands, boolean quiet) {
+        Session console = Session.current();
+        ScreenRenderer output = quiet ? ScreenRenderer.discarding() : new ScreenRenderer(new PrintStream(
+                new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), Constant.BATCH_BUFFER_SIZE),
+                false, StandardCharsets.UTF_8));
+        Session batch = new Session(new BufferedReader(new InputStreamReader(commands, StandardCharsets.UTF_8),
+                Constant.BATCH_BUFFER_SIZE), output, false);
+        // every thread, including the ones loading the data, reports to the batch output
+        Session.setConsole(batch);
+        long start = System.nanoTime();
+        try {
+            MMOSS control = new MMOSS();
+            Boundary.printSystemUsage();
+            control.guestLogic();
+            PersistenceWriter.flush();
+        }
+        finally {
+            output.flush();
+            Session.setConsole(console);
+        }
+        Boundary.printBatchFinished(batch.getLinesRead(), (System.nanoTime() - start) / 1000000);
     }
 }
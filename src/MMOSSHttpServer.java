@@ -0,0 +1,632 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP mode class, serves the catalog, shopping carts and checkout as a JSON API on a local
+ * port, for front ends which do not use the console. Every request is handled on its own
+ * thread, a virtual thread where the Java runtime supports it.
+ *
+ * A customer logs in with POST /sessions and passes the returned token in the session header
+ * of the cart requests. Each session keeps its own shopping cart until it is closed with
+ * DELETE /sessions or left idle, while the inventory and users are shared with the console
+ * flows through MerchantService.
+ *
+ * GET  /products?page=N            One inventory page, paged like the console's inventory view.
+ * GET  /products/ID                One product.
+ * POST /sessions                   Log in with {"email": ..., "password": ...}.
+ * DELETE /sessions                 Log out, giving back the stock reserved by the cart.
+ * GET  /cart                       The session's shopping cart.
+ * POST /cart                       Add {"productId": ..., "quantity": ...} to the cart.
+ * POST /checkout                   Check out the cart.
+ *
+ * @version ver1.0.0
+ */
+public class MMOSSHttpServer {
+    private final MerchantService service;
+    private final ConcurrentHashMap<String, CartSession> sessions;
+    private final int port;
+
+    /**
+     * Constructor of MMOSSHttpServer class.
+     *
+     * @param port                      The local port to listen on, 0 for any free port.
+     */
+    public MMOSSHttpServer(int port) {
+        // the inventory and the users are loaded at the same time
+        CompletableFuture<UserControl> userLoading = CompletableFuture.supplyAsync(UserControl::new);
+        InventoryControl inventoryController = new InventoryControl();
+        this.service = new MerchantService(inventoryController, userLoading.join());
+        this.sessions = new ConcurrentHashMap<>();
+        this.port = port;
+    }
+
+    /**
+     * Start serving requests. The server keeps running on its own threads after returning.
+     */
+    public void serve() {
+        HttpServer server;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                    Constant.SERVER_BACKLOG);
+        }
+        catch (IOException e) {
+            Boundary.alertException(e.getMessage());
+            return;
+        }
+        server.setExecutor(MMOSSServer.newSessionExecutor());
+        server.createContext(Constant.HTTP_PATH_PRODUCTS, exchange -> handle(exchange, this::handleProducts));
+        server.createContext(Constant.HTTP_PATH_SESSIONS, exchange -> handle(exchange, this::handleSessions));
+        server.createContext(Constant.HTTP_PATH_CART, exchange -> handle(exchange, this::handleCart));
+        server.createContext(Constant.HTTP_PATH_CHECKOUT, exchange -> handle(exchange, this::handleCheckout));
+
+        ScheduledExecutorService sessionSweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        sessionSweeper.scheduleWithFixedDelay(this::closeIdleSessions, Constant.HTTP_SESSION_IDLE_MINUTES,
+                Constant.HTTP_SESSION_IDLE_MINUTES, TimeUnit.MINUTES);
+
+        server.start();
+        Boundary.printHttpServerStarted(server.getAddress().getPort());
+    }
+
+    /**
+     * Run a request handler and send its response, or an error response if it fails.
+     *
+     * @param exchange                  The request and response.
+     * @param handler                   The handler of the request's path.
+     */
+    private void handle(HttpExchange exchange, RequestHandler handler) {
+        try {
+            Response response;
+            try {
+                response = handler.handle(exchange);
+            }
+            catch (IllegalArgumentException e) {
+                response = error(400, Constant.HTTP_RESULT_BAD_REQUEST, e.getMessage());
+            }
+            catch (RuntimeException e) {
+                Boundary.alertException(e.toString());
+                response = error(500, Constant.HTTP_RESULT_SERVER_ERROR, Constant.ERR_MSG_HTTP_SERVER_ERROR);
+            }
+
+            byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", Constant.HTTP_CONTENT_TYPE_JSON);
+            if (response.allow != null) {
+                exchange.getResponseHeaders().set("Allow", response.allow);
+            }
+            exchange.sendResponseHeaders(response.status, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+        catch (IOException e) {
+            // the client has disconnected, nothing is left to clean up
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Handle GET /products?page=N and GET /products/ID.
+     *
+     * @param exchange                  The request.
+     * @return                          The response.
+     */
+    private Response handleProducts(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            return methodNotAllowed("GET");
+        }
+        String path = exchange.getRequestURI().getPath();
+        if (path.length() > Constant.HTTP_PATH_PRODUCTS.length() + 1) {
+            String productID = path.substring(Constant.HTTP_PATH_PRODUCTS.length() + 1);
+            if (!Util.isInteger(productID)) {
+                return notFound();
+            }
+            Product product = service.getProduct(Integer.parseInt(productID));
+            if (product == null) {
+                return error(404, getResultName(Constant.OPERATION_NOT_FOUND), Constant.ERR_MSG_HTTP_NO_PRODUCT);
+            }
+            return new Response(200, appendProduct(new StringBuilder(), product).toString());
+        }
+        if (!path.equals(Constant.HTTP_PATH_PRODUCTS) && !path.equals(Constant.HTTP_PATH_PRODUCTS + "/")) {
+            return notFound();
+        }
+
+        String pageValue = getQueryParameter(exchange, Constant.HTTP_PARAM_PAGE);
+        if (pageValue != null && !Util.isInteger(pageValue)) {
+            throw new IllegalArgumentException(Constant.ERR_MSG_HTTP_INVALID_PAGE);
+        }
+        int page = pageValue == null ? 1 : Integer.parseInt(pageValue);
+        // the same pages as the console's inventory view, an empty inventory has one empty page
+        int productCount = service.getProductCount();
+        int totalPages = (int) Math.ceil((double) productCount / Constant.PRODUCT_PAGE_SIZE);
+        if (page < 1 || page > Math.max(totalPages, 1)) {
+            return error(404, getResultName(Constant.OPERATION_NOT_FOUND), Constant.ERR_MSG_HTTP_INVALID_PAGE);
+        }
+        List<Product> pageList = service.getInventoryPage(page);
+
+        StringBuilder json = new StringBuilder(256 + pageList.size() * 256).append('{');
+        Json.appendMember(json, "page", page);
+        Json.appendMember(json, "totalPages", totalPages);
+        Json.appendMember(json, "productCount", productCount);
+        Json.appendName(json, "products").append('[');
+        for (int i = 0; i < pageList.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendProduct(json, pageList.get(i));
+        }
+        return new Response(200, json.append("]}").toString());
+    }
+
+    /**
+     * Handle POST /sessions and DELETE /sessions.
+     *
+     * @param exchange                  The request.
+     * @return                          The response.
+     * @throws IOException              If the request body cannot be read.
+     */
+    private Response handleSessions(HttpExchange exchange) throws IOException {
+        if (!isExactPath(exchange, Constant.HTTP_PATH_SESSIONS)) {
+            return notFound();
+        }
+        switch (exchange.getRequestMethod()) {
+            case "POST": {
+                HashMap<String, String> body = readBody(exchange);
+                String email = body.get(Constant.HTTP_PARAM_EMAIL);
+                String password = body.get(Constant.HTTP_PARAM_PASSWORD);
+                if (email == null || password == null) {
+                    throw new IllegalArgumentException(Constant.ERR_MSG_HTTP_MISSING_LOGIN);
+                }
+                ShoppingCartControl cart = service.openSession(email, password);
+                if (cart == null) {
+                    return error(401, Constant.HTTP_RESULT_UNAUTHORIZED, Constant.ERR_MSG_HTTP_LOGIN_FAILED);
+                }
+                String token = UUID.randomUUID().toString();
+                sessions.put(token, new CartSession(cart));
+
+                Customer customer = cart.getCustomer();
+                StringBuilder json = new StringBuilder().append('{');
+                Json.appendMember(json, "result", getResultName(Constant.OPERATION_SUCCESS));
+                Json.appendMember(json, "session", token);
+                Json.appendMember(json, "email", customer.getEmail());
+                Json.appendMember(json, "member", customer.isMember());
+                Json.appendMoney(json, "credits", customer.getCredits());
+                return new Response(201, json.append('}').toString());
+            }
+            case "DELETE": {
+                String token = exchange.getRequestHeaders().getFirst(Constant.HTTP_SESSION_HEADER);
+                CartSession session = token == null ? null : sessions.remove(token);
+                if (session == null) {
+                    return unauthorized();
+                }
+                session.close(service);
+                return result(200, Constant.OPERATION_SUCCESS);
+            }
+            default:
+                return methodNotAllowed("POST, DELETE");
+        }
+    }
+
+    /**
+     * Handle GET /cart and POST /cart.
+     *
+     * @param exchange                  The request.
+     * @return                          The response.
+     * @throws IOException              If the request body cannot be read.
+     */
+    private Response handleCart(HttpExchange exchange) throws IOException {
+        if (!isExactPath(exchange, Constant.HTTP_PATH_CART)) {
+            return notFound();
+        }
+        String method = exchange.getRequestMethod();
+        if (!method.equals("GET") && !method.equals("POST")) {
+            return methodNotAllowed("GET, POST");
+        }
+        CartSession session = getSession(exchange);
+        if (session == null) {
+            return unauthorized();
+        }
+        if (method.equals("GET")) {
+            synchronized (session) {
+                return session.closed ? unauthorized()
+                        : new Response(200, appendCart(new StringBuilder(), session.cart).toString());
+            }
+        }
+
+        HashMap<String, String> body = readBody(exchange);
+        int productID = getIntegerMember(body, Constant.HTTP_PARAM_PRODUCT_ID);
+        int quantity = getIntegerMember(body, Constant.HTTP_PARAM_QUANTITY);
+        int result;
+        String cart;
+        synchronized (session) {
+            if (session.closed) { // logged out by another request in the meantime
+                return unauthorized();
+            }
+            result = service.addToCart(session.cart, productID, quantity);
+            cart = appendCart(new StringBuilder(), session.cart).toString();
+        }
+
+        StringBuilder json = new StringBuilder().append('{');
+        Json.appendMember(json, "result", getResultName(result));
+        Json.appendName(json, "cart").append(cart);
+        return new Response(getStatus(result), json.append('}').toString());
+    }
+
+    /**
+     * Handle POST /checkout.
+     *
+     * @param exchange                  The request.
+     * @return                          The response.
+     */
+    private Response handleCheckout(HttpExchange exchange) {
+        if (!isExactPath(exchange, Constant.HTTP_PATH_CHECKOUT)) {
+            return notFound();
+        }
+        if (!exchange.getRequestMethod().equals("POST")) {
+            return methodNotAllowed("POST");
+        }
+        CartSession session = getSession(exchange);
+        if (session == null) {
+            return unauthorized();
+        }
+
+        int result;
+        long totalPrice;
+        Customer customer = session.cart.getCustomer();
+        synchronized (session) {
+            if (session.closed) {
+                return unauthorized();
+            }
+            ShoppingCart shoppingCart = session.cart.getShoppingCart();
+            totalPrice = customer.isMember() ? shoppingCart.getTotalMemberPrice() : shoppingCart.getTotalPrice();
+            result = service.checkout(session.cart);
+        }
+
+        StringBuilder json = new StringBuilder().append('{');
+        Json.appendMember(json, "result", getResultName(result));
+        if (result == Constant.OPERATION_SUCCESS) {
+            Json.appendMoney(json, "paid", totalPrice);
+        }
+        Json.appendMoney(json, "credits", customer.getCredits());
+        return new Response(getStatus(result), json.append('}').toString());
+    }
+
+    /**
+     * Close the sessions which have not been used for longer than the idle time, giving back
+     * the stock reserved by their carts.
+     */
+    private void closeIdleSessions() {
+        long idleSince = System.nanoTime() - TimeUnit.MINUTES.toNanos(Constant.HTTP_SESSION_IDLE_MINUTES);
+        sessions.forEach((token, session) -> {
+            if (session.lastUsed - idleSince < 0 && sessions.remove(token, session)) {
+                session.close(service);
+            }
+        });
+    }
+
+    /**
+     * Get the session whose token the request carries, marking it as used.
+     *
+     * @param exchange                  The request.
+     * @return                          The session, null if the token is missing or unknown.
+     */
+    private CartSession getSession(HttpExchange exchange) {
+        String token = exchange.getRequestHeaders().getFirst(Constant.HTTP_SESSION_HEADER);
+        CartSession session = token == null ? null : sessions.get(token);
+        if (session != null) {
+            session.lastUsed = System.nanoTime();
+        }
+        return session;
+    }
+
+    /**
+     * Append a product as a JSON object.
+     *
+     * @param json                      The JSON text being written.
+     * @param product                   The product.
+     * @return                          The JSON text being written.
+     */
+    private static StringBuilder appendProduct(StringBuilder json, Product product) {
+        json.append('{');
+        Json.appendMember(json, "id", product.getProductId());
+        Json.appendMember(json, "name", product.getName());
+        Json.appendMember(json, "brand", product.getBrand());
+        Json.appendMember(json, "description", product.getDescription());
+        Json.appendMember(json, "category", product.getCategory());
+        Json.appendMember(json, "subcategory", product.getSubcategory());
+        Json.appendMoney(json, "price", product.getPrice());
+        Json.appendMoney(json, "memberPrice", product.getMemberPrice());
+        Json.appendMember(json, "quantity", product.getQuantity());
+        Json.appendMember(json, "available", product.getAvailableQuantity());
+        if (product instanceof FoodProduct) {
+            FoodProduct foodProduct = (FoodProduct) product;
+            Json.appendMember(json, "expiryDate", Util.getStringFromDate(foodProduct.getExpirationDate()));
+            Json.appendMember(json, "ingredients", foodProduct.getIngredients());
+            Json.appendMember(json, "storageInstructions", foodProduct.getStorageInstructions());
+            Json.appendMember(json, "allergenInfo", foodProduct.getAllergenInfo());
+        }
+        return json.append('}');
+    }
+
+    /**
+     * Append a session's shopping cart as a JSON object.
+     *
+     * @param json                      The JSON text being written.
+     * @param cart                      The session's shopping cart controller.
+     * @return                          The JSON text being written.
+     */
+    private static StringBuilder appendCart(StringBuilder json, ShoppingCartControl cart) {
+        ShoppingCart shoppingCart = cart.getShoppingCart();
+        json.append('{');
+        Json.appendName(json, "items").append('[');
+        List<Item> itemList = shoppingCart.getItemList();
+        for (int i = 0; i < itemList.size(); i++) {
+            Item item = itemList.get(i);
+            json.append(i > 0 ? ",{" : "{");
+            Json.appendMember(json, "productId", item.getProduct().getProductId());
+            Json.appendMember(json, "name", item.getProduct().getName());
+            Json.appendMember(json, "quantity", item.getQuantity());
+            Json.appendMoney(json, "totalPrice", item.getTotalPrice());
+            Json.appendMoney(json, "totalMemberPrice", item.getTotalMemberPrice());
+            json.append('}');
+        }
+        json.append(']');
+        Json.appendMoney(json, "totalPrice", shoppingCart.getTotalPrice());
+        Json.appendMoney(json, "totalMemberPrice", shoppingCart.getTotalMemberPrice());
+        Json.appendMember(json, "member", cart.getCustomer().isMember());
+        return json.append('}');
+    }
+
+    /**
+     * Read a request body holding a flat JSON object.
+     *
+     * @param exchange                  The request.
+     * @return                          The object's members by name.
+     * @throws IOException              If the body cannot be read.
+     * @throws IllegalArgumentException If the body is too long or not a flat JSON object.
+     */
+    private static HashMap<String, String> readBody(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream input = exchange.getRequestBody()) {
+            body = input.readNBytes(Constant.HTTP_BODY_LIMIT + 1);
+        }
+        if (body.length > Constant.HTTP_BODY_LIMIT) {
+            throw new IllegalArgumentException(Constant.ERR_MSG_HTTP_BODY_TOO_LONG);
+        }
+        return Json.parseObject(new String(body, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get a whole number member of a request body.
+     *
+     * @param body                      The request body's members.
+     * @param name                      The member's name.
+     * @return                          The member's value.
+     * @throws IllegalArgumentException If the member is missing or not a whole number.
+     */
+    private static int getIntegerMember(HashMap<String, String> body, String name) {
+        String value = body.get(name);
+        if (value == null || !Util.isInteger(value)) {
+            throw new IllegalArgumentException(Constant.ERR_MSG_HTTP_INVALID_MEMBER + name);
+        }
+        return Integer.parseInt(value);
+    }
+
+    /**
+     * Get a parameter of a request's query string.
+     *
+     * @param exchange                  The request.
+     * @param name                      The parameter's name.
+     * @return                          The parameter's value, null if it is missing.
+     */
+    private static String getQueryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0 && parameter.substring(0, separator).equals(name)) {
+                return parameter.substring(separator + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether a request's path is exactly a context's path.
+     *
+     * @param exchange                  The request.
+     * @param path                      The context's path.
+     * @return                          A boolean, true if the paths are the same.
+     */
+    private static boolean isExactPath(HttpExchange exchange, String path) {
+        return exchange.getRequestURI().getPath().equals(path);
+    }
+
+    /**
+     * Get the name of an operation's result as reported in responses.
+     *
+     * @param result                    A code representing the operation's result.
+     * @return                          The result's name.
+     */
+    private static String getResultName(int result) {
+        switch (result) {
+            case Constant.OPERATION_SUCCESS:
+                return "SUCCESS";
+            case Constant.OPERATION_OUT_OF_STOCK:
+                return "OUT_OF_STOCK";
+            case Constant.OPERATION_INVALID_VALUE:
+                return "INVALID_VALUE";
+            case Constant.OPERATION_NOT_FOUND:
+                return "NOT_FOUND";
+            case Constant.OPERATION_LIMIT_REACHED:
+                return "LIMIT_REACHED";
+            default:
+                return "FAIL";
+        }
+    }
+
+    /**
+     * Get the HTTP status of an operation's result.
+     *
+     * @param result                    A code representing the operation's result.
+     * @return                          The HTTP status code.
+     */
+    private static int getStatus(int result) {
+        switch (result) {
+            case Constant.OPERATION_SUCCESS:
+                return 200;
+            case Constant.OPERATION_INVALID_VALUE:
+                return 400;
+            case Constant.OPERATION_NOT_FOUND:
+                return 404;
+            default: // a full cart, the item limit, the stock or the credits
+                return 409;
+        }
+    }
+
+    /**
+     * Create a response reporting an operation's result.
+     *
+     * @param status                    The HTTP status code.
+     * @param result                    A code representing the operation's result.
+     * @return                          The response.
+     */
+    private static Response result(int status, int result) {
+        StringBuilder json = new StringBuilder().append('{');
+        Json.appendMember(json, "result", getResultName(result));
+        return new Response(status, json.append('}').toString());
+    }
+
+    /**
+     * Create an error response.
+     *
+     * @param status                    The HTTP status code.
+     * @param result                    The result's name.
+     * @param message                   The error message.
+     * @return                          The response.
+     */
+    private static Response error(int status, String result, String message) {
+        StringBuilder json = new StringBuilder().append('{');
+        Json.appendMember(json, "result", result);
+        Json.appendMember(json, "message", message);
+        return new Response(status, json.append('}').toString());
+    }
+
+    /**
+     * Create the response to a request for an unknown path.
+     *
+     * @return                          The response.
+     */
+    private static Response notFound() {
+        return error(404, getResultName(Constant.OPERATION_NOT_FOUND), Constant.ERR_MSG_HTTP_NO_PATH);
+    }
+
+    /**
+     * Create the response to a request without a valid session token.
+     *
+     * @return                          The response.
+     */
+    private static Response unauthorized() {
+        return error(401, Constant.HTTP_RESULT_UNAUTHORIZED, Constant.ERR_MSG_HTTP_NO_SESSION);
+    }
+
+    /**
+     * Create the response to a request whose method the path does not support.
+     *
+     * @param allowed                   The supported methods.
+     * @return                          The response.
+     */
+    private static Response methodNotAllowed(String allowed) {
+        Response response = error(405, Constant.HTTP_RESULT_BAD_REQUEST, Constant.ERR_MSG_HTTP_METHOD_NOT_ALLOWED);
+        response.allow = allowed;
+        return response;
+    }
+
+    /**
+     * Interface of the handlers of the request paths.
+     */
+    private interface RequestHandler {
+
+        /**
+         * Handle a request.
+         *
+         * @param exchange          The request.
+         * @return                  The response.
+         * @throws IOException      If the request cannot be read.
+         */
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Class which holds a response's status and JSON body.
+     */
+    private static class Response {
+        private final int status;
+        private final String body;
+        private String allow;
+
+        /**
+         * Constructor of Response class.
+         *
+         * @param status                The HTTP status code.
+         * @param body                  The JSON body.
+         */
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Class which holds the shopping cart of a logged in session. The requests of a session
+     * are run one at a time by synchronizing on it.
+     */
+    private static class CartSession {
+        private final ShoppingCartControl cart;
+        private volatile long lastUsed;
+        private boolean closed;
+
+        /**
+         * Constructor of CartSession class.
+         *
+         * @param cart                  The session's shopping cart controller.
+         */
+        private CartSession(ShoppingCartControl cart) {
+            this.cart = cart;
+            this.lastUsed = System.nanoTime();
+            this.closed = false;
+        }
+
+        /**
+         * Close the session, giving back the stock reserved by its cart. A closed session
+         * takes no more requests.
+         *
+         * @param service               The service the session was opened with.
+         */
+        private synchronized void close(MerchantService service) {
+            closed = true;
+            service.closeSession(cart);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server mode class, serves many concurrent console sessions over a local socket. Every
+ * connection gets its own session thread, current user and shopping cart, while the
+ * inventory and users are shared.
+ *
+ * @version ver1.0.0
+ */
+public class MMOSSServer {
+    private final InventoryControl inventoryController;
+    private final UserControl userController;
+    private final int port;
+
+    /**
+     * Constructor of MMOSSServer class.
+     *
+     * @param port                      The local port to listen on, 0 for any free port.
+     */
+    public MMOSSServer(int port) {
+        // the inventory and the users are loaded at the same time
+        CompletableFuture<UserControl> userLoading = CompletableFuture.supplyAsync(UserControl::new);
+        this.inventoryController = new InventoryControl();
+        this.userController = userLoading.join();
+        this.port = port;
+    }
+
+    /**
+     * Accept connections and serve each of them in its own session until the server is stopped.
+     */
+    public void serve() {
+        ExecutorService sessionExecutor = newSessionExecutor();
+        try (ServerSocket serverSocket = new ServerSocket(port, Constant.SERVER_BACKLOG,
+                InetAddress.getLoopbackAddress())) {
+            Boundary.printServerStarted(serverSocket.getLocalPort());
+            while (true) {
+                Socket socket = serverSocket.accept();
+                sessionExecutor.execute(() -> serveSession(socket));
+            }
+        }
+        catch (IOException e) {
+            Boundary.alertException(e.getMessage());
+        }
+        finally {
+            sessionExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Run one user session on a connection until the user exits or disconnects.
+     *
+     * @param socket                    The connection.
+     */
+    private void serveSession(Socket socket) {
+        try (socket;
+             BufferedReader input = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintStream output = new PrintStream(
+                     new BufferedOutputStream(socket.getOutputStream()), false, StandardCharsets.UTF_8)) {
+            Session.bind(new Session(input, output));
+            Boundary.printSystemUsage();
+            new MMOSS(inventoryController, userController).guestLogic();
+        }
+        catch (IOException e) {
+            // the user has disconnected, nothing is left to clean up
+        }
+        finally {
+            userController.setCurrentUser(null);
+            Session.unbind();
+        }
+    }
+
+    /**
+     * Create the executor running the sessions, one virtual thread per session where the
+     * Java runtime supports it, otherwise one platform thread per session.
+     *
+     * @return                          The session executor.
+     */
+    static ExecutorService newSessionExecutor() {
+        try {
+            // looked up at runtime so the system still builds and runs on Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+import java.util.List;
+
+/**
+ * Class which offers the core operations of the system without any prompt or printed message,
+ * for batch clients, network front ends and benchmarks. The console flows commit their changes
+ * through the same operations, so both check values and persist changes in the same way.
+ * Results are reported with the operation codes in Constant.
+ *
+ * @version ver1.0.0
+ */
+public class MerchantService {
+    private final InventoryControl inventoryController;
+    private final UserControl userController;
+
+    /**
+     * Constructor of MerchantService class.
+     *
+     * @param inventoryController       Controller that manages inventory.
+     * @param userController            Controller that manages users.
+     */
+    public MerchantService(InventoryControl inventoryController, UserControl userController) {
+        this.inventoryController = inventoryController;
+        this.userController = userController;
+    }
+
+    /**
+     * Start a shopping session of a customer.
+     *
+     * @param email                     The customer's email, in any case.
+     * @param password                  The customer's password.
+     * @return                          The session's shopping cart controller, null if the email or password
+     *                                  is incorrect or the user is not a customer.
+     */
+    public ShoppingCartControl openSession(String email, String password) {
+        User user = userController.authenticate(email, password);
+        if (user == null || !user.isCustomer()) {
+            return null;
+        }
+        return new ShoppingCartControl((Customer) user);
+    }
+
+    /**
+     * End a shopping session, giving back the stock reserved by its cart.
+     *
+     * @param session                   The session's shopping cart controller.
+     */
+    public void closeSession(ShoppingCartControl session) {
+        session.releaseShoppingCart();
+    }
+
+    /**
+     * Get a product by its ID.
+     *
+     * @param productID                 The product's ID.
+     * @return                          The product, null if there is no product with the ID.
+     */
+    public Product getProduct(int productID) {
+        return inventoryController.getProductByID(productID);
+    }
+
+    /**
+     * Get the number of products in the inventory.
+     *
+     * @return                          The number of products.
+     */
+    public int getProductCount() {
+        return inventoryController.getProductCount();
+    }
+
+    /**
+     * Get one page of the ID-ordered inventory, with the page size of the console's inventory view.
+     *
+     * @param page                      The page number, from 1.
+     * @return                          The products on the page, empty if the page is past the last one.
+     */
+    public List<Product> getInventoryPage(int page) {
+        return inventoryController.getInventoryPage(page);
+    }
+
+    /**
+     * Create a product.
+     *
+     * @param spec                      The product specification.
+     * @return                          The created product, null if a field is invalid, see findInvalidField.
+     */
+    public Product createProduct(ProductSpec spec) {
+        return inventoryController.createProduct(spec);
+    }
+
+    /**
+     * Find the first field of a product specification whose value is missing or invalid.
+     *
+     * @param spec                      The product specification.
+     * @return                          The field's name, null if the specification is valid.
+     */
+    public String findInvalidField(ProductSpec spec) {
+        return inventoryController.findInvalidField(spec);
+    }
+
+    /**
+     * Update one field of a product, with the value given as it would be typed in the console.
+     *
+     * @param productID                 The product's ID.
+     * @param field                     The field's name, one of the product field names in Constant.
+     * @param value                     The new value.
+     * @return                          A code representing the operation's result.
+     */
+    public int updateField(int productID, String field, String value) {
+        return inventoryController.updateField(productID, field, value);
+    }
+
+    /**
+     * Remove a product.
+     *
+     * @param productID                 The product's ID.
+     * @return                          A code representing the operation's result.
+     */
+    public int removeProduct(int productID) {
+        return inventoryController.removeProduct(productID);
+    }
+
+    /**
+     * Add a quantity of a product to a session's shopping cart.
+     *
+     * @param session                   The session's shopping cart controller.
+     * @param productID                 The product's ID.
+     * @param quantity                  The quantity to be added.
+     * @return                          A code representing the operation's result.
+     */
+    public int addToCart(ShoppingCartControl session, int productID, int quantity) {
+        return session.addToCart(inventoryController, productID, quantity);
+    }
+
+    /**
+     * Check out a session's shopping cart.
+     *
+     * @param session                   The session's shopping cart controller.
+     * @return                          A code representing the operation's result.
+     */
+    public int checkout(ShoppingCartControl session) {
+        return session.checkout(userController, inventoryController);
+    }
+}
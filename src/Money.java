@@ -0,0 +1,126 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Class which provides money operations. Amounts of money are kept as long numbers of
+ * cents, so prices, totals and credits are added, multiplied and compared exactly
+ * with integer arithmetic, and are only converted from and to text at the edges.
+ *
+ * @version ver1.0.0
+ */
+public class Money {
+
+    /**
+     * Default constructor of Money class.
+     */
+    private Money() {
+
+    }
+
+    /**
+     * Parse a decimal amount of money, rounding half up to whole cents.
+     *
+     * @param amount                    A String representing the amount, e.g. "12.5".
+     * @return                          The amount in cents.
+     * @throws NumberFormatException    If the String is not a finite decimal amount.
+     */
+    public static long parse(String amount) {
+        int length = amount.length();
+        int position = 0;
+        boolean negative = length > 0 && amount.charAt(0) == '-';
+        if (length > 0 && (negative || amount.charAt(0) == '+')) {
+            position++;
+        }
+
+        // plain decimals with few enough digits not to overflow are parsed without allocation
+        long cents = 0;
+        int integerDigits = 0;
+        int fractionDigits = -1;
+        boolean roundUp = false;
+        for (; position < length; position++) {
+            char c = amount.charAt(position);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            }
+            else if (c < '0' || c > '9' || integerDigits > 15) {
+                return parseSlow(amount);
+            }
+            else if (fractionDigits < 0) {
+                cents = cents * 10 + (c - '0');
+                integerDigits++;
+            }
+            else if (fractionDigits < 2) {
+                cents = cents * 10 + (c - '0');
+                fractionDigits++;
+            }
+            else if (fractionDigits++ == 2) {
+                roundUp = c >= '5';
+            }
+        }
+        if (integerDigits == 0 && fractionDigits <= 0) {
+            throw new NumberFormatException("For input string: \"" + amount + "\"");
+        }
+        for (int i = Math.max(fractionDigits, 0); i < 2; i++) {
+            cents *= 10;
+        }
+        if (roundUp) {
+            cents++;
+        }
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Parse an amount of money which is not a plain decimal, e.g. in scientific notation.
+     *
+     * @param amount                    A String representing the amount.
+     * @return                          The amount in cents.
+     * @throws NumberFormatException    If the String is not a finite decimal amount.
+     */
+    private static long parseSlow(String amount) {
+        try {
+            return new BigDecimal(amount).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        }
+        catch (ArithmeticException e) {
+            throw new NumberFormatException("Out of range: \"" + amount + "\"");
+        }
+    }
+
+    /**
+     * Check whether a String is an amount of money.
+     *
+     * @param input                     The input string.
+     * @return                          A boolean, true if argument can be parsed as an amount.
+     */
+    public static boolean isMoney(String input) {
+        try {
+            parse(input);
+            return true;
+        }
+        catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get the plain decimal representation of an amount, as stored in the data files.
+     *
+     * @param cents                     The amount in cents.
+     * @return                          The amount with two decimals, e.g. "12.50".
+     */
+    public static String toPlainString(long cents) {
+        long units = Math.abs(cents / 100);
+        int remainder = (int) Math.abs(cents % 100);
+        return (cents < 0 ? "-" : "") + units + (remainder < 10 ? ".0" : ".") + remainder;
+    }
+
+    /**
+     * Get the representation of an amount shown to the user.
+     *
+     * @param cents                     The amount in cents.
+     * @return                          The amount with a dollar sign, e.g. "$12.50".
+     */
+    public static String format(long cents) {
+        String plain = toPlainString(cents);
+        return cents < 0 ? "-$" + plain.substring(1) : "$" + plain;
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+/**
+ * Class which stores every product as its own object, in a list ordered by ID and an
+ * ID index. This is the default store, simple and fast for catalogs which fit in memory
+ * comfortably.
+ *
+ * @version ver1.0.0
+ */
+public class ObjectProductStore implements ProductStore {
+    private final ArrayList<Product> productList;
+    private final IntObjectMap<Product> productIndex;
+
+    /**
+     * Default constructor of ObjectProductStore class.
+     */
+    public ObjectProductStore() {
+        this.productList = new ArrayList<>();
+        this.productIndex = new IntObjectMap<>();
+    }
+
+    @Override
+    public void load(Product product) {
+        productList.add(product);
+        productIndex.put(product.getProductId(), product);
+    }
+
+    @Override
+    public void finishLoading() {
+        // sort once after loading, an already sorted file is checked in linear time
+        productList.sort(Comparator.comparingInt(Product::getProductId));
+    }
+
+    @Override
+    public Product get(int productID) {
+        return productIndex.get(productID);
+    }
+
+    @Override
+    public Product getAt(int position) {
+        return productList.get(position);
+    }
+
+    @Override
+    public int size() {
+        return productList.size();
+    }
+
+    @Override
+    public void add(Product product) {
+        // new products get the largest ID so this is normally an append
+        productList.add(findProductPosition(product.getProductId() + 1), product);
+        productIndex.put(product.getProductId(), product);
+    }
+
+    @Override
+    public boolean replace(Product oldProduct, Product newProduct) {
+        int idx = indexOfProduct(oldProduct);
+        if (idx < 0) {
+            return false;
+        }
+        productList.set(idx, newProduct);
+        productIndex.put(newProduct.getProductId(), newProduct);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Product product) {
+        int idx = indexOfProduct(product);
+        if (idx < 0) {
+            return false;
+        }
+        productList.remove(idx);
+        productIndex.remove(product.getProductId());
+        return true;
+    }
+
+    @Override
+    public void update(Product product) {
+        // the product object itself is what is stored
+    }
+
+    @Override
+    public void forEach(Consumer<Product> action) {
+        productList.forEach(action);
+    }
+
+    /**
+     * Binary search the ID-ordered product list for the first product whose ID is not less than the given ID.
+     *
+     * @param productID                     The product ID to search for.
+     * @return                              The position of that product, or the list size if there is none.
+     */
+    private int findProductPosition(int productID) {
+        int low = 0;
+        int high = productList.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (productList.get(middle).getProductId() < productID) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Locate a product object in the ID-ordered product list.
+     *
+     * @param product                       The product to be located.
+     * @return                              The product's position in the list.
+     */
+    private int indexOfProduct(Product product) {
+        // a corrupted file may repeat an ID, so check every product sharing it
+        int idx = findProductPosition(product.getProductId());
+        for (; idx < productList.size() && productList.get(idx).getProductId() == product.getProductId(); idx++) {
+            if (productList.get(idx) == product) {
+                return idx;
+            }
+        }
+        return productList.indexOf(product);
+    }
+}
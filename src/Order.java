@@ -1,19 +1,28 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 /**
  * Class which represents order information.
  *
  * @version ver1.0.0
  */
 public class Order {
-    private double price;
-    private double memberPrice;
-    private double creditBefore;
-    private double creditAfter;
+    private long orderId;
+    private LocalDateTime createdAt;
+    private final List<OrderItem> items;
+    private long price;
+    private long memberPrice;
+    private long creditBefore;
+    private long creditAfter;
     private boolean isMemberPrice;
 
     /**
      * Default constructor of Order class.
      */
     public Order(){
+        this.orderId = 0;
+        this.createdAt = null;
+        this.items = new ArrayList<>();
         this.price = 0;
         this.memberPrice = 0;
         this.creditBefore = 0;
@@ -24,13 +33,16 @@ public class Order {
     /**
      * Constructor of Order class.
      *
-     * @param price                     The order's normal price.
-     * @param memberPrice               The order's member price.
-     * @param creditBefore              The customer's credits before paying.
-     * @param creditAfter               The customer's credits after paying.
+     * @param price                     The order's normal price in cents.
+     * @param memberPrice               The order's member price in cents.
+     * @param creditBefore              The customer's credits in cents before paying.
+     * @param creditAfter               The customer's credits in cents after paying.
      * @param isMemberPrice             Whether the customer pays with member discount.
      */
-    public Order(double price, double memberPrice, double creditBefore, double creditAfter, boolean isMemberPrice) {
+    public Order(long price, long memberPrice, long creditBefore, long creditAfter, boolean isMemberPrice) {
+        this.orderId = 0;
+        this.createdAt = null;
+        this.items = new ArrayList<>();
         this.price = price;
         this.memberPrice = memberPrice;
         this.creditBefore = creditBefore;
@@ -38,6 +50,87 @@ public class Order {
         this.isMemberPrice = isMemberPrice;
     }
 
+    /**
+     * Constructor of Order class.
+     *
+     * @param orderId                   The order's ID.
+     * @param createdAt                 The time the order was placed.
+     * @param items                     The bought items.
+     * @param price                     The order's normal price in cents.
+     * @param memberPrice               The order's member price in cents.
+     * @param creditBefore              The customer's credits in cents before paying.
+     * @param creditAfter               The customer's credits in cents after paying.
+     * @param isMemberPrice             Whether the customer pays with member discount.
+     */
+    public Order(long orderId, LocalDateTime createdAt, List<OrderItem> items, long price, long memberPrice,
+                 long creditBefore, long creditAfter, boolean isMemberPrice) {
+        this.orderId = orderId;
+        this.createdAt = createdAt;
+        this.items = new ArrayList<>(items);
+        this.price = price;
+        this.memberPrice = memberPrice;
+        this.creditBefore = creditBefore;
+        this.creditAfter = creditAfter;
+        this.isMemberPrice = isMemberPrice;
+    }
+
+    /**
+     * Getter method for orderId.
+     *
+     * @return                         The order's ID, 0 if it has not been stored yet.
+     */
+    public long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     *  Setter method for orderId.
+     *
+     * @param orderId              New orderId.
+     */
+    public void setOrderId(long orderId) {
+        this.orderId = orderId;
+    }
+
+    /**
+     * Getter method for createdAt.
+     *
+     * @return                         The time the order was placed.
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     *  Setter method for createdAt.
+     *
+     * @param createdAt              New createdAt.
+     */
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Getter method for items.
+     *
+     * @return                         The bought items.
+     */
+    public List<OrderItem> getItems() {
+        return items;
+    }
+
+    /**
+     * Take a snapshot of the shopping cart items as the bought items.
+     *
+     * @param itemList             The shopping cart items.
+     */
+    public void setItems(List<Item> itemList) {
+        items.clear();
+        for (Item item : itemList) {
+            items.add(new OrderItem(item));
+        }
+    }
+
     /**
      * Getter method for isMemberPrice.
      *
@@ -61,7 +154,7 @@ public class Order {
      *
      * @return                         The order's price.
      */
-    public double getPrice() {
+    public long getPrice() {
         return price;
     }
 
@@ -70,7 +163,7 @@ public class Order {
      *
      * @param price              New price.
      */
-    public void setPrice(double price) {
+    public void setPrice(long price) {
         this.price = price;
     }
 
@@ -79,7 +172,7 @@ public class Order {
      *
      * @return                         The order's memberPrice.
      */
-    public double getMemberPrice() {
+    public long getMemberPrice() {
         return memberPrice;
     }
 
@@ -88,7 +181,7 @@ public class Order {
      *
      * @param memberPrice              New memberPrice.
      */
-    public void setMemberPrice(double memberPrice) {
+    public void setMemberPrice(long memberPrice) {
         this.memberPrice = memberPrice;
     }
 
@@ -97,7 +190,7 @@ public class Order {
      *
      * @return                         The order's creditBefore.
      */
-    public double getCreditBefore() {
+    public long getCreditBefore() {
         return creditBefore;
     }
 
@@ -106,7 +199,7 @@ public class Order {
      *
      * @param creditBefore              New creditBefore.
      */
-    public void setCreditBefore(double creditBefore) {
+    public void setCreditBefore(long creditBefore) {
         this.creditBefore = creditBefore;
     }
 
@@ -115,7 +208,7 @@ public class Order {
      *
      * @return                         The order's creditAfter.
      */
-    public double getCreditAfter() {
+    public long getCreditAfter() {
         return creditAfter;
     }
 
@@ -124,7 +217,24 @@ public class Order {
      *
      * @param creditAfter              New creditAfter.
      */
-    public void setCreditAfter(double creditAfter) {
+    public void setCreditAfter(long creditAfter) {
         this.creditAfter = creditAfter;
     }
+
+    /**
+     * Override the toString() method.
+     *
+     * @return                         The order's information in the order log format.
+     */
+    @Override
+    public String toString() {
+        StringBuilder record = new StringBuilder(String.join(Constant.STRING_FIELD_DELIMITER, new String[]{
+                String.valueOf(orderId), String.valueOf(createdAt), Money.toPlainString(price),
+                Money.toPlainString(memberPrice), Money.toPlainString(creditBefore), Money.toPlainString(creditAfter),
+                String.valueOf(isMemberPrice), String.valueOf(items.size())}));
+        for (OrderItem item : items) {
+            record.append(Constant.STRING_FIELD_DELIMITER).append(item);
+        }
+        return record.toString();
+    }
 }
@@ -0,0 +1,100 @@
+/**
+ * Class which represents one line of an order, a snapshot of a shopping cart item taken
+ * at checkout so that later product changes do not alter the order history.
+ *
+ * @version ver1.0.0
+ */
+public class OrderItem {
+    private final int productId;
+    private final String name;
+    private final int quantity;
+    private final long price; // in cents
+    private final long memberPrice; // in cents
+
+    /**
+     * Constructor of OrderItem class, taking a snapshot of a shopping cart item.
+     *
+     * @param item                      The shopping cart item.
+     */
+    public OrderItem(Item item) {
+        Product product = item.getProduct();
+        this.productId = product.getProductId();
+        this.name = product.getName();
+        this.quantity = item.getQuantity();
+        this.price = product.getPrice();
+        this.memberPrice = product.getMemberPrice();
+    }
+
+    /**
+     * Constructor of OrderItem class.
+     *
+     * @param productId                 The product's ID.
+     * @param name                      The product's name at checkout.
+     * @param quantity                  The quantity bought.
+     * @param price                     The product's unit price in cents at checkout.
+     * @param memberPrice               The product's unit member price in cents at checkout.
+     */
+    public OrderItem(int productId, String name, int quantity, long price, long memberPrice) {
+        this.productId = productId;
+        this.name = name;
+        this.quantity = quantity;
+        this.price = price;
+        this.memberPrice = memberPrice;
+    }
+
+    /**
+     * Getter method for productId.
+     *
+     * @return                          The product's ID.
+     */
+    public int getProductId() {
+        return productId;
+    }
+
+    /**
+     * Getter method for name.
+     *
+     * @return                          The product's name at checkout.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter method for quantity.
+     *
+     * @return                          The quantity bought.
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Getter method for price.
+     *
+     * @return                          The product's unit price in cents at checkout.
+     */
+    public long getPrice() {
+        return price;
+    }
+
+    /**
+     * Getter method for memberPrice.
+     *
+     * @return                          The product's unit member price in cents at checkout.
+     */
+    public long getMemberPrice() {
+        return memberPrice;
+    }
+
+    /**
+     * Override the toString() method.
+     *
+     * @return                          The order item's fields in the order log format.
+     */
+    @Override
+    public String toString() {
+        return String.join(Constant.STRING_FIELD_DELIMITER, new String[]{String.valueOf(productId), name,
+                String.valueOf(quantity), Money.toPlainString(price), Money.toPlainString(memberPrice)});
+    }
+}
@@ -0,0 +1,393 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Class which keeps the order history in an append-only log. Orders are appended to
+ * segment files which are never rewritten, and an index file maps every order to its
+ * customer, segment and offset. Only the index is held in memory, the orders of a
+ * customer are read from the segments when they are asked for. A crash never loses an
+ * order written to a segment: records missing from the index, or torn off its end, are
+ * indexed again from the segments.
+ *
+ * @version ver1.0.0
+ */
+public class OrderStore {
+    private final HashMap<String, Positions> customerOrders;
+    private boolean loaded;
+    private long nextOrderId;
+    private int currentSegment;
+    private long segmentSize;
+    private boolean segmentTorn;
+    private int lastIndexedSegment;
+    private long lastIndexedOffset;
+
+    /**
+     * Default constructor of OrderStore class, nothing is read until the store is first used.
+     */
+    public OrderStore() {
+        this.customerOrders = new HashMap<>();
+        this.loaded = false;
+        this.nextOrderId = 1;
+        this.currentSegment = 1;
+        this.segmentSize = 0;
+        this.segmentTorn = false;
+        this.lastIndexedSegment = 0;
+        this.lastIndexedOffset = 0;
+    }
+
+    /**
+     * Append an order of a customer to the log, giving it the next order ID.
+     *
+     * @param customerKey               The customer's key, its normalized email.
+     * @param order                     The order to be stored.
+     */
+    public synchronized void appendOrder(String customerKey, Order order) {
+        ensureLoaded();
+        order.setOrderId(nextOrderId++);
+
+        if (segmentSize >= Constant.ORDER_SEGMENT_MAX_SIZE) { // start a new segment
+            currentSegment++;
+            segmentSize = 0;
+            segmentTorn = false;
+        }
+        // a record torn by a crash is closed off so that it cannot swallow the new one
+        String prefix = segmentTorn ? "\n" : "";
+        String record = customerKey + Constant.STRING_FIELD_DELIMITER + order + "\n";
+        long offset = segmentSize + prefix.length();
+        new FileIO(segmentFileName(currentSegment)).appendFile(prefix + record);
+        segmentSize = offset + record.getBytes(StandardCharsets.UTF_8).length;
+        segmentTorn = false;
+
+        // written after the record, an index record lost in a crash is recovered from the segment
+        appendIndexRecord(customerKey, order.getOrderId(), currentSegment, offset);
+        addPosition(customerKey, currentSegment, offset);
+    }
+
+    /**
+     * Read all orders of a customer from the log.
+     *
+     * @param customerKey               The customer's key, its normalized email.
+     * @return                          The customer's orders, in the order they were placed.
+     */
+    public synchronized List<Order> getOrders(String customerKey) {
+        ensureLoaded();
+        Positions positions = customerOrders.get(customerKey);
+        List<Order> orders = new ArrayList<>();
+        if (positions == null) {
+            return orders;
+        }
+
+        HashMap<Integer, FileChannel> segments = new HashMap<>();
+        FileRecord record = new FileRecord();
+        try {
+            for (int i = 0; i < positions.count; i++) {
+                int segment = (int) (positions.packed[i] >>> Constant.ORDER_OFFSET_BITS);
+                long offset = positions.packed[i] & ((1L << Constant.ORDER_OFFSET_BITS) - 1);
+                FileChannel channel = segments.get(segment);
+                if (channel == null) {
+                    channel = FileChannel.open(Paths.get(segmentFileName(segment)), StandardOpenOption.READ);
+                    segments.put(segment, channel);
+                }
+                record.tokenize(readRecord(channel, offset));
+                orders.add(parseOrder(record));
+            }
+        }
+        catch (Exception e) {
+            Boundary.alertFileReadError();
+        }
+        finally {
+            for (FileChannel channel : segments.values()) {
+                try {
+                    channel.close();
+                }
+                catch (IOException e) {
+                    // only read from, nothing is lost
+                }
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Load the index on first use, then index the records of the segments written after
+     * the last indexed record.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+
+        FileIO indexFile = new FileIO(Constant.ORDER_INDEX_FILE_PATH);
+        if (indexFile.exists()) {
+            trimTornIndexRecord();
+            indexFile.readRecords(this::loadIndexRecord);
+        }
+
+        int segment = Math.max(lastIndexedSegment, 1);
+        long offset = lastIndexedOffset;
+        boolean skipFirst = lastIndexedSegment > 0; // the last indexed record itself
+        while (Files.exists(Paths.get(segmentFileName(segment)))) {
+            scanSegment(segment, offset, skipFirst);
+            segment++;
+            offset = 0;
+            skipFirst = false;
+        }
+    }
+
+    /**
+     * Cut an index record torn by a crash off the end of the index file. Unlike a torn segment
+     * record it cannot just be closed off, as a record whose offset has been cut short still
+     * reads as a valid one. Its order is indexed again from the segment.
+     */
+    private static void trimTornIndexRecord() {
+        try (FileChannel channel = FileChannel.open(Paths.get(Constant.ORDER_INDEX_FILE_PATH),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1024);
+            long end = channel.size();
+            while (end > 0) {
+                long start = Math.max(end - buffer.capacity(), 0);
+                buffer.clear().limit((int) (end - start));
+                while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) > 0) {
+                    // read the whole block
+                }
+                int lineBreak = buffer.position() - 1;
+                while (lineBreak >= 0 && buffer.get(lineBreak) != '\n') {
+                    lineBreak--;
+                }
+                if (lineBreak >= 0 || start == 0) {
+                    long completeSize = start + lineBreak + 1;
+                    if (completeSize < channel.size()) {
+                        channel.truncate(completeSize);
+                        channel.force(true);
+                    }
+                    return;
+                }
+                end = start;
+            }
+        }
+        catch (IOException e) {
+            Boundary.alertFileWriteError();
+        }
+    }
+
+    /**
+     * Load one index record.
+     *
+     * @param record                    An index file record.
+     * @return                          A boolean representing whether the record is valid.
+     */
+    private boolean loadIndexRecord(FileRecord record) {
+        try {
+            if (record.getFieldCount() != 4) {
+                return false;
+            }
+            long orderId = Long.parseLong(record.getField(1));
+            int segment = record.getIntField(2);
+            long offset = Long.parseLong(record.getField(3));
+            indexOrder(record.getField(0), orderId, segment, offset);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Scan a segment from an offset, indexing every complete record found, and make it the
+     * segment new orders are appended to.
+     *
+     * @param segment                   The segment number.
+     * @param offset                    The offset to start from.
+     * @param skipFirst                 Whether the record at the offset is already indexed.
+     */
+    private void scanSegment(int segment, long offset, boolean skipFirst) {
+        Path path = Paths.get(segmentFileName(segment));
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(path))) {
+            input.skipNBytes(offset);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = offset;
+            long lineStart = offset;
+            int b;
+            while ((b = input.read()) != -1) {
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                if (skipFirst) {
+                    skipFirst = false;
+                }
+                else if (line.size() > 0) {
+                    recoverRecord(line.toString(StandardCharsets.UTF_8), segment, lineStart);
+                }
+                line.reset();
+                lineStart = position;
+            }
+            currentSegment = segment;
+            segmentSize = position;
+            segmentTorn = line.size() > 0; // the last record was cut off by a crash
+        }
+        catch (IOException e) {
+            Boundary.alertFileReadError();
+        }
+    }
+
+    /**
+     * Index an order record found in a segment but missing from the index file.
+     *
+     * @param line                      The order record.
+     * @param segment                   The segment number.
+     * @param offset                    The record's offset in the segment.
+     */
+    private void recoverRecord(String line, int segment, long offset) {
+        FileRecord record = new FileRecord(line);
+        try {
+            if (record.getFieldCount() < Constant.ORDER_RECORD_FIELDS) {
+                return;
+            }
+            String customerKey = record.getField(0);
+            long orderId = Long.parseLong(record.getField(1));
+            indexOrder(customerKey, orderId, segment, offset);
+            appendIndexRecord(customerKey, orderId, segment, offset);
+        }
+        catch (NumberFormatException e) {
+            // not an order record, it is left out of the index
+        }
+    }
+
+    /**
+     * Add an order to the in-memory index.
+     *
+     * @param customerKey               The customer's key.
+     * @param orderId                   The order's ID.
+     * @param segment                   The segment number.
+     * @param offset                    The record's offset in the segment.
+     */
+    private void indexOrder(String customerKey, long orderId, int segment, long offset) {
+        addPosition(customerKey, segment, offset);
+        nextOrderId = Math.max(nextOrderId, orderId + 1);
+        if (segment > lastIndexedSegment || (segment == lastIndexedSegment && offset > lastIndexedOffset)) {
+            lastIndexedSegment = segment;
+            lastIndexedOffset = offset;
+        }
+    }
+
+    /**
+     * Add a record position to a customer's orders.
+     *
+     * @param customerKey               The customer's key.
+     * @param segment                   The segment number.
+     * @param offset                    The record's offset in the segment.
+     */
+    private void addPosition(String customerKey, int segment, long offset) {
+        customerOrders.computeIfAbsent(customerKey, key -> new Positions())
+                .add(((long) segment << Constant.ORDER_OFFSET_BITS) | offset);
+    }
+
+    /**
+     * Append a record to the index file.
+     *
+     * @param customerKey               The customer's key.
+     * @param orderId                   The order's ID.
+     * @param segment                   The segment number.
+     * @param offset                    The record's offset in the segment.
+     */
+    private static void appendIndexRecord(String customerKey, long orderId, int segment, long offset) {
+        new FileIO(Constant.ORDER_INDEX_FILE_PATH).appendFile(String.join(Constant.STRING_FIELD_DELIMITER,
+                new String[]{customerKey, String.valueOf(orderId), String.valueOf(segment), String.valueOf(offset)})
+                + "\n");
+    }
+
+    /**
+     * Read the record starting at an offset of a segment.
+     *
+     * @param channel                   The segment's channel.
+     * @param offset                    The record's offset.
+     * @return                          The record without its line break.
+     * @throws IOException              If the segment cannot be read.
+     */
+    private static String readRecord(FileChannel channel, long offset) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        long position = offset;
+        while (channel.read(buffer, position) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == '\n') {
+                    return line.toString(StandardCharsets.UTF_8);
+                }
+                line.write(b);
+            }
+            position += buffer.limit();
+            buffer.clear();
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse an order record.
+     *
+     * @param record                    The order record.
+     * @return                          The order.
+     */
+    private static Order parseOrder(FileRecord record) {
+        int itemCount = record.getIntField(8);
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            int field = Constant.ORDER_RECORD_FIELDS + i * Constant.ORDER_ITEM_FIELDS;
+            items.add(new OrderItem(record.getIntField(field), record.getField(field + 1),
+                    record.getIntField(field + 2), record.getMoneyField(field + 3),
+                    record.getMoneyField(field + 4)));
+        }
+        return new Order(Long.parseLong(record.getField(1)), LocalDateTime.parse(record.getField(2)), items,
+                record.getMoneyField(3), record.getMoneyField(4), record.getMoneyField(5),
+                record.getMoneyField(6), Boolean.parseBoolean(record.getField(7)));
+    }
+
+    /**
+     * Get the file name of a segment.
+     *
+     * @param segment                   The segment number.
+     * @return                          The segment's file name.
+     */
+    private static String segmentFileName(int segment) {
+        return String.format("%s%06d%s", Constant.ORDER_SEGMENT_FILE_PREFIX, segment,
+                Constant.ORDER_SEGMENT_FILE_SUFFIX);
+    }
+
+    /**
+     * Class which holds the record positions of one customer's orders, each packing the
+     * segment number above the offset in one long.
+     */
+    private static class Positions {
+        private long[] packed = new long[4];
+        private int count = 0;
+
+        /**
+         * Add a packed record position.
+         *
+         * @param position              The packed position.
+         */
+        private void add(long position) {
+            if (count == packed.length) {
+                packed = Arrays.copyOf(packed, count * 2);
+            }
+            packed[count++] = position;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class which rewrites data files in the background. Controllers only mark a file as
+ * dirty together with the task which serializes and writes it, and a burst of changes
+ * to the same file is written once, by a background thread, after the write-behind
+ * delay. The interactive flow never waits for a whole file to be rewritten.
+ *
+ * @version ver1.0.0
+ */
+public class PersistenceWriter {
+
+    private static final Map<String, Runnable> dirtyFiles = new LinkedHashMap<>();
+    private static final Object writeLock = new Object();
+    private static ScheduledExecutorService writer = null;
+    private static boolean writeScheduled = false;
+
+    /**
+     * Default constructor of PersistenceWriter class.
+     */
+    private PersistenceWriter() {
+
+    }
+
+    /**
+     * Mark a file as changed. Its write task runs once after the write-behind delay, however
+     * often the file is marked until then, and reads the latest data when it runs.
+     *
+     * @param fileName                  The file's name.
+     * @param writeTask                 The task which serializes the data and writes the file.
+     */
+    public static synchronized void markDirty(String fileName, Runnable writeTask) {
+        dirtyFiles.put(fileName, writeTask);
+        scheduleWrite();
+    }
+
+    /**
+     * Write every dirty file now, waiting for a write already in progress to finish first.
+     * When this returns, every change marked before the call has been written.
+     */
+    public static void flush() {
+        // writes run one at a time so an older write can never overwrite a newer one
+        synchronized (writeLock) {
+            Map<String, Runnable> writeTasks;
+            synchronized (PersistenceWriter.class) {
+                writeTasks = new LinkedHashMap<>(dirtyFiles);
+                dirtyFiles.clear();
+                writeScheduled = false;
+            }
+            for (Runnable writeTask : writeTasks.values()) {
+                try {
+                    writeTask.run();
+                }
+                catch (RuntimeException e) {
+                    // one failing file must not keep the others from being written
+                    Boundary.alertFileWriteError();
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedule a background write unless one is already pending.
+     */
+    private static void scheduleWrite() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "persistence-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // dirty files must not be lost when the system exits
+            Runtime.getRuntime().addShutdownHook(new Thread(PersistenceWriter::flush));
+        }
+        if (!writeScheduled) {
+            writeScheduled = true;
+            writer.schedule(PersistenceWriter::flush, Constant.WRITE_BEHIND_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+}
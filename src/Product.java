@@ -1,17 +1,25 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Class which represents product.
  *
  * @version ver1.0.0
  */
 public class Product {
-    private static int numberOfProducts = 0;
+    // sessions may create products concurrently, each must still get its own ID
+    private static final AtomicInteger numberOfProducts = new AtomicInteger();
+    // bumped after every price change, so shopping carts know when their totals are stale
+    private static final AtomicLong priceRevision = new AtomicLong();
     private int productId;
     private String name;
     private String brand;
     private String description;
-    private double price;
-    private double memberPrice;
-    private int quantity;
+    private long price; // in cents
+    private long memberPrice; // in cents
+    // on-hand quantity in the high 32 bits, quantity reserved by carts in the low 32 bits,
+    // so both change together in one compare-and-set
+    private final AtomicLong stock;
     private String category;
     private String subcategory;
 
@@ -19,14 +27,13 @@ public class Product {
      * Default constructor of Product class.
      */
     public Product(){
-        numberOfProducts++;
-        this.productId = numberOfProducts;
+        this.productId = numberOfProducts.incrementAndGet();
         this.name = "default";
         this.brand = "default";
         this.description = "default";
         this.price = 0;
         this.memberPrice = 0;
-        this.quantity = 0;
+        this.stock = new AtomicLong(packStock(0, 0));
         this.category = "Electronics";
         this.subcategory = "Books";
     }
@@ -37,21 +44,20 @@ public class Product {
      * @param name                      Product name.
      * @param brand                     Product brand.
      * @param description               Product description.
-     * @param price                     Product price.
-     * @param memberPrice               Product memberPrice.
+     * @param price                     Product price in cents.
+     * @param memberPrice               Product memberPrice in cents.
      * @param quantity                  Product quantity.
      * @param category                  Product category.
      * @param subcategory               Product subcategory.
      */
-    public Product(String name, String brand, String description, double price, double memberPrice, int quantity, String category, String subcategory) {
-        numberOfProducts++;
-        this.productId = numberOfProducts;
+    public Product(String name, String brand, String description, long price, long memberPrice, int quantity, String category, String subcategory) {
+        this.productId = numberOfProducts.incrementAndGet();
         this.name = name;
         this.brand = brand;
         this.description = description;
         this.price = price;
         this.memberPrice = memberPrice;
-        this.quantity = quantity;
+        this.stock = new AtomicLong(packStock(quantity, 0));
         this.category = category;
         this.subcategory = subcategory;
     }
@@ -63,21 +69,22 @@ public class Product {
      * @param name                      Product name.
      * @param brand                     Product brand.
      * @param description               Product description.
-     * @param price                     Product price.
-     * @param memberPrice               Product memberPrice.
+     * @param price                     Product price in cents.
+     * @param memberPrice               Product memberPrice in cents.
      * @param quantity                  Product quantity.
      * @param category                  Product category.
      * @param subcategory               Product subcategory.
      */
-    public Product(int productId, String name, String brand, String description, double price, double memberPrice, int quantity, String category, String subcategory) {
-        numberOfProducts++;
+    public Product(int productId, String name, String brand, String description, long price, long memberPrice, int quantity, String category, String subcategory) {
+        // new products are numbered after the largest ID seen, rebuilding an existing product changes nothing
+        numberOfProducts.accumulateAndGet(productId, Math::max);
         this.productId = productId;
         this.name = name;
         this.brand = brand;
         this.description = description;
         this.price = price;
         this.memberPrice = memberPrice;
-        this.quantity = quantity;
+        this.stock = new AtomicLong(packStock(quantity, 0));
         this.category = category;
         this.subcategory = subcategory;
     }
@@ -97,7 +104,7 @@ public class Product {
         this.description = product.getDescription();
         this.price = product.getPrice();
         this.memberPrice = product.getMemberPrice();
-        this.quantity = product.getQuantity();
+        this.stock = product.stock; // the changed product keeps the same stock and reservations
         this.category = category;
         this.subcategory = subcategory;
     }
@@ -117,7 +124,7 @@ public class Product {
         this.description = product.getDescription();
         this.price = product.getPrice();
         this.memberPrice = product.getMemberPrice();
-        this.quantity = product.getQuantity();
+        this.stock = ((Product) product).stock; // the changed product keeps the same stock and reservations
         this.category = category;
         this.subcategory = subcategory;
     }
@@ -197,37 +204,49 @@ public class Product {
     /**
      * Getter method for product price.
      *
-     * @return                         The product price.
+     * @return                         The product price in cents.
      */
-    public double getPrice() {
+    public long getPrice() {
         return price;
     }
 
     /**
      * Setter method for product price.
      *
-     * @param price                   New product price.
+     * @param price                   New product price in cents.
      */
-    public void setPrice(double price) {
+    public void setPrice(long price) {
         this.price = price;
+        priceRevision.incrementAndGet();
     }
 
     /**
      * Getter method for product member price.
      *
-     * @return                        The product member price.
+     * @return                        The product member price in cents.
      */
-    public double getMemberPrice() {
+    public long getMemberPrice() {
         return memberPrice;
     }
 
     /**
      * Setter method for product member price.
      *
-     * @param memberPrice             New product member price.
+     * @param memberPrice             New product member price in cents.
      */
-    public void setMemberPrice(double memberPrice) {
+    public void setMemberPrice(long memberPrice) {
         this.memberPrice = memberPrice;
+        priceRevision.incrementAndGet();
+    }
+
+    /**
+     * Get the price revision, which changes whenever the price or member price of any
+     * product is changed.
+     *
+     * @return                        The current price revision.
+     */
+    public static long getPriceRevision() {
+        return priceRevision.get();
     }
 
     /**
@@ -236,16 +255,125 @@ public class Product {
      * @return                        The product quantity.
      */
     public int getQuantity() {
-        return quantity;
+        return onHandOf(stock.get());
     }
 
     /**
-     * Setter method for product quantity.
+     * Setter method for product quantity, the reserved quantity is kept.
      *
      * @param quantity             New product quantity.
      */
     public void setQuantity(int quantity) {
-        this.quantity = quantity;
+        long current;
+        do {
+            current = stock.get();
+        } while (!stock.compareAndSet(current, packStock(quantity, reservedOf(current))));
+    }
+
+    /**
+     * Get the quantity which is neither sold nor reserved by a shopping cart.
+     *
+     * @return                     The available quantity.
+     */
+    public int getAvailableQuantity() {
+        long current = stock.get();
+        return Math.max(onHandOf(current) - reservedOf(current), 0);
+    }
+
+    /**
+     * Reserve a quantity for a shopping cart if that much is available.
+     *
+     * @param amount               The quantity to be reserved.
+     * @return                     A boolean, true if the quantity has been reserved.
+     */
+    public boolean reserveStock(int amount) {
+        while (true) {
+            long current = stock.get();
+            int onHand = onHandOf(current);
+            int reserved = reservedOf(current);
+            if (onHand - reserved < amount) {
+                return false;
+            }
+            if (stock.compareAndSet(current, packStock(onHand, reserved + amount))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Give back a quantity reserved by a shopping cart.
+     *
+     * @param amount               The reserved quantity to be released.
+     */
+    public void releaseStock(int amount) {
+        long current;
+        do {
+            current = stock.get();
+        } while (!stock.compareAndSet(current, packStock(onHandOf(current),
+                reservedOf(current) - Math.min(amount, reservedOf(current)))));
+    }
+
+    /**
+     * Sell a reserved quantity, taking it off both the on-hand and the reserved quantity.
+     *
+     * @param amount               The reserved quantity to be sold.
+     * @return                     A boolean, false if the stock has been cut below the quantity meanwhile.
+     */
+    public boolean commitStock(int amount) {
+        while (true) {
+            long current = stock.get();
+            int onHand = onHandOf(current);
+            int reserved = reservedOf(current);
+            if (onHand < amount || reserved < amount) {
+                return false;
+            }
+            if (stock.compareAndSet(current, packStock(onHand - amount, reserved - amount))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Undo a committed sale, putting the quantity back as on-hand and reserved.
+     *
+     * @param amount               The sold quantity to be put back.
+     */
+    public void revertStock(int amount) {
+        long current;
+        do {
+            current = stock.get();
+        } while (!stock.compareAndSet(current, packStock(onHandOf(current) + amount, reservedOf(current) + amount)));
+    }
+
+    /**
+     * Pack an on-hand and a reserved quantity into one stock value.
+     *
+     * @param onHand               The on-hand quantity.
+     * @param reserved             The reserved quantity.
+     * @return                     The stock value.
+     */
+    private static long packStock(int onHand, int reserved) {
+        return ((long) onHand << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get the on-hand quantity of a stock value.
+     *
+     * @param stock                The stock value.
+     * @return                     The on-hand quantity.
+     */
+    private static int onHandOf(long stock) {
+        return (int) (stock >> 32);
+    }
+
+    /**
+     * Get the reserved quantity of a stock value.
+     *
+     * @param stock                The stock value.
+     * @return                     The reserved quantity.
+     */
+    private static int reservedOf(long stock) {
+        return (int) stock;
     }
 
     /**
@@ -302,7 +430,7 @@ public class Product {
     @Override
     public String toString() {
         return String.join(Constant.STRING_FIELD_DELIMITER, new String[]{String.valueOf(productId), name, brand, description,
-                String.valueOf(price), String.valueOf(memberPrice), String.valueOf(quantity), category,
+                Money.toPlainString(price), Money.toPlainString(memberPrice), String.valueOf(getQuantity()), category,
                 subcategory});
     }
 
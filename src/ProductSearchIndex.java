@@ -0,0 +1,178 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Class which keeps an inverted index from words to the products containing them,
+ * over product name, brand, description and food ingredients, for keyword search.
+ * Each posting carries a weight depending on which fields the word appears in.
+ *
+ * @version ver1.0.0
+ */
+public class ProductSearchIndex {
+    private final HashMap<String, Posting> postings;
+    private final IntObjectMap<Posting[]> productPostings;
+
+    /**
+     * Default constructor of ProductSearchIndex class.
+     */
+    public ProductSearchIndex() {
+        this.postings = new HashMap<>();
+        this.productPostings = new IntObjectMap<>();
+    }
+
+    /**
+     * Index a product, replacing whatever was indexed for its ID before.
+     *
+     * @param product                   The product to be indexed.
+     */
+    public void indexProduct(Product product) {
+        int productID = product.getProductId();
+        removeProduct(productID);
+
+        HashMap<String, Integer> weights = new HashMap<>();
+        addTerms(weights, product.getName(), Constant.SEARCH_WEIGHT_NAME);
+        addTerms(weights, product.getBrand(), Constant.SEARCH_WEIGHT_BRAND);
+        addTerms(weights, product.getDescription(), Constant.SEARCH_WEIGHT_DESCRIPTION);
+        if (product.isFoodProduct()) {
+            addTerms(weights, ((FoodProduct) product).getIngredients(), Constant.SEARCH_WEIGHT_INGREDIENTS);
+        }
+
+        // products keep their postings rather than their words, so word strings are not duplicated
+        Posting[] indexed = new Posting[weights.size()];
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            Posting posting = postings.computeIfAbsent(entry.getKey(), Posting::new);
+            posting.weights.put(productID, entry.getValue());
+            indexed[count++] = posting;
+        }
+        productPostings.put(productID, indexed);
+    }
+
+    /**
+     * Remove a product from the index.
+     *
+     * @param productID                 The product's ID.
+     */
+    public void removeProduct(int productID) {
+        Posting[] indexed = productPostings.remove(productID);
+        if (indexed == null) {
+            return;
+        }
+        for (Posting posting : indexed) {
+            posting.weights.remove(productID);
+            if (posting.weights.size() == 0) {
+                postings.remove(posting.term);
+            }
+        }
+    }
+
+    /**
+     * Search the products containing all words of a query.
+     *
+     * @param query                     The search keywords.
+     * @return                          IDs of the matched products, highest weight first, ties by ID.
+     */
+    public int[] search(String query) {
+        ArrayList<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return new int[0];
+        }
+
+        ArrayList<IntObjectMap<Integer>> matched = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Posting posting = postings.get(term);
+            if (posting == null) { // a word no product contains
+                return new int[0];
+            }
+            matched.add(posting.weights);
+        }
+        // walk the rarest word's products and probe the others
+        matched.sort(Comparator.comparingInt(IntObjectMap::size));
+
+        IntObjectMap<Integer> rarest = matched.get(0);
+        int[] candidates = rarest.keys();
+        long[] ranked = new long[candidates.length];
+        int count = 0;
+        for (int productID : candidates) {
+            int weight = rarest.get(productID);
+            for (int idx = 1; idx < matched.size() && weight > 0; idx++) {
+                Integer termWeight = matched.get(idx).get(productID);
+                weight = termWeight == null ? 0 : weight + termWeight;
+            }
+            if (weight > 0) {
+                // sort key: higher weight first, then lower ID, packed to sort primitives
+                ranked[count++] = ((long) (Integer.MAX_VALUE - weight) << 32) | (productID & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(ranked, 0, count);
+
+        int[] result = new int[count];
+        for (int idx = 0; idx < count; idx++) {
+            result[idx] = (int) ranked[idx];
+        }
+        return result;
+    }
+
+    /**
+     * Add the words of a field to a product's word weights.
+     *
+     * @param weights                   The product's word weights.
+     * @param text                      The field content.
+     * @param weight                    The field's weight.
+     */
+    private static void addTerms(HashMap<String, Integer> weights, String text, int weight) {
+        if (text == null) {
+            return;
+        }
+        // a word counts once per field, however often it is repeated
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * Split a text into distinct lower case words of letters and digits.
+     *
+     * @param text                      The text.
+     * @return                          The distinct words in order of first appearance.
+     */
+    private static LinkedHashSet<String> tokenize(String text) {
+        LinkedHashSet<String> terms = new LinkedHashSet<>();
+        int length = text.length();
+        int start = -1;
+        for (int idx = 0; idx <= length; idx++) {
+            boolean wordChar = idx < length && Character.isLetterOrDigit(text.charAt(idx));
+            if (wordChar && start < 0) {
+                start = idx;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, idx).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Class which holds the products containing one word, with the word's weight in each.
+     */
+    private static class Posting {
+        private final String term;
+        private final IntObjectMap<Integer> weights;
+
+        /**
+         * Constructor of Posting class.
+         *
+         * @param term                  The word.
+         */
+        private Posting(String term) {
+            this.term = term;
+            // most words only appear in a few products, so posting maps start small
+            this.weights = new IntObjectMap<>(1);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+/**
+ * Class which keeps a binary snapshot of the inventory file. Every product takes the
+ * same number of bytes, and food fields are zero for other products.
+ *
+ * @version ver1.0.0
+ */
+public class ProductSnapshot extends BinarySnapshot<Product> {
+    private static final int RECORD_TYPE = 1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final CategoryDictionary categories;
+
+    /**
+     * Constructor of ProductSnapshot class.
+     *
+     * @param categories                The category dictionary loaded products share category names with.
+     */
+    public ProductSnapshot(CategoryDictionary categories) {
+        super(Constant.PRODUCT_SNAPSHOT_FILE_PATH, Constant.INVENTORY_FILE_PATH, RECORD_TYPE);
+        this.categories = categories;
+    }
+
+    @Override
+    protected void writeRecord(DataOutputStream output, Product product, StringTable strings) throws IOException {
+        output.writeInt(product.getProductId());
+        output.writeLong(product.getPrice());
+        output.writeLong(product.getMemberPrice());
+        output.writeInt(product.getQuantity());
+        output.writeInt(strings.add(product.getName()));
+        output.writeInt(strings.addSymbol(product.getBrand()));
+        output.writeInt(strings.add(product.getDescription()));
+        output.writeInt(strings.addSymbol(product.getCategory()));
+        output.writeInt(strings.addSymbol(product.getSubcategory()));
+        if (product.isFoodProduct()) {
+            FoodProduct food = (FoodProduct) product;
+            output.writeBoolean(true);
+            LocalDate expirationDate = food.getExpirationDate();
+            output.writeInt(expirationDate == null ? NO_DATE : (int) expirationDate.toEpochDay());
+            output.writeInt(strings.add(food.getIngredients()));
+            output.writeInt(strings.add(food.getStorageInstructions()));
+            output.writeInt(strings.add(food.getAllergenInfo()));
+        } else {
+            output.writeBoolean(false);
+            output.writeInt(NO_DATE);
+            output.writeInt(-1);
+            output.writeInt(-1);
+            output.writeInt(-1);
+        }
+    }
+
+    @Override
+    protected Product readRecord(ByteBuffer input, String[] strings) {
+        int productID = input.getInt();
+        long price = input.getLong();
+        long memberPrice = input.getLong();
+        int quantity = input.getInt();
+        String name = getString(strings, input.getInt());
+        String brand = getString(strings, input.getInt());
+        String description = getString(strings, input.getInt());
+        // share one instance of each category and subcategory name across products
+        String category = categories.internCategory(getString(strings, input.getInt()));
+        String subcategory = categories.internSubcategory(category, getString(strings, input.getInt()));
+        boolean food = input.get() != 0;
+        int expirationDay = input.getInt();
+        String ingredients = getString(strings, input.getInt());
+        String storageInstructions = getString(strings, input.getInt());
+        String allergenInfo = getString(strings, input.getInt());
+        if (!food) {
+            return new Product(productID, name, brand, description, price, memberPrice, quantity, category, subcategory);
+        }
+        return new FoodProduct(productID, name, brand, description, price, memberPrice, quantity, category, subcategory,
+                expirationDay == NO_DATE ? null : LocalDate.ofEpochDay(expirationDay), ingredients,
+                storageInstructions, allergenInfo);
+    }
+}
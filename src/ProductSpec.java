@@ -0,0 +1,170 @@
+import java.time.LocalDate;
+
+/**
+ * Class which describes a product to be created, without giving it a product ID yet.
+ * The details of food products are only used for the food and beverage categories.
+ *
+ * @version ver1.0.0
+ */
+public class ProductSpec {
+    private final String category;
+    private final String subcategory;
+    private final String name;
+    private final String brand;
+    private final String description;
+    private final long price; // in cents
+    private final long memberPrice; // in cents
+    private final int quantity;
+    private LocalDate expiryDate;
+    private String ingredients;
+    private String storageInstructions;
+    private String allergenInfo;
+
+    /**
+     * Constructor of ProductSpec class.
+     *
+     * @param category                  Product category, in any case.
+     * @param subcategory               Product subcategory, in any case.
+     * @param name                      Product name.
+     * @param brand                     Product brand, empty or null if not specified.
+     * @param description               Product description, empty or null if not specified.
+     * @param price                     Product price in cents.
+     * @param memberPrice               Product member price in cents.
+     * @param quantity                  Product quantity.
+     */
+    public ProductSpec(String category, String subcategory, String name, String brand, String description,
+                       long price, long memberPrice, int quantity) {
+        this.category = category;
+        this.subcategory = subcategory;
+        this.name = name;
+        this.brand = brand;
+        this.description = description;
+        this.price = price;
+        this.memberPrice = memberPrice;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Set the details of a food product.
+     *
+     * @param expiryDate                The expiry date.
+     * @param ingredients               The ingredients, empty or null if not specified.
+     * @param storageInstructions       The storage instructions, empty or null if not specified.
+     * @param allergenInfo              The allergen info, empty or null if not specified.
+     */
+    public void setFoodDetails(LocalDate expiryDate, String ingredients, String storageInstructions,
+                               String allergenInfo) {
+        this.expiryDate = expiryDate;
+        this.ingredients = ingredients;
+        this.storageInstructions = storageInstructions;
+        this.allergenInfo = allergenInfo;
+    }
+
+    /**
+     * Getter method for category.
+     *
+     * @return                          The category.
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Getter method for subcategory.
+     *
+     * @return                          The subcategory.
+     */
+    public String getSubcategory() {
+        return subcategory;
+    }
+
+    /**
+     * Getter method for name.
+     *
+     * @return                          The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter method for brand.
+     *
+     * @return                          The brand.
+     */
+    public String getBrand() {
+        return brand;
+    }
+
+    /**
+     * Getter method for description.
+     *
+     * @return                          The description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Getter method for price.
+     *
+     * @return                          The price in cents.
+     */
+    public long getPrice() {
+        return price;
+    }
+
+    /**
+     * Getter method for memberPrice.
+     *
+     * @return                          The member price in cents.
+     */
+    public long getMemberPrice() {
+        return memberPrice;
+    }
+
+    /**
+     * Getter method for quantity.
+     *
+     * @return                          The quantity.
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Getter method for expiryDate.
+     *
+     * @return                          The expiry date, null if not set.
+     */
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    /**
+     * Getter method for ingredients.
+     *
+     * @return                          The ingredients.
+     */
+    public String getIngredients() {
+        return ingredients;
+    }
+
+    /**
+     * Getter method for storageInstructions.
+     *
+     * @return                          The storage instructions.
+     */
+    public String getStorageInstructions() {
+        return storageInstructions;
+    }
+
+    /**
+     * Getter method for allergenInfo.
+     *
+     * @return                          The allergen info.
+     */
+    public String getAllergenInfo() {
+        return allergenInfo;
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.function.Consumer;
+
+/**
+ * Interface of the storage engines keeping the inventory's products ordered by ID.
+ * InventoryControl runs the reading calls (get, getAt, size and forEach) concurrently with each
+ * other, but every other call alone, so implementations only need to keep their reads safe
+ * from each other, e.g. where a read caches what it built.
+ *
+ * @version ver1.0.0
+ */
+public interface ProductStore {
+
+    /**
+     * Add a product read from the inventory file, in any order.
+     *
+     * @param product                       The loaded product.
+     */
+    void load(Product product);
+
+    /**
+     * Order the loaded products by ID, called once after the inventory file has been read.
+     */
+    void finishLoading();
+
+    /**
+     * Get a product by its ID.
+     *
+     * @param productID                     The product's ID.
+     * @return                              The product, or null if there is no such product.
+     */
+    Product get(int productID);
+
+    /**
+     * Get the product at a position of the ID order.
+     *
+     * @param position                      The position, from 0 to size() - 1.
+     * @return                              The product.
+     */
+    Product getAt(int position);
+
+    /**
+     * Get the number of products.
+     *
+     * @return                              The number of products.
+     */
+    int size();
+
+    /**
+     * Add a product, keeping the ID order.
+     *
+     * @param product                       The product to be added.
+     */
+    void add(Product product);
+
+    /**
+     * Replace a product with another object of the same ID, e.g. after a type change.
+     *
+     * @param oldProduct                    The product currently in the store.
+     * @param newProduct                    The product replacing it.
+     * @return                              A boolean, false if the old product is not in the store any more.
+     */
+    boolean replace(Product oldProduct, Product newProduct);
+
+    /**
+     * Remove a product.
+     *
+     * @param product                       The product to be removed.
+     * @return                              A boolean, false if the product is not in the store any more.
+     */
+    boolean remove(Product product);
+
+    /**
+     * Store the current field values of a product which has been changed through its setters.
+     *
+     * @param product                       The changed product.
+     */
+    void update(Product product);
+
+    /**
+     * Pass every product to an action, in ID order.
+     *
+     * @param action                        The action.
+     */
+    void forEach(Consumer<Product> action);
+}
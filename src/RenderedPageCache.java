@@ -0,0 +1,134 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class which keeps the rendered text of product cards and whole inventory pages, so paging
+ * through an unchanged catalog copies text instead of formatting every product again.
+ *
+ * Every change of the catalog bumps a version counter. A page is only served at the version
+ * it was rendered at, while a card is only dropped when its own product changes. Everything
+ * rendered is stamped with the version read before the products were read, so a text rendered
+ * from data a concurrent change has since replaced is never kept. A full map is emptied, so
+ * the cache stays bounded however large the catalog is.
+ *
+ * @version ver1.0.0
+ */
+public class RenderedPageCache {
+    private final AtomicLong version;
+    private final ConcurrentHashMap<Integer, Rendered> cards;
+    private final ConcurrentHashMap<Integer, Rendered> pages;
+    private volatile long cardsClearedAt;
+
+    /**
+     * Default constructor of RenderedPageCache class.
+     */
+    public RenderedPageCache() {
+        this.version = new AtomicLong();
+        this.cards = new ConcurrentHashMap<>();
+        this.pages = new ConcurrentHashMap<>();
+        this.cardsClearedAt = 0;
+    }
+
+    /**
+     * Get the current catalog version, to be read before the products that are rendered.
+     *
+     * @return                          The catalog version.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Record a change of a product, after the change is visible to readers.
+     * All pages and the product's card become outdated.
+     *
+     * @param productID                 The created, edited, removed or sold product's ID.
+     */
+    public void productChanged(int productID) {
+        long changedAt = version.incrementAndGet();
+        // the marker keeps renders which started before the change from being stored
+        cards.put(productID, new Rendered(changedAt, null));
+    }
+
+    /**
+     * Get the rendered card of a product.
+     *
+     * @param productID                 The product's ID.
+     * @return                          The card's text, null if it has to be rendered.
+     */
+    public String getCard(int productID) {
+        Rendered card = cards.get(productID);
+        return card == null ? null : card.text;
+    }
+
+    /**
+     * Keep the rendered card of a product, unless the product changed after the render started.
+     *
+     * @param productID                 The product's ID.
+     * @param renderedAt                The catalog version read before the product was read.
+     * @param text                      The card's text.
+     */
+    public void putCard(int productID, long renderedAt, String text) {
+        if (cards.size() >= Constant.RENDERED_CARD_CACHE_LIMIT) {
+            // change markers go too, so renders which started before this point are not accepted any more
+            cardsClearedAt = version.get();
+            cards.clear();
+        }
+        if (renderedAt < cardsClearedAt) {
+            return;
+        }
+        Rendered card = new Rendered(renderedAt, text);
+        cards.merge(productID, card, (current, rendered) -> current.version > rendered.version ? current : rendered);
+        if (renderedAt < cardsClearedAt) { // cleared along with a newer marker in the meantime
+            cards.remove(productID, card);
+        }
+    }
+
+    /**
+     * Get a rendered inventory page.
+     *
+     * @param page                      The page number.
+     * @param currentVersion            The catalog version read before calling.
+     * @return                          The page's text, null if it has to be rendered.
+     */
+    public String getPage(int page, long currentVersion) {
+        Rendered rendered = pages.get(page);
+        return rendered == null || rendered.version != currentVersion ? null : rendered.text;
+    }
+
+    /**
+     * Keep a rendered inventory page.
+     *
+     * @param page                      The page number.
+     * @param renderedAt                The catalog version read before the page's products were read.
+     * @param text                      The page's text.
+     */
+    public void putPage(int page, long renderedAt, String text) {
+        if (renderedAt != version.get()) {
+            return;
+        }
+        if (pages.size() >= Constant.RENDERED_PAGE_CACHE_LIMIT) {
+            pages.clear();
+        }
+        pages.put(page, new Rendered(renderedAt, text));
+    }
+
+    /**
+     * Class which holds a rendered text with the catalog version it was rendered at.
+     */
+    private static class Rendered {
+        private final long version;
+        private final String text;
+
+        /**
+         * Constructor of Rendered class.
+         *
+         * @param version               The catalog version.
+         * @param text                  The text, null for a marker of a change.
+         */
+        private Rendered(long version, String text) {
+            this.version = version;
+            this.text = text;
+        }
+    }
+}
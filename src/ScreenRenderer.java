@@ -0,0 +1,228 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Formatter;
+
+/**
+ * Class which composes the output of a session screen by screen. Printed text is collected
+ * in a reused buffer, and a whole screen is written to the sink with a single call when the
+ * session waits for the next input, instead of one write per printed line. A renderer nobody
+ * reads input for, e.g. the console in batch and network modes, can flush after every print
+ * instead, so nothing stays in the buffer. Every call is
+ * synchronized, as the console's renderer is shared by all threads without a session of their
+ * own, e.g. data loaders, background writers and HTTP handlers reporting errors.
+ *
+ * @version ver1.0.0
+ */
+public class ScreenRenderer {
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final char[] SPACES = new char[256];
+
+    static {
+        Arrays.fill(SPACES, ' ');
+    }
+
+    private final PrintStream sink;
+    private final boolean discarding;
+    private final StringBuilder buffer;
+    private final Formatter formatter;
+    private volatile boolean autoFlush;
+
+    /**
+     * Constructor of ScreenRenderer class.
+     *
+     * @param sink                      The stream the composed screens are written to, null to discard them.
+     */
+    public ScreenRenderer(PrintStream sink) {
+        this(sink, sink == null);
+    }
+
+    /**
+     * Constructor of ScreenRenderer class.
+     *
+     * @param sink                      The stream the composed screens are written to, null to keep them.
+     * @param discarding                Whether everything printed is discarded.
+     */
+    private ScreenRenderer(PrintStream sink, boolean discarding) {
+        this.sink = sink;
+        this.discarding = discarding;
+        this.buffer = new StringBuilder(Constant.SCREEN_BUFFER_SIZE);
+        this.formatter = new Formatter(buffer);
+    }
+
+    /**
+     * Create a renderer which discards everything printed to it without formatting it.
+     *
+     * @return                          The discarding renderer.
+     */
+    public static ScreenRenderer discarding() {
+        return new ScreenRenderer(null);
+    }
+
+    /**
+     * Create a renderer which never writes anything, so the printed text can be taken from it,
+     * e.g. to keep rendered text for later screens.
+     *
+     * @return                          The capturing renderer.
+     */
+    public static ScreenRenderer capturing() {
+        return new ScreenRenderer(null, false);
+    }
+
+    /**
+     * Set whether every print is written and flushed at once, for a renderer whose session
+     * never waits for input, which would flush it.
+     *
+     * @param autoFlush                 Whether every print is flushed.
+     */
+    public void setAutoFlush(boolean autoFlush) {
+        this.autoFlush = autoFlush;
+    }
+
+    /**
+     * Check whether everything printed is discarded, so the caller can skip preparing it.
+     *
+     * @return                          A boolean, true if the renderer discards its output.
+     */
+    public boolean isDiscarding() {
+        return discarding;
+    }
+
+    /**
+     * Get the position in the composed text, to take the text printed after it from a
+     * capturing renderer.
+     *
+     * @return                          The number of characters composed so far.
+     */
+    public synchronized int mark() {
+        return buffer.length();
+    }
+
+    /**
+     * Take the text printed to a capturing renderer since a mark, and remove it.
+     *
+     * @param mark                      The position returned by mark.
+     * @return                          The text.
+     */
+    public synchronized String takeText(int mark) {
+        String text = buffer.substring(mark);
+        buffer.setLength(mark);
+        return text;
+    }
+
+    /**
+     * Print a text.
+     *
+     * @param text                      The text.
+     */
+    public synchronized void print(CharSequence text) {
+        if (discarding) {
+            return;
+        }
+        buffer.append(text);
+        writeIfDue();
+    }
+
+    /**
+     * Print a part of a text.
+     *
+     * @param text                      The text.
+     * @param start                     Index of the first character printed.
+     * @param end                       Index after the last character printed.
+     */
+    public synchronized void print(CharSequence text, int start, int end) {
+        if (discarding) {
+            return;
+        }
+        buffer.append(text, start, end);
+        writeIfDue();
+    }
+
+    /**
+     * Print a text and end the line.
+     *
+     * @param text                      The text.
+     */
+    public synchronized void println(CharSequence text) {
+        if (discarding) {
+            return;
+        }
+        buffer.append(text).append(LINE_SEPARATOR);
+        writeIfDue();
+    }
+
+    /**
+     * End the line.
+     */
+    public synchronized void println() {
+        if (discarding) {
+            return;
+        }
+        buffer.append(LINE_SEPARATOR);
+        writeIfDue();
+    }
+
+    /**
+     * Print a formatted text, like PrintStream.printf.
+     *
+     * @param format                    The format string.
+     * @param args                      The arguments referenced by the format string.
+     */
+    public synchronized void printf(String format, Object... args) {
+        if (discarding) {
+            return;
+        }
+        formatter.format(format, args);
+        writeIfDue();
+    }
+
+    /**
+     * Print a number of spaces, e.g. to align a value to the end of a line.
+     *
+     * @param count                     The number of spaces, nothing is printed if it is not positive.
+     */
+    public synchronized void printSpaces(int count) {
+        if (discarding) {
+            return;
+        }
+        for (int remaining = count; remaining > 0; remaining -= SPACES.length) {
+            buffer.append(SPACES, 0, Math.min(remaining, SPACES.length));
+        }
+        writeIfDue();
+    }
+
+    /**
+     * Write the composed output to the sink and flush the sink.
+     */
+    public synchronized void flush() {
+        if (sink == null) {
+            return;
+        }
+        write();
+        sink.flush();
+    }
+
+    /**
+     * Write the composed output to the sink once the buffer is full, e.g. during a batch
+     * which does not wait for the user between screens, or at once if every print is flushed.
+     */
+    private void writeIfDue() {
+        if (sink == null) {
+            return;
+        }
+        if (autoFlush) {
+            flush();
+        } else if (buffer.length() >= Constant.SCREEN_BUFFER_SIZE) {
+            write();
+        }
+    }
+
+    /**
+     * Write the composed output to the sink and start a new screen in the same buffer.
+     */
+    private void write() {
+        if (buffer.length() > 0) {
+            sink.append(buffer);
+            buffer.setLength(0);
+        }
+    }
+}
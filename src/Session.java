@@ -0,0 +1,124 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.NoSuchElementException;
+
+/**
+ * Class which represents the input and output of one user session. The session bound to
+ * the current thread is used by Input and Boundary, threads without a bound session use
+ * the console.
+ *
+ * @version ver1.0.0
+ */
+public class Session {
+
+    private static volatile Session console = new Session(new BufferedReader(new InputStreamReader(System.in)), System.out);
+    private static final ThreadLocal<Session> boundSession = new ThreadLocal<>();
+
+    private final BufferedReader input;
+    private final ScreenRenderer output;
+    private final boolean interactive;
+    private long linesRead;
+
+    /**
+     * Constructor of Session class.
+     *
+     * @param input                     Reader of the user's input lines.
+     * @param output                    Stream of the output shown to the user.
+     */
+    public Session(BufferedReader input, PrintStream output) {
+        this(input, new ScreenRenderer(output), true);
+    }
+
+    /**
+     * Constructor of Session class.
+     *
+     * @param input                     Reader of the user's input lines.
+     * @param output                    Renderer of the output shown to the user.
+     * @param interactive               Whether a user waits for the output before typing the next line,
+     *                                  otherwise the output is only written when its buffer fills up.
+     */
+    public Session(BufferedReader input, ScreenRenderer output, boolean interactive) {
+        this.input = input;
+        this.output = output;
+        this.interactive = interactive;
+        this.linesRead = 0;
+    }
+
+    /**
+     * Get the session of the current thread.
+     *
+     * @return                          The bound session, or the console session if none is bound.
+     */
+    public static Session current() {
+        Session session = boundSession.get();
+        return session != null ? session : console;
+    }
+
+    /**
+     * Replace the console session, used by every thread without a bound session, e.g. by a batch.
+     *
+     * @param session                   The new console session.
+     */
+    public static void setConsole(Session session) {
+        console = session;
+    }
+
+    /**
+     * Bind a session to the current thread.
+     *
+     * @param session                   The session to be bound.
+     */
+    public static void bind(Session session) {
+        boundSession.set(session);
+    }
+
+    /**
+     * Unbind the session of the current thread.
+     */
+    public static void unbind() {
+        boundSession.remove();
+    }
+
+    /**
+     * Read the next input line, showing the composed screen to the user first.
+     *
+     * @return                          The input line.
+     * @throws NoSuchElementException   If the input has ended.
+     */
+    public String readLine() {
+        if (interactive) {
+            output.flush();
+        }
+        try {
+            String line = input.readLine();
+            if (line != null) {
+                linesRead++;
+                return line;
+            }
+        }
+        catch (IOException e) {
+            // a broken connection ends the input just like a closed one
+        }
+        throw new NoSuchElementException("No line found");
+    }
+
+    /**
+     * Getter method for output.
+     *
+     * @return                          Renderer of the output shown to the user.
+     */
+    public ScreenRenderer getOutput() {
+        return output;
+    }
+
+    /**
+     * Getter method for linesRead.
+     *
+     * @return                          Number of input lines read so far.
+     */
+    public long getLinesRead() {
+        return linesRead;
+    }
+}
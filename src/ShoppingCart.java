@@ -1,17 +1,27 @@
 import java.util.ArrayList;
 /**
- * Class which represents shopping cart.
+ * Class which represents shopping cart. The cart keeps running totals of its items,
+ * updated as items are added or changed, and only sums the items again after a product
+ * price has been changed. Items are kept in the order they were added and are also
+ * indexed by product ID, so looking up or updating an item does not scan the cart.
  *
  * @version ver1.0.0
  */
 public class ShoppingCart {
     private final ArrayList<Item> itemList;
+    private final IntObjectMap<Item> itemIndex;
+    private long totalPrice; // in cents
+    private long totalMemberPrice; // in cents
+    private long memberDiscount; // in cents
+    private long priceRevision;
 
     /**
      * Default constructor for ShoppingCart class.
      */
     public ShoppingCart() {
         this.itemList = new ArrayList<>();
+        this.itemIndex = new IntObjectMap<>();
+        this.priceRevision = Product.getPriceRevision();
     }
 
     /**
@@ -21,6 +31,13 @@ public class ShoppingCart {
      */
     public ShoppingCart(ArrayList<Item> itemList) {
         this.itemList = itemList;
+        this.itemIndex = new IntObjectMap<>(itemList.size());
+        for (Item item : itemList) {
+            if (!itemIndex.containsKey(item.getProduct().getProductId())) {
+                itemIndex.put(item.getProduct().getProductId(), item);
+            }
+        }
+        recomputeTotals();
     }
 
     /**
@@ -35,42 +52,66 @@ public class ShoppingCart {
     /**
      * Get the shopping cart's total price.
      *
-     * @return                          The total price of the items in the cart.
+     * @return                          The total price in cents of the items in the cart.
      */
-    public double getTotalPrice() {
-        double price = (double) 0;
-        for (Item item : itemList) {
-            price += item.getTotalPrice();
-        }
-        return price;
+    public long getTotalPrice() {
+        checkPriceRevision();
+        return totalPrice;
     }
 
     /**
      * Get the shopping cart's total member price.
      *
-     * @return                           The total member price of the items in the cart.
+     * @return                           The total member price in cents of the items in the cart.
      */
-    public double getTotalMemberPrice() {
-        double price = (double) 0;
-        for (Item item : itemList) {
-            price += item.getTotalMemberPrice();
-        }
-        return price;
+    public long getTotalMemberPrice() {
+        checkPriceRevision();
+        return totalMemberPrice;
     }
 
     /**
      * Get the shopping cart's total member discount.
      *
-     * @return                            The total member discount of the items in the cart.
+     * @return                            The total member discount in cents of the items in the cart.
      */
-    public double getMemberDiscount() {
-        double discount = (double) 0;
+    public long getMemberDiscount() {
+        checkPriceRevision();
+        return memberDiscount;
+    }
+
+    /**
+     * Sum the items again if a product price has been changed since the totals were computed.
+     */
+    private void checkPriceRevision() {
+        if (priceRevision != Product.getPriceRevision()) {
+            recomputeTotals();
+        }
+    }
+
+    /**
+     * Compute the running totals from all items.
+     */
+    private void recomputeTotals() {
+        // read before the prices, a price changed meanwhile leaves the totals stale again
+        priceRevision = Product.getPriceRevision();
+        totalPrice = 0;
+        totalMemberPrice = 0;
+        memberDiscount = 0;
         for (Item item : itemList) {
-            Product product = item.getProduct();
-            discount += (product.getPrice() - product.getMemberPrice()) *
-                         item.getQuantity();
+            addToTotals(item.getProduct(), item.getQuantity());
         }
-        return discount;
+    }
+
+    /**
+     * Add some pieces of a product to the running totals, negative quantities subtract them.
+     *
+     * @param product                       The product.
+     * @param quantity                      The number of pieces.
+     */
+    private void addToTotals(Product product, int quantity) {
+        totalPrice += product.getPrice() * quantity;
+        totalMemberPrice += product.getMemberPrice() * quantity;
+        memberDiscount += (product.getPrice() - product.getMemberPrice()) * quantity;
     }
 
     /**
@@ -80,12 +121,7 @@ public class ShoppingCart {
      * @return                              The targeted Item object.
      */
     public Item getItemByProduct(Product product) {
-        for (Item item : itemList) {
-            if (item.getProduct() == product) {
-                return item;
-            }
-        }
-        return null;
+        return itemIndex.get(product.getProductId());
     }
 
     /**
@@ -95,8 +131,11 @@ public class ShoppingCart {
      * @param quantity                      The quantity of the added product.
      */
     public void addItem(Product product, int quantity) {
+        checkPriceRevision();
         Item item = new Item(product, quantity);
         itemList.add(item);
+        itemIndex.put(product.getProductId(), item);
+        addToTotals(product, quantity);
     }
 
     /**
@@ -106,10 +145,11 @@ public class ShoppingCart {
      * @param quantity                     The new quantity of the product.
      */
     public void setItemQuantity(Product product, int quantity) {
-        for (Item item : itemList) {
-            if (item.getProduct().getProductId() == product.getProductId()) {
-                item.setQuantity(quantity);
-            }
+        checkPriceRevision();
+        Item item = itemIndex.get(product.getProductId());
+        if (item != null) {
+            addToTotals(item.getProduct(), quantity - item.getQuantity());
+            item.setQuantity(quantity);
         }
     }
 
@@ -130,12 +170,8 @@ public class ShoppingCart {
      * @return                              The quantity of the product currently in the cart.
      */
     public int checkProductQuantity(Product product) {
-        for (Item item : itemList) {
-            if (item.getProduct().getProductId() == product.getProductId()) {
-                return item.getQuantity();
-            }
-        }
-        return 0;
+        Item item = itemIndex.get(product.getProductId());
+        return item == null ? 0 : item.getQuantity();
     }
 
     /**
@@ -144,6 +180,10 @@ public class ShoppingCart {
 
     public void clear() {
         itemList.clear();
+        itemIndex.clear();
+        totalPrice = 0;
+        totalMemberPrice = 0;
+        memberDiscount = 0;
     }
 
 }
@@ -1,17 +1,117 @@
+import java.time.LocalDateTime;
 /**
- * Class which keeps track of shopping cart and provides management operations.
+ * Class which keeps track of a customer's shopping cart and provides management operations.
  *
  * @version ver1.0.0
  */
 public class ShoppingCartControl {
     
     private ShoppingCart shoppingCart;
+    private final Customer customer;
 
     /**
-     * Default constructor of ShoppingCartControl class.
+     * Constructor of ShoppingCartControl class.
+     *
+     * @param customer                          The customer the shopping cart belongs to.
      */
-    public ShoppingCartControl() {
+    public ShoppingCartControl(Customer customer) {
         this.shoppingCart = new ShoppingCart();
+        this.customer = customer;
+    }
+
+    /**
+     * Getter method for customer.
+     *
+     * @return                                  The customer the shopping cart belongs to.
+     */
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    /**
+     * Getter method for shoppingCart.
+     *
+     * @return                                  The shopping cart.
+     */
+    public ShoppingCart getShoppingCart() {
+        return shoppingCart;
+    }
+
+    /**
+     * Add a quantity of a product to the shopping cart without any prompt, reserving it from
+     * the stock.
+     *
+     * @param inventoryController               Controller that manages inventory.
+     * @param productID                         The product's ID.
+     * @param quantity                          The quantity to be added.
+     * @return                                  A code representing the operation's result,
+     *                                          OPERATION_FAIL if the cart has no room for another item.
+     */
+    public int addToCart(InventoryControl inventoryController, int productID, int quantity) {
+        Product product = inventoryController.getProductByID(productID);
+        if (product == null) {
+            return Constant.OPERATION_NOT_FOUND;
+        }
+        int inCartQuantity = shoppingCart.checkProductQuantity(product);
+        if (inCartQuantity == 0 && shoppingCart.getSize() == Constant.CART_ITEM_LIMIT) {
+            return Constant.OPERATION_FAIL;
+        }
+        if (quantity > Constant.ITEM_QUANTITY_LIMIT || quantity < 0) {
+            return Constant.OPERATION_INVALID_VALUE;
+        }
+        if (inCartQuantity + quantity > Constant.ITEM_QUANTITY_LIMIT) {
+            return Constant.OPERATION_LIMIT_REACHED;
+        }
+        // another cart may have reserved the stock since it was shown
+        if (!product.reserveStock(quantity)) {
+            return Constant.OPERATION_OUT_OF_STOCK;
+        }
+
+        if (inCartQuantity == 0) {
+            shoppingCart.addItem(product, quantity);
+        } else {
+            shoppingCart.setItemQuantity(product, inCartQuantity + quantity);
+        }
+        return Constant.OPERATION_SUCCESS;
+    }
+
+    /**
+     * Check out the shopping cart without any prompt, selling the reserved stock and paying
+     * with the customer's credits.
+     *
+     * @param userController                    Controller that manages users.
+     * @param inventoryController               Controller that manages inventory.
+     * @return                                  A code representing the operation's result, OPERATION_FAIL if the
+     *                                          credits are not enough, OPERATION_NOT_FOUND if the cart is empty.
+     */
+    public int checkout(UserControl userController, InventoryControl inventoryController) {
+        if (shoppingCart.getSize() == 0) {
+            return Constant.OPERATION_NOT_FOUND;
+        }
+
+        // the same customer may be spending credits in another session, so check and pay at once
+        synchronized (customer) {
+            long totalPrice = customer.isMember() ? shoppingCart.getTotalMemberPrice() : shoppingCart.getTotalPrice();
+            long currentCredit = customer.getCredits();
+            if (totalPrice > currentCredit) {
+                return Constant.OPERATION_FAIL;
+            }
+            Order newOrder = new Order(shoppingCart.getTotalPrice(), shoppingCart.getTotalMemberPrice(),
+                    currentCredit, currentCredit - totalPrice, customer.isMember());
+
+            // update product information, selling the stock reserved by the cart
+            if (!inventoryController.updateQuantityAfterCheckout(shoppingCart.getItemList())) {
+                return Constant.OPERATION_OUT_OF_STOCK;
+            }
+            newOrder.setItems(shoppingCart.getItemList());
+            newOrder.setCreatedAt(LocalDateTime.now());
+            shoppingCart.clear();
+
+            //update customer information and order history
+            userController.updateCustomerInfoAfterCheckout(customer, currentCredit - totalPrice, newOrder);
+        }
+
+        return Constant.OPERATION_SUCCESS;
     }
 
     /**
@@ -56,11 +156,12 @@ public class ShoppingCartControl {
                     if (item != null && item.getQuantity() == Constant.ITEM_QUANTITY_LIMIT) {
                         Boundary.alertAlreadyReachedLimit();
                     }
-                    else if (product.getQuantity() == 0) {
+                    else if (item == null && product.getAvailableQuantity() == 0) {
                         Boundary.alertOutOfStock();
                     }
-                    else if (item != null && item.getQuantity() == product.getQuantity()) {
-                        Boundary.alertAlreadyReachedStock(product.getQuantity());
+                    else if (item != null && product.getAvailableQuantity() == 0) {
+                        // the rest of the stock is sold or in other carts
+                        Boundary.alertAlreadyReachedStock(item.getQuantity());
                     }
                     else {// product is fine
                         validID = true;
@@ -73,7 +174,6 @@ public class ShoppingCartControl {
         }
 
         //after getting a valid product, request for quantity
-        int currentStock = product.getQuantity();
 
 
         boolean validQuantity = false;
@@ -91,34 +191,39 @@ public class ShoppingCartControl {
                 return Constant.CODE_LOGOUT;
             }
 
-            int inCartQuantity = shoppingCart.checkProductQuantity(product);
-
             if (Util.isInteger(input)) {
-                // check whether the quantity is > 10
-                int quantity = Integer.parseInt(input);
-
-                if (quantity > Constant.ITEM_QUANTITY_LIMIT || quantity < 0) {
-                    Boundary.alertInvalidValue(Constant.FIELD_QUANTITY);
-                } else if (inCartQuantity == 0) {
-                    if (quantity > currentStock) {
-                        // over inventory
-                        Boundary.alertOutOfStock(currentStock);
-                    } else {
+                int inCartQuantity = shoppingCart.checkProductQuantity(product);
+                int result = addToCart(inventoryController, product.getProductId(), Integer.parseInt(input));
+
+                switch (result) {
+                    case Constant.OPERATION_SUCCESS -> {
                         validQuantity = true;
-                        shoppingCart.addItem(product, quantity);
                     }
-                } else {
-                    if (inCartQuantity + quantity > Constant.ITEM_QUANTITY_LIMIT) {
-                        // already added in cart, the sum is over inventory
+                    case Constant.OPERATION_INVALID_VALUE -> {
+                        // the quantity is > 10 or negative
+                        Boundary.alertInvalidValue(Constant.FIELD_QUANTITY);
+                    }
+                    case Constant.OPERATION_LIMIT_REACHED -> {
+                        // already added in cart, the sum is over the limit
                         Boundary.alertSumOutOfLimit(inCartQuantity);
-                    } else if (inCartQuantity + quantity > currentStock) {
-                        // already added in cart, the sum is over inventory
-                        Boundary.alertSumOutOfStock(currentStock, inCartQuantity);
-                    } else {
-                        validQuantity = true;
-                        shoppingCart.setItemQuantity(product, inCartQuantity + quantity);
                     }
-
+                    case Constant.OPERATION_OUT_OF_STOCK -> {
+                        // the quantity in this cart is already reserved, so it is not available any more
+                        if (inCartQuantity == 0) {
+                            Boundary.alertOutOfStock(product.getAvailableQuantity());
+                        } else {
+                            Boundary.alertSumOutOfStock(inCartQuantity + product.getAvailableQuantity(),
+                                    inCartQuantity);
+                        }
+                    }
+                    case Constant.OPERATION_NOT_FOUND -> {
+                        // removed by another session in the meantime
+                        Boundary.alertProductNotExist(product.getProductId());
+                        return Constant.CODE_BACK;
+                    }
+                    default -> {
+                        return result;
+                    }
                 }
 
             } else {
@@ -141,8 +246,6 @@ public class ShoppingCartControl {
         int currentPage = 1;
         int totalPages = (int) Math.ceil((double) (shoppingCart.getSize()) / Constant.CART_PAGE_SIZE);
 
-        Customer customer = (Customer)userController.getCurrentUser();
-
         Boundary.printOrderSummary(shoppingCart, currentPage, customer);
         Boundary.printCheckOutMenu(currentPage, totalPages);
 
@@ -174,7 +277,7 @@ public class ShoppingCartControl {
                     }
                 }
                 case "1" -> { //checkout
-                    int result = checkOut(userController, inventoryController);
+                    int result = confirmCheckOut(userController, inventoryController);
                     switch (result) {
                         case Constant.CODE_LOGOUT -> {
                             return Constant.CODE_LOGOUT;
@@ -187,6 +290,10 @@ public class ShoppingCartControl {
                             Boundary.alertNotEnoughCredit();
                             return Constant.CODE_BACK;
                         }
+                        case Constant.OPERATION_OUT_OF_STOCK -> {
+                            Boundary.alertCheckoutOutOfStock();
+                            return Constant.CODE_BACK;
+                        }
                         case Constant.OPERATION_CANCEL, Constant.CODE_BACK -> {
                             Boundary.printOperationCancel(Constant.OP_TYPE_CHECKOUT);
                             Boundary.printOrderSummary(shoppingCart, currentPage, customer);
@@ -211,11 +318,10 @@ public class ShoppingCartControl {
      * @param inventoryController               Controller that manages inventory.
      * @return                                  A code representing the operation's result.
      */
-    private int checkOut(UserControl userController, InventoryControl inventoryController){
+    private int confirmCheckOut(UserControl userController, InventoryControl inventoryController){
         //get total price according to membership
-        Customer customer = (Customer) userController.getCurrentUser();
-        double totalPrice = customer.isMember() ? shoppingCart.getTotalMemberPrice() : shoppingCart.getTotalPrice();
-        double currentCredit = customer.getCredits();
+        long totalPrice = customer.isMember() ? shoppingCart.getTotalMemberPrice() : shoppingCart.getTotalPrice();
+        long currentCredit = customer.getCredits();
 
         // not enough credit
         if (totalPrice > currentCredit) {
@@ -249,17 +355,19 @@ public class ShoppingCartControl {
             }
         }
 
-        // update product information
-        inventoryController.updateQuantityAfterCheckout(shoppingCart.getItemList());
-        shoppingCart.clear();
-
-//        customer.setCredits();
-        userController.addOrder(customer, newOrder);
-
-        //update customer information
-        userController.updateCustomerInfoAfterCheckout(currentCredit - totalPrice, newOrder);
+        // the credits are checked again, the customer may have spent some in another session meanwhile
+        return checkout(userController, inventoryController);
+    }
 
-        return Constant.OPERATION_SUCCESS;
+    /**
+     * Give back the stock reserved by the shopping cart's items and empty the cart,
+     * e.g. when the customer logs out without checking out.
+     */
+    public void releaseShoppingCart() {
+        for (Item item : shoppingCart.getItemList()) {
+            item.getProduct().releaseStock(item.getQuantity());
+        }
+        shoppingCart.clear();
     }
 
     /**
@@ -276,7 +384,6 @@ public class ShoppingCartControl {
             int currentPage = 1;
             int totalPages = (int) Math.ceil((double) (shoppingCart.getSize()) / Constant.CART_PAGE_SIZE);
 
-            Customer customer = (Customer) userController.getCurrentUser();
             boolean isMember = customer.isMember();
             Boundary.printShoppingCart(shoppingCart, currentPage, isMember);
             Boundary.printShoppingCartMenu(currentPage, totalPages);
@@ -1,6 +1,8 @@
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 /**
  * Class which keeps track of users data and provides management operations,
  * also is responsible for data persistence.
@@ -10,16 +12,21 @@ import java.util.HashMap;
 public class UserControl {
 
     private final ArrayList<User> userList;
-    private final HashMap<Customer, ArrayList<Order>> orderList;
-    private User currentUser;
+    private final OrderStore orderStore;
+    private final HashMap<String, User> emailIndex;
+    private BloomFilter emailFilter;
+    private final ThreadLocal<User> currentUser;
 
     /**
      * Constructor of UserControl class.
      */
     public UserControl() {
         userList = new ArrayList<>();
-        currentUser = null;
-        orderList = new HashMap<>();
+        currentUser = new ThreadLocal<>(); // every session has its own current user
+        orderStore = new OrderStore();
+        emailIndex = new HashMap<>();
+        emailFilter = new BloomFilter(Constant.EMAIL_FILTER_INITIAL_CAPACITY,
+                Constant.EMAIL_FILTER_FALSE_POSITIVE_RATE);
         getUsersFromFile();
     }
 
@@ -38,7 +45,7 @@ public class UserControl {
      * @return                  User object representing current user.
      */
     public User getCurrentUser() {
-        return currentUser;
+        return currentUser.get();
     }
 
 
@@ -48,7 +55,8 @@ public class UserControl {
      * @return                  A boolean representing the current user's type.
      */
     public boolean isCurrentUserAdmin() {
-        return currentUser != null && currentUser.isAdmin();
+        User user = currentUser.get();
+        return user != null && user.isAdmin();
     }
 
     /**
@@ -57,71 +65,122 @@ public class UserControl {
      * @param currentUser       A User object.
      */
     public void setCurrentUser(User currentUser) {
-        this.currentUser = currentUser;
+        this.currentUser.set(currentUser);
+    }
+
+    /**
+     * Add a user to the user list and index it by email for login.
+     *
+     * @param user              A User object.
+     */
+    public synchronized void addUser(User user) {
+        userList.add(user);
+        String key = normalizeEmail(user.getEmail());
+        // like the list scan login used to do, the first user with an email wins
+        emailIndex.putIfAbsent(key, user);
+        if (emailFilter.isFull()) {
+            rebuildEmailFilter(emailFilter.getCapacity() * 2);
+        }
+        emailFilter.add(key);
+    }
+
+    /**
+     * Rebuild the email filter with a larger capacity from the email index.
+     *
+     * @param capacity          Number of emails the new filter is sized for.
+     */
+    private void rebuildEmailFilter(int capacity) {
+        emailFilter = new BloomFilter(capacity, Constant.EMAIL_FILTER_FALSE_POSITIVE_RATE);
+        for (String key : emailIndex.keySet()) {
+            emailFilter.add(key);
+        }
+    }
+
+    /**
+     * Normalize an email to its email index key, emails are case-insensitive.
+     *
+     * @param email             The email.
+     * @return                  The email index key.
+     */
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
     }
 
     /**
      * Method to read from the specified user file and populate data.
      */
     public void getUsersFromFile() {
-        // read user data file
-        String fileContent = new FileIO(Constant.USER_FILE_PATH).readFile();
+        // a snapshot of the unchanged user file saves parsing it
+        UserSnapshot snapshot = new UserSnapshot();
+        if (Constant.SNAPSHOT_ENABLED && snapshot.load(this::addUser)) {
+            return;
+        }
 
-        if (fileContent.isEmpty()){ // no content or no such file, create default users
+        // stream user data file
+        FileIO userFile = new FileIO(Constant.USER_FILE_PATH);
+        int lines = userFile.readRecordsParallel(this::parseUserRecord, this::addUser);
+
+        if (lines == 0){ // no content or no such file, create default users
             Boundary.alertEmptyOrNotExistFile(Constant.USER_FILE_PATH);
 
             Customer defaultCustomer = Constant.DEFAULT_CUSTOMER;
-            userList.add(new Customer(defaultCustomer.getEmail(), defaultCustomer.getPassword(),
+            addUser(new Customer(defaultCustomer.getEmail(), defaultCustomer.getPassword(),
                     defaultCustomer.getFirstName(), defaultCustomer.getLastName(),
                     defaultCustomer.getBirthday(), defaultCustomer.getMobile(),
                     defaultCustomer.getAddress(), defaultCustomer.getGender(),
                     defaultCustomer.getMemberExpireDate()));
 
             Admin defaultAdmin = Constant.DEFAULT_ADMIN;
-            userList.add(new Admin(defaultAdmin.getEmail(), defaultAdmin.getPassword()));
+            addUser(new Admin(defaultAdmin.getEmail(), defaultAdmin.getPassword()));
 
             return;
         }
 
-        String[] lines = fileContent.split(Constant.STRING_NEXT_LINE);
-
-        int invalidLines = 0;
-        for (String line : lines) {
-            String[] fields = line.split(Constant.STRING_FIELD_DELIMITER);
-            try {
-                // the fields length indicates it is admin
-                if (fields.length == 3 && fields[2].equals(String.valueOf(Constant.USER_TYPE_ADMIN))) {
-                    userList.add(new Admin(fields[0], fields[1]));
-                } else if (fields.length == 11 && fields[2].equals(String.valueOf(Constant.USER_TYPE_CUSTOMER))) {
-                    // the fields length indicates it is customer
-                    userList.add(new Customer(fields[0], fields[1], fields[3], fields[4],
-                            Util.getDateFromISOString(fields[5]), fields[6], fields[7],
-                            fields[8], Util.getDateFromISOString(fields[9]), Double.parseDouble(fields[10])));
-                } else {
-                    throw new Exception(Constant.ERR_MSG_INVALID_LINE);
-                }
-            } catch (Exception e) {
-                invalidLines++;
-                Boundary.alertInvalidFileLine(line, Constant.USER_FILE_PATH);
-            }
-        }
-
-        if (invalidLines == lines.length) { // no valid content, use default settings
+        int invalidLines = userFile.getInvalidRecords();
+        if (invalidLines == lines) { // no valid content, use default settings
             Boundary.alertTotalInvalidFileContent(Constant.USER_FILE_PATH);
 
             Customer defaultCustomer = Constant.DEFAULT_CUSTOMER;
-            userList.add(new Customer(defaultCustomer.getEmail(), defaultCustomer.getPassword(),
+            addUser(new Customer(defaultCustomer.getEmail(), defaultCustomer.getPassword(),
                     defaultCustomer.getFirstName(), defaultCustomer.getLastName(),
                     defaultCustomer.getBirthday(), defaultCustomer.getMobile(),
                     defaultCustomer.getAddress(), defaultCustomer.getGender(),
                     defaultCustomer.getMemberExpireDate()));
 
             Admin defaultAdmin = Constant.DEFAULT_ADMIN;
-            userList.add(new Admin(defaultAdmin.getEmail(), defaultAdmin.getPassword()));
+            addUser(new Admin(defaultAdmin.getEmail(), defaultAdmin.getPassword()));
         }
         else if (invalidLines > 0) { // partially invalid content
             Boundary.alertPartialInvalidFileContent(Constant.USER_FILE_PATH, invalidLines);
         }
+        else if (Constant.SNAPSHOT_ENABLED) { // only a fully valid file is worth a snapshot
+            snapshot.save(userList::forEach);
+        }
+    }
+
+    /**
+     * Parse one user from a user file record, called on several threads at once.
+     *
+     * @param record                A user file record.
+     * @return                      The user, or null if the record is invalid.
+     */
+    private User parseUserRecord(FileRecord record) {
+        try {
+            int fieldCount = record.getFieldCount();
+            // the fields length indicates it is admin
+            if (fieldCount == 3 && record.fieldEquals(2, String.valueOf(Constant.USER_TYPE_ADMIN))) {
+                return new Admin(record.getField(0), record.getField(1));
+            } else if (fieldCount == 11 && record.fieldEquals(2, String.valueOf(Constant.USER_TYPE_CUSTOMER))) {
+                // the fields length indicates it is customer
+                return new Customer(record.getField(0), record.getField(1), record.getField(3),
+                        record.getField(4), Util.getDateFromISOString(record.getField(5)), record.getField(6),
+                        record.getField(7), record.getField(8), Util.getDateFromISOString(record.getField(9)),
+                        record.getMoneyField(10));
+            }
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     /**
@@ -130,12 +189,13 @@ public class UserControl {
      * @return                  The current user's name.
      */
     public String getCurrentUserName() {
+        User user = currentUser.get();
 
-        if (currentUser.isAdmin()) {
+        if (user.isAdmin()) {
             return "Admin";
         } else {
-            return Util.formatName(((Customer) currentUser).getFirstName(),
-                    ((Customer) currentUser).getLastName());
+            return Util.formatName(((Customer) user).getFirstName(),
+                    ((Customer) user).getLastName());
         }
     }
 
@@ -161,65 +221,107 @@ public class UserControl {
             return Constant.CODE_BACK;
         }
 
-        for (User user : userList) {
-            if (email.equalsIgnoreCase(user.getEmail()) && password.equalsIgnoreCase(user.getPassword())) {
-                //set current user
-                currentUser = user;
-                return Constant.OPERATION_SUCCESS;
-            }
+        User user = authenticate(email, password);
+        if (user != null) {
+            //set current user
+            currentUser.set(user);
+            return Constant.OPERATION_SUCCESS;
         }
 
         return Constant.OPERATION_FAIL;
     }
 
+    /**
+     * Find the user with an email and password without any prompt.
+     *
+     * @param email                 The email, in any case.
+     * @param password              The password.
+     * @return                      The user, or null if the email or password is incorrect.
+     */
+    public User authenticate(String email, String password) {
+        User user = findUserByEmail(email);
+        if (user != null && password.equalsIgnoreCase(user.getPassword())) {
+            return user;
+        }
+        return null;
+    }
+
+    /**
+     * Find a user by email in any case.
+     *
+     * @param email                 The email.
+     * @return                      The user, or null if there is no user with the email.
+     */
+    private synchronized User findUserByEmail(String email) {
+        String key = normalizeEmail(email);
+        if (!emailFilter.mightContain(key)) { // definitely an unknown email
+            return null;
+        }
+        return emailIndex.get(key);
+    }
+
     /**
      * Method to handle user logout.
      */
     public void logout() {
 
-        currentUser = null;
+        currentUser.remove();
         Boundary.printOperationSuccess(Constant.OP_TYPE_LOGOUT);
     }
 
     /**
-     * Add an order for specified customer
+     * Add an order for specified customer to the order history.
      *
      * @param customer             A Customer object.
-     * @param order                An order object to be added to the customer's order list.
+     * @param order                An order object to be added to the customer's order history.
      */
     public void addOrder(Customer customer, Order order) {
+        orderStore.appendOrder(normalizeEmail(customer.getEmail()), order);
+    }
 
-        if (orderList.containsKey(customer)) {
-            (orderList.get(customer)).add(order);
-        } else {
-            ArrayList<Order> orders = new ArrayList<>();
-            orders.add(order);
-            orderList.put(customer, orders);
-        }
+    /**
+     * Get the order history of specified customer, read from the order log on demand.
+     *
+     * @param customer             A Customer object.
+     * @return                     The customer's orders, in the order they were placed.
+     */
+    public List<Order> getOrders(Customer customer) {
+        return orderStore.getOrders(normalizeEmail(customer.getEmail()));
     }
 
     /**
-     * Update user file's content with latest userList data.
+     * Update user file's content with latest userList data, the file is rewritten in the background.
      */
     public void updateUserFile() {
+        PersistenceWriter.markDirty(Constant.USER_FILE_PATH, this::writeUserFile);
+    }
+
+    /**
+     * Rewrite the user file and its snapshot with the latest userList data.
+     */
+    private synchronized void writeUserFile() {
         StringBuilder fileContent = new StringBuilder();
         for (User user : userList) {
             fileContent.append(user.toString()).append("\n");
         }
         new FileIO(Constant.USER_FILE_PATH).writeFile(fileContent.toString());
+        if (Constant.SNAPSHOT_ENABLED) {
+            new UserSnapshot().save(userList::forEach);
+        }
     }
 
     /**
-     * Update customer's credit information and add the new order after checkout.
+     * Update customer's credit information and add the new order after checkout. The order is
+     * durable with the stock sold, the credits only once the user file is rewritten, see
+     * WRITE_BEHIND_DELAY_MILLIS.
      *
+     * @param customer                   The customer who checked out.
      * @param remainingCredit            The customer's remaining credits.
      * @param newOrder                   The newly created order by this customer.
      */
-    public void updateCustomerInfoAfterCheckout(double remainingCredit, Order newOrder) {
-        if (currentUser.isCustomer()){
-            ((Customer)currentUser).setCredits(remainingCredit);
-            addOrder( (Customer)currentUser, newOrder);
-            updateUserFile();
-        }
+    public void updateCustomerInfoAfterCheckout(Customer customer, long remainingCredit, Order newOrder) {
+        customer.setCredits(remainingCredit);
+        addOrder(customer, newOrder);
+        updateUserFile();
     }
 }
@@ -0,0 +1,90 @@
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+/**
+ * Class which keeps a binary snapshot of the user file. Every user takes the same number
+ * of bytes, and customer fields are zero for admins.
+ *
+ * @version ver1.0.0
+ */
+public class UserSnapshot extends BinarySnapshot<User> {
+    private static final int RECORD_TYPE = 2;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    /**
+     * Default constructor of UserSnapshot class.
+     */
+    public UserSnapshot() {
+        super(Constant.USER_SNAPSHOT_FILE_PATH, Constant.USER_FILE_PATH, RECORD_TYPE);
+    }
+
+    @Override
+    protected void writeRecord(DataOutputStream output, User user, StringTable strings) throws IOException {
+        output.writeInt(strings.add(user.getEmail()));
+        output.writeInt(strings.add(user.getPassword()));
+        if (!user.isAdmin()) {
+            Customer customer = (Customer) user;
+            output.writeBoolean(true);
+            output.writeInt(strings.add(customer.getFirstName()));
+            output.writeInt(strings.add(customer.getLastName()));
+            output.writeInt(toEpochDay(customer.getBirthday()));
+            output.writeInt(strings.add(customer.getMobile()));
+            output.writeInt(strings.add(customer.getAddress()));
+            output.writeInt(strings.addSymbol(customer.getGender()));
+            output.writeInt(toEpochDay(customer.getMemberExpireDate()));
+            output.writeLong(customer.getCredits());
+        } else {
+            output.writeBoolean(false);
+            output.writeInt(-1);
+            output.writeInt(-1);
+            output.writeInt(NO_DATE);
+            output.writeInt(-1);
+            output.writeInt(-1);
+            output.writeInt(-1);
+            output.writeInt(NO_DATE);
+            output.writeLong(0);
+        }
+    }
+
+    @Override
+    protected User readRecord(ByteBuffer input, String[] strings) {
+        String email = getString(strings, input.getInt());
+        String password = getString(strings, input.getInt());
+        boolean customer = input.get() != 0;
+        String firstName = getString(strings, input.getInt());
+        String lastName = getString(strings, input.getInt());
+        LocalDate birthday = fromEpochDay(input.getInt());
+        String mobile = getString(strings, input.getInt());
+        String address = getString(strings, input.getInt());
+        String gender = getString(strings, input.getInt());
+        LocalDate memberExpireDate = fromEpochDay(input.getInt());
+        long credits = input.getLong();
+        if (!customer) {
+            return new Admin(email, password);
+        }
+        return new Customer(email, password, firstName, lastName, birthday, mobile, address, gender,
+                memberExpireDate, credits);
+    }
+
+    /**
+     * Convert a date to its fixed-width form.
+     *
+     * @param date                  The date, may be null.
+     * @return                      The day number of the date.
+     */
+    private static int toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    /**
+     * Convert the fixed-width form of a date back to the date.
+     *
+     * @param epochDay              The day number of the date.
+     * @return                      The date, may be null.
+     */
+    private static LocalDate fromEpochDay(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
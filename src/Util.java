@@ -6,6 +6,10 @@ import java.time.format.DateTimeFormatter;
  * @version ver1.0.0
  */public class Util {
 
+    // formatters are immutable and thread-safe, so they are built once and shared
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy M d");
+    private static final DateTimeFormatter ISO_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
     /**
      * Default constructor of Util class.
      */
@@ -20,8 +24,7 @@ import java.time.format.DateTimeFormatter;
      * @return                      A LocalDate object converted from the String.
      */
     public static LocalDate getDateFromString(String dateString) {
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy M d");
-        return LocalDate.parse(dateString, dateTimeFormatter);
+        return LocalDate.parse(dateString, DATE_FORMATTER);
     }
 
     /**
@@ -34,8 +37,7 @@ import java.time.format.DateTimeFormatter;
         if (dateString.equalsIgnoreCase(Constant.STRING_NULL_DATE)) {
             return null;
         }
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        return LocalDate.parse(dateString, dateTimeFormatter);
+        return LocalDate.parse(dateString, ISO_DATE_FORMATTER);
     }
 
     /**
@@ -48,8 +50,7 @@ import java.time.format.DateTimeFormatter;
         if (date == null) {
             return Constant.STRING_NULL_DATE;
         }
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        return date.format(dateTimeFormatter);
+        return date.format(ISO_DATE_FORMATTER);
     }
 
     /**
@@ -0,0 +1,225 @@
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Test class, checks the HTTP mode's API on a local port. A customer logs in, adds the cheapest
+ * available product of the first page to the cart and checks out, and the stock and credits must
+ * drop by the price paid. Requests without a session, for unknown products and with a method the
+ * path does not allow must be answered with 401, 404 and 405.
+ *
+ * It is a plain main method, as the project has no build manifest to pull a test framework in.
+ * Compile it next to the classes of src/ and run it from an empty directory, as it copies the
+ * data directory there and the checkout changes the copy, e.g. java HttpApiTest path/to/project/data.
+ *
+ * @version ver1.0.0
+ */
+public class HttpApiTest {
+    private static final Path DATA = Paths.get("data");
+    private static final String EMAIL = "member@student.monash.edu";
+    private static final String PASSWORD = "Monash1234";
+    private static final int UNKNOWN_PRODUCT_ID = 999999999;
+    // a product object holds no nested objects, so its members run up to the next brace
+    private static final Pattern AVAILABLE_PRODUCT = Pattern.compile(
+            "\\{\"id\":(\\d+),[^{}]*\"price\":([\\d.]+),[^{}]*\"available\":[1-9]");
+    private static final Pattern QUANTITY = Pattern.compile("\"quantity\":(\\d+)");
+
+    private static HttpClient httpClient;
+    private static String baseUri;
+    private static boolean passed = true;
+
+    /**
+     * Default constructor of HttpApiTest class.
+     */
+    private HttpApiTest() {
+
+    }
+
+    /**
+     * Entry point of the test.
+     *
+     * @param args                          The data directory to start from.
+     * @throws IOException                  If the data files cannot be copied or a request fails.
+     * @throws InterruptedException         If the test is interrupted while waiting for a response.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 1 || Files.exists(DATA)) {
+            System.out.println("Run from an empty directory: java HttpApiTest <data directory>");
+            System.exit(2);
+        }
+        copyDirectory(Paths.get(args[0]), DATA);
+
+        int port;
+        try (ServerSocket freePort = new ServerSocket(0)) {
+            port = freePort.getLocalPort();
+        }
+        new MMOSSHttpServer(port).serve();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUri = "http://localhost:" + port;
+
+        HttpResponse<String> response = send("GET", Constant.HTTP_PATH_PRODUCTS, null, null);
+        check(response.statusCode() == 200, "GET products is 200, got " + response.statusCode());
+        String productID = null;
+        long lowestPrice = Long.MAX_VALUE;
+        Matcher product = AVAILABLE_PRODUCT.matcher(response.body());
+        while (product.find()) {
+            if (Money.parse(product.group(2)) < lowestPrice) {
+                productID = product.group(1);
+                lowestPrice = Money.parse(product.group(2));
+            }
+        }
+        if (productID == null) {
+            check(false, "the first page holds an available product");
+            finish();
+        }
+        String productPath = Constant.HTTP_PATH_PRODUCTS + "/" + productID;
+        int quantityBefore = getQuantity(send("GET", productPath, null, null));
+
+        expect(send("GET", Constant.HTTP_PATH_PRODUCTS + "/" + UNKNOWN_PRODUCT_ID, null, null), 404,
+                "unknown product");
+        expect(send("GET", Constant.HTTP_PATH_PRODUCTS + "/none", null, null), 404, "non-numeric product ID");
+        response = expect(send("DELETE", Constant.HTTP_PATH_PRODUCTS, null, null), 405, "DELETE products");
+        check("GET".equals(response.headers().firstValue("Allow").orElse(null)), "Allow header of products");
+        response = expect(send("PUT", Constant.HTTP_PATH_CHECKOUT, null, null), 405, "PUT checkout");
+        check("POST".equals(response.headers().firstValue("Allow").orElse(null)), "Allow header of checkout");
+        expect(send("GET", Constant.HTTP_PATH_CART, null, null), 401, "cart without a session");
+        expect(send("POST", Constant.HTTP_PATH_CHECKOUT, null, null), 401, "checkout without a session");
+        expect(send("POST", Constant.HTTP_PATH_SESSIONS, null, login(PASSWORD + "x")), 401, "wrong password");
+
+        response = expect(send("POST", Constant.HTTP_PATH_SESSIONS, null, login(PASSWORD)), 201, "login");
+        HashMap<String, String> session = Json.parseObject(response.body());
+        String token = session.get("session");
+        long creditsBefore = Money.parse(session.get("credits"));
+
+        StringBuilder item = new StringBuilder().append('{');
+        Json.appendName(item, Constant.HTTP_PARAM_PRODUCT_ID).append(productID);
+        Json.appendMember(item, Constant.HTTP_PARAM_QUANTITY, 1);
+        expect(send("POST", Constant.HTTP_PATH_CART, token, item.append('}').toString()), 200, "add to cart");
+        response = expect(send("GET", Constant.HTTP_PATH_CART, token, null), 200, "GET cart");
+        check(response.body().contains("\"productId\":" + productID + ","), "cart holds product " + productID);
+
+        response = expect(send("POST", Constant.HTTP_PATH_CHECKOUT, token, null), 200, "checkout");
+        HashMap<String, String> checkout = Json.parseObject(response.body());
+        check("SUCCESS".equals(checkout.get("result")), "checkout result, got " + response.body());
+        if (!passed) {
+            finish();
+        }
+        long paid = Money.parse(checkout.get("paid"));
+        check(paid > 0 && Money.parse(checkout.get("credits")) == creditsBefore - paid,
+                "credits drop by the price paid, got " + response.body());
+        check(getQuantity(send("GET", productPath, null, null)) == quantityBefore - 1, "stock drops by one");
+        response = expect(send("GET", Constant.HTTP_PATH_CART, token, null), 200, "GET cart after checkout");
+        check(response.body().contains("\"items\":[]"), "cart is empty after checkout, got " + response.body());
+
+        expect(send("DELETE", Constant.HTTP_PATH_SESSIONS, token, null), 200, "logout");
+        expect(send("GET", Constant.HTTP_PATH_CART, token, null), 401, "cart after logout");
+        expect(send("DELETE", Constant.HTTP_PATH_SESSIONS, token, null), 401, "second logout");
+
+        finish();
+    }
+
+    /**
+     * Print the overall result and exit, stopping the server.
+     */
+    private static void finish() {
+        System.out.println(passed ? "PASS: every request" : "FAIL: some requests");
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Send a request to the server.
+     *
+     * @param method                        The request method.
+     * @param path                          The path.
+     * @param token                         The session token, null to send none.
+     * @param body                          The request body, null to send none.
+     * @return                              The response.
+     * @throws IOException                  If the request cannot be sent or answered.
+     * @throws InterruptedException         If the test is interrupted while waiting.
+     */
+    private static HttpResponse<String> send(String method, String path, String token, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUri + path)).method(method,
+                body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header(Constant.HTTP_SESSION_HEADER, token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Check the status of a response.
+     *
+     * @param response                      The response.
+     * @param status                        The expected status.
+     * @param description                   What the request does.
+     * @return                              The response.
+     */
+    private static HttpResponse<String> expect(HttpResponse<String> response, int status, String description) {
+        check(response.statusCode() == status, description + " is " + status + ", got " + response.statusCode()
+                + " " + response.body());
+        return response;
+    }
+
+    /**
+     * Print the result of a check.
+     *
+     * @param condition                     Whether the check holds.
+     * @param description                   What is checked.
+     */
+    private static void check(boolean condition, String description) {
+        System.out.println((condition ? "PASS: " : "FAIL: ") + description);
+        passed &= condition;
+    }
+
+    /**
+     * Create the body of a login request for the test customer.
+     *
+     * @param password                      The password sent.
+     * @return                              The JSON body.
+     */
+    private static String login(String password) {
+        StringBuilder json = new StringBuilder().append('{');
+        Json.appendMember(json, Constant.HTTP_PARAM_EMAIL, EMAIL);
+        Json.appendMember(json, Constant.HTTP_PARAM_PASSWORD, password);
+        return json.append('}').toString();
+    }
+
+    /**
+     * Get the stock quantity of a product response.
+     *
+     * @param response                      The response of GET /products/ID.
+     * @return                              The quantity, -1 if the response holds none.
+     */
+    private static int getQuantity(HttpResponse<String> response) {
+        Matcher matcher = QUANTITY.matcher(response.body());
+        return response.statusCode() == 200 && matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /**
+     * Copy the files of a directory.
+     *
+     * @param source                        The directory to be copied.
+     * @param target                        The new directory.
+     * @throws IOException                  If a file cannot be copied.
+     */
+    private static void copyDirectory(Path source, Path target) throws IOException {
+        Files.createDirectories(target);
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        }
+    }
+}
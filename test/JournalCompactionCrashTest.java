@@ -0,0 +1,179 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Test class, checks that a crash between any two steps of a journal compaction loses no change.
+ * A product gets a name change, which is journaled, and then a quantity and price change, which
+ * only rewrite its hot field slot. The data files are saved before and after a compaction, and
+ * the order the compaction replaces or deletes them in is watched. For every crash point the data
+ * directory is rebuilt with the files written so far from after and the rest from before, then
+ * the inventory is loaded again and the product checked.
+ *
+ * It is a plain main method, as the project has no build manifest to pull a test framework in.
+ * Compile it next to the classes of src/ and run it from an empty directory, as it creates the
+ * data directory there, e.g. java JournalCompactionCrashTest path/to/project/data.
+ *
+ * @version ver1.0.0
+ */
+public class JournalCompactionCrashTest {
+    private static final Path DATA = Paths.get("data");
+    private static final Path BEFORE = Paths.get("before-compaction");
+    private static final Path AFTER = Paths.get("after-compaction");
+    // the files a compaction replaces or deletes
+    private static final List<Path> COMPACTED_FILES = List.of(Paths.get(Constant.INVENTORY_FILE_PATH),
+            Paths.get(Constant.PRODUCT_SNAPSHOT_FILE_PATH), Paths.get(Constant.INVENTORY_JOURNAL_FILE_PATH),
+            Paths.get(Constant.PRODUCT_HOT_FIELD_FILE_PATH));
+
+    private static final int PRODUCT_ID = 1;
+    private static final String NAME = "Renamed Product";
+    private static final int QUANTITY = 7;
+    private static final long PRICE = 1234;
+    private static final long MEMBER_PRICE = 1111;
+
+    /**
+     * Default constructor of JournalCompactionCrashTest class.
+     */
+    private JournalCompactionCrashTest() {
+
+    }
+
+    /**
+     * Entry point of the test.
+     *
+     * @param args                          The data directory to start from.
+     * @throws IOException                  If the data files cannot be copied.
+     * @throws InterruptedException         If the test is interrupted while watching the compaction.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 1 || Files.exists(DATA)) {
+            System.out.println("Run from an empty directory: java JournalCompactionCrashTest <data directory>");
+            System.exit(2);
+        }
+        copyDirectory(Paths.get(args[0]), DATA);
+
+        InventoryControl inventory = new InventoryControl();
+        check(inventory.updateField(PRODUCT_ID, Constant.FIELD_PRODUCT_NAME, NAME) == Constant.OPERATION_SUCCESS,
+                "name change");
+        check(inventory.updateField(PRODUCT_ID, Constant.FIELD_PRODUCT_QUANTITY, String.valueOf(QUANTITY))
+                == Constant.OPERATION_SUCCESS, "quantity change");
+        check(inventory.updatePrices(PRODUCT_ID, PRICE, MEMBER_PRICE) == Constant.OPERATION_SUCCESS,
+                "price change");
+        check(Files.exists(Paths.get(Constant.INVENTORY_JOURNAL_FILE_PATH))
+                && Files.exists(Paths.get(Constant.PRODUCT_HOT_FIELD_FILE_PATH)), "journal and hot field file written");
+
+        copyDirectory(DATA, BEFORE);
+        List<Path> writeOrder = watchCompaction(inventory);
+        copyDirectory(DATA, AFTER);
+        check(writeOrder.size() == COMPACTED_FILES.size(), "compaction writes " + COMPACTED_FILES
+                + ", saw " + writeOrder);
+        System.out.println("Compaction writes " + writeOrder);
+
+        boolean passed = true;
+        for (int stepsDone = 0; stepsDone <= writeOrder.size(); stepsDone++) {
+            deleteDirectory(DATA);
+            copyDirectory(BEFORE, DATA);
+            for (Path target : writeOrder.subList(0, stepsDone)) {
+                Path done = AFTER.resolve(DATA.relativize(target));
+                if (Files.exists(done)) {
+                    Files.copy(done, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                } else {
+                    Files.deleteIfExists(target);
+                }
+            }
+
+            Product product = new InventoryControl().getProductByID(PRODUCT_ID);
+            boolean kept = product != null && product.getName().equals(NAME) && product.getQuantity() == QUANTITY
+                    && product.getPrice() == PRICE && product.getMemberPrice() == MEMBER_PRICE;
+            System.out.println((kept ? "PASS" : "FAIL") + ": crash after " + stepsDone + " of " + writeOrder.size()
+                    + " compaction writes" + (kept ? "" : ", loaded " + product));
+            passed &= kept;
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Compact the journal, watching the order the compacted files are replaced or deleted in.
+     *
+     * @param inventory                     The inventory whose journal is compacted.
+     * @return                              The compacted files, in the order they were first written.
+     * @throws IOException                  If the data directory cannot be watched.
+     * @throws InterruptedException         If the test is interrupted while watching.
+     */
+    private static List<Path> watchCompaction(InventoryControl inventory) throws IOException, InterruptedException {
+        List<Path> writeOrder = new ArrayList<>();
+        try (WatchService watcher = DATA.getFileSystem().newWatchService()) {
+            DATA.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            inventory.compactInventoryJournal();
+            WatchKey key;
+            while ((key = watcher.poll(1, TimeUnit.SECONDS)) != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (!(event.context() instanceof Path)) { // overflow, the order is lost
+                        continue;
+                    }
+                    Path file = DATA.resolve((Path) event.context());
+                    if (COMPACTED_FILES.contains(file) && !writeOrder.contains(file)) {
+                        writeOrder.add(file);
+                    }
+                }
+                key.reset();
+            }
+        }
+        return writeOrder;
+    }
+
+    /**
+     * Stop the test if a precondition does not hold.
+     *
+     * @param condition                     The precondition.
+     * @param description                   What the precondition checks.
+     */
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            System.out.println("FAIL: " + description);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Copy the files of a directory, keeping their modification times so snapshots stay valid.
+     *
+     * @param source                        The directory to be copied.
+     * @param target                        The new directory.
+     * @throws IOException                  If a file cannot be copied.
+     */
+    private static void copyDirectory(Path source, Path target) throws IOException {
+        Files.createDirectories(target);
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        }
+    }
+
+    /**
+     * Delete a directory and its files.
+     *
+     * @param directory                     The directory.
+     * @throws IOException                  If a file cannot be deleted.
+     */
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,114 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Test class, checks that a crash while appending to the order index loses no order. Some orders
+ * are placed, and the index record of the last one is torn at every possible byte, as a crash
+ * during its append would leave it. The store is then started again and one more order placed,
+ * and after another start the customer's history must hold every order exactly once.
+ *
+ * It is a plain main method, as the project has no build manifest to pull a test framework in.
+ * Compile it next to the classes of src/ and run it from an empty directory, as it creates the
+ * data directory there, e.g. java OrderLogCrashTest.
+ *
+ * @version ver1.0.0
+ */
+public class OrderLogCrashTest {
+    private static final Path DATA = Paths.get("data");
+    private static final String CUSTOMER = "member@student.monash.edu";
+    private static final int ORDERS_BEFORE_CRASH = 4;
+
+    /**
+     * Default constructor of OrderLogCrashTest class.
+     */
+    private OrderLogCrashTest() {
+
+    }
+
+    /**
+     * Entry point of the test.
+     *
+     * @param args                          Not used.
+     * @throws IOException                  If the data files cannot be prepared.
+     */
+    public static void main(String[] args) throws IOException {
+        if (Files.exists(DATA)) {
+            System.out.println("Run from an empty directory: java OrderLogCrashTest");
+            System.exit(2);
+        }
+
+        Path index = Paths.get(Constant.ORDER_INDEX_FILE_PATH);
+        int lastRecordLength = 0;
+        boolean passed = true;
+        for (int tornLength = 0; tornLength == 0 || tornLength < lastRecordLength; tornLength++) {
+            Files.createDirectories(DATA);
+            OrderStore store = new OrderStore();
+            for (int order = 0; order < ORDERS_BEFORE_CRASH; order++) {
+                store.appendOrder(CUSTOMER, newOrder(order));
+            }
+
+            // keep the first bytes of the last index record only
+            List<String> lines = Files.readAllLines(index);
+            lastRecordLength = lines.get(lines.size() - 1).length() + 1;
+            long tornSize = Files.size(index) - lastRecordLength + tornLength;
+            try (FileChannel channel = FileChannel.open(index, StandardOpenOption.WRITE)) {
+                channel.truncate(tornSize);
+            }
+
+            new OrderStore().appendOrder(CUSTOMER, newOrder(ORDERS_BEFORE_CRASH));
+            List<Long> orderIds = new ArrayList<>();
+            for (Order order : new OrderStore().getOrders(CUSTOMER)) {
+                orderIds.add(order.getOrderId());
+            }
+
+            List<Long> expected = new ArrayList<>();
+            for (long orderId = 1; orderId <= ORDERS_BEFORE_CRASH + 1; orderId++) {
+                expected.add(orderId);
+            }
+            boolean kept = orderIds.equals(expected);
+            if (!kept || tornLength == 0) {
+                System.out.println((kept ? "PASS" : "FAIL") + ": index record torn after " + tornLength + " of "
+                        + lastRecordLength + " bytes, orders " + orderIds);
+            }
+            passed &= kept;
+            deleteDirectory(DATA);
+        }
+        System.out.println(passed ? "PASS: every tear point" : "FAIL: some tear points lose or repeat orders");
+        Session.current().getOutput().flush();
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Create an order of one item.
+     *
+     * @param number                        A number making the order's content distinct.
+     * @return                              The order.
+     */
+    private static Order newOrder(int number) {
+        return new Order(0, LocalDateTime.now(), List.of(new OrderItem(number + 1, "Product " + number, 1,
+                1000 + number, 900 + number)), 1000 + number, 900 + number, 100000, 99100 - number, true);
+    }
+
+    /**
+     * Delete a directory and its files.
+     *
+     * @param directory                     The directory.
+     * @throws IOException                  If a file cannot be deleted.
+     */
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}